@@ -1,58 +1,46 @@
 package br.com.barbershop.api.config; // Verifique se o nome do pacote está correto
 
-import br.com.barbershop.api.repository.BarberRepository;
-import br.com.barbershop.api.repository.ClientRepository;
+import br.com.barbershop.api.service.AccountDirectory;
+import br.com.barbershop.api.service.AccountUserDetails;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.ArrayList;
-
 @Configuration
 public class ApplicationConfig {
 
-    // 1. Injetamos os DOIS novos repositórios
     @Autowired
-    private ClientRepository clientRepository;
+    private AccountDirectory accountDirectory;
     @Autowired
-    private BarberRepository barberRepository;
+    private MeterRegistry meterRegistry;
 
-    @Bean
-    public UserDetailsService userDetailsService() {
-        // 2. Esta é a nova lógica de busca unificada
-        return username -> {
-            // Tenta encontrar o usuário primeiro na tabela de clientes
-            UserDetails clientDetails = clientRepository.findByEmail(username)
-                    .map(client -> new org.springframework.security.core.userdetails.User(
-                            client.getEmail(),
-                            client.getPassword(),
-                            new ArrayList<>() // Lista de permissões, vazia por enquanto
-                    ))
-                    .orElse(null); // Retorna nulo se não encontrar
+    // Custo do BCrypt; ao aumentar, os hashes antigos são refeitos no próximo login
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    // 0 = metade dos núcleos disponíveis
+    @Value("${security.password.hashing-threads:0}")
+    private int hashingThreads;
 
-            if (clientDetails != null) {
-                return clientDetails;
-            }
+    @Value("${security.password.hashing-queue:32}")
+    private int hashingQueue;
 
-            // Se não encontrou como cliente, tenta encontrar na tabela de barbeiros
-            return barberRepository.findByEmail(username)
-                    .map(barber -> new org.springframework.security.core.userdetails.User(
-                            barber.getEmail(),
-                            barber.getPassword(),
-                            new ArrayList<>() // Lista de permissões
-                    ))
-                    // Se não encontrar em nenhuma das duas tabelas, lança o erro
-                    .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o email: " + username));
-        };
+    @Bean
+    public UserDetailsService userDetailsService() {
+        // Uma única consulta no diretório de contas (email normalizado) cobre clientes e barbeiros
+        return username -> accountDirectory.findByEmail(username)
+                .map(AccountUserDetails::new)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o email: " + username));
     }
 
     @Bean
@@ -60,6 +48,10 @@ public class ApplicationConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Hash gravado com custo menor que o configurado: refeito com a senha do login, sem alterar a versão do token
+        authProvider.setUserDetailsPasswordService((user, newHash) -> user instanceof AccountUserDetails details
+                ? new AccountUserDetails(accountDirectory.rehash(details.getAccount(), newHash))
+                : user);
         return authProvider;
     }
 
@@ -68,8 +60,9 @@ public class ApplicationConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
+    @Bean(destroyMethod = "shutdown")
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), threads, hashingQueue, meterRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package br.com.barbershop.api.config;
+
+import br.com.barbershop.api.service.AccountDirectory;
+import br.com.barbershop.api.service.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Rate limit dos endpoints públicos de autenticação (/api/auth/** e /api/validation/**).
+ *
+ * Cada IP tem um token bucket; no POST /api/auth/login o email informado tem outro, então
+ * tentativas contra a mesma conta vindas de vários IPs também são freadas. Acima do limite a
+ * resposta é 429 com Retry-After, antes de qualquer consulta ao banco ou BCrypt. Um login com
+ * corpo acima de 8 KiB é recusado com 413, declarado no Content-Length ou não.
+ *
+ * Métricas: auth.ratelimit.requests (counter, tags limit=ip|email e outcome=allowed|rejected)
+ * e auth.ratelimit.keys (gauge com os buckets em memória, tag limit).
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+    private static final int MAX_LOGIN_BODY_BYTES = 8 * 1024;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${security.rate-limit.ip.capacity:20}")
+    private int ipCapacity = 20;
+
+    @Value("${security.rate-limit.ip.refill-per-minute:20}")
+    private double ipRefillPerMinute = 20;
+
+    @Value("${security.rate-limit.email.capacity:5}")
+    private int emailCapacity = 5;
+
+    @Value("${security.rate-limit.email.refill-per-minute:1}")
+    private double emailRefillPerMinute = 1;
+
+    @Value("${security.rate-limit.max-keys:100000}")
+    private int maxKeys = 100000;
+
+    private TokenBucketRateLimiter ipLimiter;
+    private TokenBucketRateLimiter emailLimiter;
+
+    @PostConstruct
+    void init() {
+        ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipRefillPerMinute, maxKeys);
+        emailLimiter = new TokenBucketRateLimiter(emailCapacity, emailRefillPerMinute, maxKeys);
+        Gauge.builder("auth.ratelimit.keys", ipLimiter, TokenBucketRateLimiter::size).tag("limit", "ip").register(meterRegistry);
+        Gauge.builder("auth.ratelimit.keys", emailLimiter, TokenBucketRateLimiter::size).tag("limit", "email").register(meterRegistry);
+    }
+
+    // Limpeza periódica dos buckets cheios (também feita sob demanda ao atingir max-keys)
+    @Scheduled(fixedDelayString = "${security.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        ipLimiter.evictIdle();
+        emailLimiter.evictIdle();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = pathOf(request);
+        return !enabled
+                || "OPTIONS".equals(request.getMethod())
+                || !(path.startsWith("/api/auth/") || path.startsWith("/api/validation/"));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        // Atrás de proxy, o IP real depende de server.forward-headers-strategy
+        long retryAfter = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (!record("ip", retryAfter)) {
+            reject(response, retryAfter);
+            return;
+        }
+
+        if ("POST".equals(request.getMethod()) && LOGIN_PATH.equals(pathOf(request))) {
+            // Sem Content-Length (chunked) lê no máximo um byte além do limite para detectar o excesso
+            byte[] body = request.getContentLengthLong() > MAX_LOGIN_BODY_BYTES
+                    ? null
+                    : request.getInputStream().readNBytes(MAX_LOGIN_BODY_BYTES + 1);
+            if (body == null || body.length > MAX_LOGIN_BODY_BYTES) {
+                writeMessage(response, 413, "Corpo da requisição muito grande");
+                return;
+            }
+            String email = loginEmail(body);
+            if (email != null) {
+                retryAfter = emailLimiter.tryAcquire(email);
+                if (!record("email", retryAfter)) {
+                    reject(response, retryAfter);
+                    return;
+                }
+            }
+            filterChain.doFilter(new CachedBodyRequest(request, body), response);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean record(String limit, long retryAfter) {
+        boolean allowed = retryAfter == 0;
+        meterRegistry.counter("auth.ratelimit.requests", "limit", limit, "outcome", allowed ? "allowed" : "rejected").increment();
+        return allowed;
+    }
+
+    // Email normalizado do corpo do login; nulo se o corpo não for um JSON com email
+    private static String loginEmail(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = MAPPER.readTree(body).get("email");
+            return email == null || !email.isTextual() || email.asText().isBlank()
+                    ? null
+                    : AccountDirectory.normalize(email.asText());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfter) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        writeMessage(response, 429, "Muitas tentativas. Tente novamente em " + retryAfter + " segundos");
+    }
+
+    private static void writeMessage(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        MAPPER.writeValue(response.getOutputStream(), Map.of("message", message));
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.barbershop.api.config;
+
+import java.security.Principal;
+
+/**
+ * Usuário autenticado montado só com os claims verificados do JWT (sem consulta ao banco).
+ * getName() devolve o email, como o UserDetails usado antes.
+ */
+public record AuthenticatedUser(Long id, String email, String userType) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
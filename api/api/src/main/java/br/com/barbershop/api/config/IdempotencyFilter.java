@@ -0,0 +1,187 @@
+package br.com.barbershop.api.config;
+
+import br.com.barbershop.api.model.IdempotencyRecord;
+import br.com.barbershop.api.service.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Suporte ao header Idempotency-Key em POST /api/appointments e PUT /api/appointments/{id}/confirm|cancel|complete.
+ *
+ * A primeira requisição com a chave é processada normalmente e a resposta (exceto 5xx) é guardada no
+ * IdempotencyStore. Repetições do mesmo usuário com a mesma chave recebem a resposta guardada sem
+ * chegar ao controller; a mesma chave com outro corpo retorna 422, e uma repetição enquanto a primeira
+ * ainda está em processamento (em qualquer instância) retorna 409.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Pattern IDEMPOTENT_PATHS = Pattern.compile("/api/appointments(/\\d+/(?:confirm|cancel|complete))?/?");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (request.getHeader(HEADER) == null) {
+            return true;
+        }
+        Matcher matcher = IDEMPOTENT_PATHS.matcher(pathOf(request));
+        if (!matcher.matches()) {
+            return true;
+        }
+        String expectedMethod = matcher.group(1) == null ? "POST" : "PUT";
+        return !expectedMethod.equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        // Sem usuário autenticado a requisição segue e é recusada pela autorização
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeMessage(response, 400, "Idempotency-Key inválida");
+            return;
+        }
+
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        String id = sha256((authentication.getName() + "\n" + request.getMethod() + " " + pathOf(request) + "\n" + key)
+                .getBytes(StandardCharsets.UTF_8));
+        String requestHash = sha256(body);
+
+        Optional<IdempotencyRecord> stored = idempotencyStore.find(id);
+        if (stored.isPresent()) {
+            replay(stored.get(), requestHash, response);
+            return;
+        }
+        if (!idempotencyStore.begin(id)) {
+            writeInProgress(response);
+            return;
+        }
+
+        try {
+            // A primeira tentativa pode ter terminado entre o find e o begin
+            stored = idempotencyStore.find(id);
+            if (stored.isPresent()) {
+                replay(stored.get(), requestHash, response);
+                return;
+            }
+            // Reserva no banco: a mesma chave em outra instância não chega ao controller
+            if (!idempotencyStore.reserve(id, requestHash)) {
+                stored = idempotencyStore.find(id);
+                if (stored.isPresent()) {
+                    replay(stored.get(), requestHash, response);
+                } else {
+                    writeInProgress(response);
+                }
+                return;
+            }
+
+            boolean saved = false;
+            try {
+                ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+                filterChain.doFilter(new CachedBodyRequest(request, body), cachingResponse);
+                if (cachingResponse.getStatus() < 500) {
+                    idempotencyStore.save(
+                            id,
+                            requestHash,
+                            cachingResponse.getStatus(),
+                            cachingResponse.getContentType(),
+                            new String(cachingResponse.getContentAsByteArray(), StandardCharsets.UTF_8)
+                    );
+                    saved = true;
+                }
+                cachingResponse.copyBodyToResponse();
+            } finally {
+                if (!saved) {
+                    // Falhou sem resposta guardada: a chave fica livre para uma nova tentativa
+                    idempotencyStore.release(id);
+                }
+            }
+        } finally {
+            idempotencyStore.end(id);
+        }
+    }
+
+    private void replay(IdempotencyRecord record, String requestHash, HttpServletResponse response) throws IOException {
+        if (!record.getRequestHash().equals(requestHash)) {
+            writeMessage(response, 422, "Idempotency-Key já utilizada com outra requisição");
+            return;
+        }
+        if (record.isPending()) {
+            writeInProgress(response);
+            return;
+        }
+        response.setStatus(record.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        if (record.getBody() != null) {
+            byte[] bytes = record.getBody().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(bytes.length);
+            response.getOutputStream().write(bytes);
+        }
+    }
+
+    private static void writeInProgress(HttpServletResponse response) throws IOException {
+        writeMessage(response, 409, "Requisição com este Idempotency-Key ainda em processamento");
+    }
+
+    private static void writeMessage(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        MAPPER.writeValue(response.getOutputStream(), Map.of("message", message));
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
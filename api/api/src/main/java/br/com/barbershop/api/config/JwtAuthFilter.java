@@ -1,11 +1,16 @@
 package br.com.barbershop.api.config;
 
+import br.com.barbershop.api.service.AccountDirectory;
 import br.com.barbershop.api.service.JwtService;
+import br.com.barbershop.api.service.TokenVersionCache;
+import br.com.barbershop.api.service.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,6 +32,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     private JwtService jwtService;
     @Autowired
     private UserDetailsService userDetailsService;
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    // Monta o usuário a partir dos claims (id, email, userType) sem carregar a conta a cada requisição
+    @Value("${security.jwt.stateless:true}")
+    private boolean stateless = true;
 
     @Override
     protected void doFilterInternal(
@@ -36,7 +47,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final VerifiedToken token;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -44,27 +55,47 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        try {
+            // Assinatura e expiração verificadas uma única vez (com cache em JwtService)
+            token = jwtService.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Token inválido ou expirado: segue sem autenticação e a SecurityConfig responde
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final String userEmail = token.subject();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            String userType = token.userType();
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                String userType = jwtService.extractUserType(jwt);
+            if (stateless && token.userId() != null && token.tokenVersion() != null) {
+                // A assinatura já foi verificada; só a versão do token é conferida (em cache)
+                if (tokenVersionCache.isCurrent(userType, token.userId(), token.tokenVersion())) {
+                    authenticate(request, new AuthenticatedUser(token.userId(), userEmail, userType), userType);
+                }
+            } else {
+                // Tokens antigos (sem uid/ver) continuam validados contra o banco
+                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
 
-                List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + userType)); // Ex: ROLE_CLIENT
-
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        authorities
-                );
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                if (AccountDirectory.normalize(userEmail).equals(userDetails.getUsername())) {
+                    authenticate(request, userDetails, userType);
+                }
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(HttpServletRequest request, Object principal, String userType) {
+        List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + userType)); // Ex: ROLE_CLIENT
+
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                authorities
+        );
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
\ No newline at end of file
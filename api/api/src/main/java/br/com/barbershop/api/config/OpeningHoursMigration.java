@@ -0,0 +1,47 @@
+package br.com.barbershop.api.config;
+
+import br.com.barbershop.api.model.Barbershop;
+import br.com.barbershop.api.model.OpeningInterval;
+import br.com.barbershop.api.repository.BarbershopRepository;
+import br.com.barbershop.api.service.OpeningHours;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Converte, na inicialização, o texto livre de Barbershop.hours (ex.: "Seg-Sáb: 9h-20h") para o
+ * horário estruturado. Só processa barbearias que ainda não foram migradas; textos que não puderem
+ * ser interpretados ficam como estão e a barbearia usa o horário padrão.
+ */
+@Component
+public class OpeningHoursMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(OpeningHoursMigration.class);
+
+    @Autowired
+    private BarbershopRepository barbershopRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        int migrated = 0;
+        for (Barbershop barbershop : barbershopRepository.findWithoutOpeningHours()) {
+            List<OpeningInterval> intervals = OpeningHours.parse(barbershop.getHours());
+            if (intervals.isEmpty()) {
+                log.warn("Horário da barbearia {} não reconhecido: '{}'", barbershop.getId(), barbershop.getHours());
+                continue;
+            }
+            barbershop.getOpeningHours().addAll(intervals);
+            migrated++;
+        }
+        if (migrated > 0) {
+            log.info("Horário de funcionamento estruturado gerado para {} barbearia(s)", migrated);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.barbershop.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tarefas periódicas (AppointmentMaintenanceJob, limpeza do IdempotencyStore e do rate limit).
+// A manutenção de agendamentos tem a própria chave: appointments.maintenance.enabled
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
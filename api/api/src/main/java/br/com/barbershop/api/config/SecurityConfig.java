@@ -22,6 +22,10 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthFilter jwtAuthFilter;
     @Autowired
+    private IdempotencyFilter idempotencyFilter;
+    @Autowired
+    private AuthRateLimitFilter authRateLimitFilter;
+    @Autowired
     private AuthenticationProvider authenticationProvider;
 
     @Bean
@@ -59,7 +63,11 @@ public class SecurityConfig {
                         .anyRequest().denyAll()
                 )
                 .authenticationProvider(authenticationProvider)
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Depois do JWT: a chave de idempotência é separada por usuário
+                .addFilterAfter(idempotencyFilter, JwtAuthFilter.class)
+                // Antes do JWT: tentativas acima do limite não chegam ao banco nem ao BCrypt
+                .addFilterBefore(authRateLimitFilter, JwtAuthFilter.class);
 
         return http.build();
     }
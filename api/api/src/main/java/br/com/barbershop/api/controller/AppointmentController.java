@@ -1,23 +1,49 @@
 package br.com.barbershop.api.controller;
 
 import br.com.barbershop.api.dto.AppointmentDTO;
+import br.com.barbershop.api.dto.AppointmentPageDTO;
+import br.com.barbershop.api.dto.AvailabilityDTO;
 import br.com.barbershop.api.dto.AvailableSlotsDTO;
+import br.com.barbershop.api.dto.BulkStatusResultDTO;
+import br.com.barbershop.api.dto.BulkStatusUpdateDTO;
 import br.com.barbershop.api.dto.CreateAppointmentDTO;
+import br.com.barbershop.api.dto.EarliestSlotDTO;
+import br.com.barbershop.api.dto.HoldDTO;
+import br.com.barbershop.api.dto.HoldRequestDTO;
 import br.com.barbershop.api.dto.RescheduleDTO;
+import br.com.barbershop.api.model.AppointmentStatus;
+import br.com.barbershop.api.repository.AppointmentFilter;
 import br.com.barbershop.api.service.AppointmentService;
+import br.com.barbershop.api.service.HoldLimitExceededException;
+import br.com.barbershop.api.service.SlotUnavailableException;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/appointments")
 public class AppointmentController {
 
+    // Mesma configuração dos conversores do Spring MVC (WebConfig usa @EnableWebMvc),
+    // para que as respostas enviadas em streaming tenham o mesmo formato das demais
+    private static final ObjectMapper STREAM_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
     @Autowired
     private AppointmentService appointmentService;
 
@@ -26,6 +52,8 @@ public class AppointmentController {
         try {
             AppointmentDTO newAppointment = appointmentService.create(dto);
             return ResponseEntity.status(201).body(newAppointment);
+        } catch (SlotUnavailableException e) {
+            return slotConflict(e);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "message", e.getMessage()
@@ -33,11 +61,61 @@ public class AppointmentController {
         }
     }
 
+    @PostMapping("/holds")
+    public ResponseEntity<?> holdSlot(@RequestBody HoldRequestDTO dto, Authentication authentication) {
+        try {
+            HoldDTO hold = appointmentService.holdSlot(dto, authentication == null ? null : authentication.getName());
+            return ResponseEntity.status(201).body(hold);
+        } catch (SlotUnavailableException e) {
+            return slotConflict(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", e.getMessage()
+            ));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(403).body(Map.of(
+                    "message", e.getMessage()
+            ));
+        } catch (HoldLimitExceededException e) {
+            return ResponseEntity.status(429).body(Map.of(
+                    "message", e.getMessage()
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(Map.of(
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<?> releaseHold(@PathVariable String holdId, Authentication authentication) {
+        try {
+            appointmentService.releaseHold(holdId, authentication == null ? null : authentication.getName());
+            return ResponseEntity.noContent().build();
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(403).body(Map.of(
+                    "message", e.getMessage()
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(Map.of(
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<?> getClientAppointments(@PathVariable Long clientId) {
+    public ResponseEntity<?> getClientAppointments(
+            @PathVariable Long clientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
         try {
-            List<AppointmentDTO> list = appointmentService.findByClientId(clientId);
-            return ResponseEntity.ok(Map.of("appointments", list));
+            AppointmentPageDTO page = appointmentService.findByClientId(clientId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", e.getMessage()
+            ));
         } catch (RuntimeException e) {
             return ResponseEntity.status(404).body(Map.of(
                     "message", "Cliente não encontrado"
@@ -46,10 +124,18 @@ public class AppointmentController {
     }
 
     @GetMapping("/barbershop/{barbershopId}")
-    public ResponseEntity<?> getBarbershopAppointments(@PathVariable Long barbershopId) {
+    public ResponseEntity<?> getBarbershopAppointments(
+            @PathVariable Long barbershopId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
         try {
-            List<AppointmentDTO> list = appointmentService.findByBarbershopId(barbershopId);
-            return ResponseEntity.ok(Map.of("appointments", list));
+            AppointmentPageDTO page = appointmentService.findByBarbershopId(barbershopId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", e.getMessage()
+            ));
         } catch (RuntimeException e) {
             return ResponseEntity.status(404).body(Map.of(
                     "message", e.getMessage()
@@ -57,6 +143,35 @@ public class AppointmentController {
         }
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<?> searchAppointments(
+            @RequestParam(required = false) Long barbershopId,
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) Long barberId,
+            @RequestParam(required = false) List<AppointmentStatus> status,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            // "to" é inclusivo para quem chama: vira o início do dia seguinte
+            AppointmentFilter filter = new AppointmentFilter(
+                    barbershopId,
+                    clientId,
+                    barberId,
+                    status,
+                    from == null ? null : from.atStartOfDay(),
+                    to == null ? null : to.plusDays(1).atStartOfDay()
+            );
+            return ResponseEntity.ok(appointmentService.search(filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getAppointmentById(@PathVariable Long id) {
         try {
@@ -80,6 +195,8 @@ public class AppointmentController {
                     "message", "Agendamento reagendado com sucesso",
                     "appointment", updated
             ));
+        } catch (SlotUnavailableException e) {
+            return slotConflict(e);
         } catch (IllegalStateException e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "message", e.getMessage()
@@ -91,6 +208,23 @@ public class AppointmentController {
         }
     }
 
+    @PutMapping("/status")
+    public ResponseEntity<?> updateStatuses(@RequestBody BulkStatusUpdateDTO dto, Authentication authentication) {
+        try {
+            BulkStatusResultDTO result = appointmentService.updateStatuses(
+                    dto, authentication == null ? null : authentication.getName());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", e.getMessage()
+            ));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(403).body(Map.of(
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
     @PutMapping("/{id}/cancel")
     public ResponseEntity<?> cancelAppointment(@PathVariable Long id) {
         try {
@@ -114,6 +248,12 @@ public class AppointmentController {
                     "message", "Agendamento confirmado",
                     "appointment", confirmed
             ));
+        } catch (SlotUnavailableException e) {
+            return slotConflict(e);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", e.getMessage()
+            ));
         } catch (RuntimeException e) {
             return ResponseEntity.status(404).body(Map.of(
                     "message", e.getMessage()
@@ -150,4 +290,99 @@ public class AppointmentController {
             ));
         }
     }
+
+    @GetMapping("/availability")
+    public ResponseEntity<?> getAvailability(
+            @RequestParam Long barbershopId,
+            @RequestParam LocalDate date,
+            @RequestParam(required = false) Long barberId,
+            @RequestParam(required = false) Long serviceId
+    ) {
+        try {
+            AvailabilityDTO availability = appointmentService.findAvailability(barbershopId, barberId, serviceId, date);
+            return ResponseEntity.ok(availability);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(Map.of(
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/earliest-slots")
+    public ResponseEntity<?> getEarliestSlots(
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) String serviceName,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to,
+            @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            List<EarliestSlotDTO> slots = appointmentService.findEarliestSlots(
+                    serviceId, serviceName, latitude, longitude, radiusKm, from, to, limit);
+            return ResponseEntity.ok(Map.of("slots", slots));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", e.getMessage()
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(Map.of(
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    @GetMapping("/availability/range")
+    public ResponseEntity<StreamingResponseBody> getAvailabilityRange(
+            @RequestParam Long barbershopId,
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to,
+            @RequestParam(required = false) Long barberId,
+            @RequestParam(required = false) Long serviceId
+    ) {
+        Stream<AvailabilityDTO> days;
+        try {
+            days = appointmentService.findAvailabilityRange(barbershopId, barberId, serviceId, from, to);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(outputStream -> STREAM_MAPPER.writeValue(outputStream, Map.of("message", e.getMessage())));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(outputStream -> STREAM_MAPPER.writeValue(outputStream, Map.of("message", e.getMessage())));
+        }
+
+        // Cada dia é calculado e escrito assim que fica pronto
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<AvailabilityDTO> stream = days;
+                 JsonGenerator generator = STREAM_MAPPER.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("days");
+                stream.forEach(day -> {
+                    try {
+                        STREAM_MAPPER.writeValue(generator, day);
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // 409 com os horários alternativos calculados pelo AppointmentService, quando houver
+    private static ResponseEntity<?> slotConflict(SlotUnavailableException e) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", e.getMessage());
+        if (e.getAlternatives() != null) {
+            body.put("alternatives", e.getAlternatives());
+        }
+        return ResponseEntity.status(409).body(body);
+    }
 }
@@ -3,7 +3,9 @@ package br.com.barbershop.api.controller;
 import br.com.barbershop.api.dto.AuthResponseDTO;
 import br.com.barbershop.api.dto.LoginRequest;
 import br.com.barbershop.api.service.AuthService;
+import br.com.barbershop.api.service.PasswordHashingBusyException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.Map;
@@ -20,6 +22,10 @@ public class AuthController {
         try {
             AuthResponseDTO response = authService.login(loginRequest);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(401).body(Map.of(
                     "message", "Credenciais inválidas"
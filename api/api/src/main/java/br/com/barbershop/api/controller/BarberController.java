@@ -4,7 +4,9 @@ import br.com.barbershop.api.dto.BarberDetailDTO;
 import br.com.barbershop.api.dto.BarberRegistrationDTO;
 import br.com.barbershop.api.dto.BarberResponseDTO;
 import br.com.barbershop.api.service.BarberService;
+import br.com.barbershop.api.service.PasswordHashingBusyException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.Map;
@@ -21,6 +23,10 @@ public class BarberController {
         try {
             BarberResponseDTO newBarber = barberService.register(dto);
             return ResponseEntity.status(201).body(newBarber);
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("message", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(409).body(Map.of(
                     "message", e.getMessage()
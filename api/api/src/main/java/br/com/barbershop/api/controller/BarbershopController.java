@@ -6,13 +6,21 @@ import br.com.barbershop.api.dto.BarbershopListDTO;
 import br.com.barbershop.api.dto.CreateBarbershopDTO;
 import br.com.barbershop.api.model.Barbershop;
 import br.com.barbershop.api.model.Service;
+import br.com.barbershop.api.service.BarbershopCatalogCache;
+import br.com.barbershop.api.service.BarbershopListingFilter;
 import br.com.barbershop.api.service.BarbershopService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -23,9 +31,76 @@ public class BarbershopController {
     private BarbershopService barbershopService;
 
     @GetMapping
-    public ResponseEntity<?> getAllBarbershops() {
-        List<BarbershopListDTO> barbershops = barbershopService.findAll();
-        return ResponseEntity.ok(Collections.singletonMap("barbershops", barbershops));
+    public ResponseEntity<?> getAllBarbershops(
+            @RequestParam(defaultValue = "false") boolean openNow,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) String service,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        // Com qualquer filtro, ordenação ou paginação a resposta é uma página ({barbershops, nextCursor})
+        if (minPrice != null || maxPrice != null || minRating != null || service != null || sort != null
+                || cursor != null || limit != null) {
+            try {
+                BarbershopListingFilter filter = new BarbershopListingFilter(
+                        minPrice, maxPrice, minRating, service, openNow, sort, lat, lng);
+                return ResponseEntity.ok(barbershopService.list(filter, cursor, limit));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            }
+        }
+        if (openNow) {
+            return ResponseEntity.ok(Collections.singletonMap("barbershops", barbershopService.findOpenNow()));
+        }
+
+        // Catálogo completo: bytes já serializados (e comprimidos), revalidados pelo ETag
+        BarbershopCatalogCache.Snapshot catalog = barbershopService.catalog();
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        boolean notModified = catalog.matches(ifNoneMatch);
+        ResponseEntity.BodyBuilder response = notModified ? ResponseEntity.status(HttpStatus.NOT_MODIFIED) : ResponseEntity.ok();
+        response.eTag(gzip ? catalog.gzipEtag() : catalog.etag())
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (notModified) {
+            return response.build();
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(gzip ? catalog.gzip() : catalog.json());
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyBarbershops(@RequestParam(required = false) Double lat,
+                                                  @RequestParam(required = false) Double lng,
+                                                  @RequestParam(required = false) Double radiusKm,
+                                                  @RequestParam(required = false) Double minRating,
+                                                  @RequestParam(required = false) BigDecimal maxPrice,
+                                                  @RequestParam(required = false) Integer limit) {
+        try {
+            List<BarbershopListDTO> barbershops = barbershopService.findNearby(lat, lng, radiusKm, minRating, maxPrice, limit);
+            return ResponseEntity.ok(Collections.singletonMap("barbershops", barbershops));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchBarbershops(@RequestParam(required = false) String q,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(barbershopService.search(q, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -3,7 +3,9 @@ package br.com.barbershop.api.controller;
 import br.com.barbershop.api.dto.ClientRegistrationDTO;
 import br.com.barbershop.api.dto.ClientResponseDTO;
 import br.com.barbershop.api.service.ClientService;
+import br.com.barbershop.api.service.PasswordHashingBusyException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.Map;
@@ -20,6 +22,10 @@ public class ClientController {
         try {
             ClientResponseDTO newClient = clientService.register(dto);
             return ResponseEntity.status(201).body(newClient);
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("message", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(409).body(Map.of(
                     "message", e.getMessage()
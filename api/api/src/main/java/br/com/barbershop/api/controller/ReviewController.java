@@ -0,0 +1,59 @@
+package br.com.barbershop.api.controller;
+
+import br.com.barbershop.api.dto.CreateReviewDTO;
+import br.com.barbershop.api.dto.ReviewDTO;
+import br.com.barbershop.api.service.ReviewRateLimitException;
+import br.com.barbershop.api.service.ReviewService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+public class ReviewController {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @PostMapping("/appointments/{id}/review")
+    public ResponseEntity<?> createReview(
+            @PathVariable Long id,
+            @RequestBody CreateReviewDTO dto,
+            Authentication authentication
+    ) {
+        try {
+            ReviewDTO review = reviewService.create(id, authentication == null ? null : authentication.getName(), dto);
+            return ResponseEntity.status(201).body(review);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(403).body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        } catch (ReviewRateLimitException e) {
+            return ResponseEntity.status(429)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/barbershops/{id}/reviews")
+    public ResponseEntity<?> getBarbershopReviews(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            return ResponseEntity.ok(reviewService.findByBarbershopId(id, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+}
@@ -2,8 +2,10 @@ package br.com.barbershop.api.controller;
 
 import br.com.barbershop.api.dto.UserResponseDTO;
 import br.com.barbershop.api.dto.UserUpdateDTO;
+import br.com.barbershop.api.service.PasswordHashingBusyException;
 import br.com.barbershop.api.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -60,6 +62,10 @@ public class UserController {
 
             UserResponseDTO updatedUser = userService.updateUser(id, userType, dto);
             return ResponseEntity.ok(updatedUser);
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("message", e.getMessage()));
         } catch (RuntimeException e) {
             if (e.getMessage().contains("não encontrado")) {
                 return ResponseEntity.status(404).body(Map.of("message", e.getMessage()));
@@ -3,7 +3,7 @@ package br.com.barbershop.api.controller;
 import br.com.barbershop.api.dto.ValidationRequest;
 import br.com.barbershop.api.dto.ValidationResponse;
 import br.com.barbershop.api.repository.BarberRepository;
-import br.com.barbershop.api.repository.ClientRepository;
+import br.com.barbershop.api.service.AccountDirectory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,17 +13,15 @@ import org.springframework.web.bind.annotation.*;
 public class ValidationController {
 
     @Autowired
-    private ClientRepository clientRepository;
+    private AccountDirectory accountDirectory;
 
     @Autowired
     private BarberRepository barberRepository;
 
     @PostMapping("/email")
     public ResponseEntity<ValidationResponse> validateEmail(@RequestBody ValidationRequest request) {
-        boolean existsClient = clientRepository.findByEmail(request.getValue()).isPresent();
-        boolean existsBarber = barberRepository.findByEmail(request.getValue()).isPresent();
-
-        if (existsClient || existsBarber) {
+        // Uma consulta no diretório de contas cobre clientes e barbeiros
+        if (accountDirectory.isEmailTaken(request.getValue())) {
             return ResponseEntity.ok(new ValidationResponse(false, "Email já está em uso"));
         }
         return ResponseEntity.ok(new ValidationResponse(true, "Email disponível"));
@@ -0,0 +1,19 @@
+package br.com.barbershop.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityDTO {
+    private Long barbershopId;
+    private Long serviceId; // Pode ser nulo quando nenhum serviço foi informado
+    private Integer duration; // Duração considerada em minutos
+    private LocalDate date;
+    private List<BarberAvailabilityDTO> barbers;
+}
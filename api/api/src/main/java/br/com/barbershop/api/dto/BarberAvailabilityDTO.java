@@ -0,0 +1,16 @@
+package br.com.barbershop.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BarberAvailabilityDTO {
+    private Long barberId;
+    private String barberName;
+    private List<String> availableSlots; // Horários de início no formato "HH:mm"
+}
@@ -11,6 +11,8 @@ public class BarbershopListDTO {
     private Double rating;
     private Integer reviews;
     private BigDecimal price;
+    private BigDecimal minPrice; // Menor e maior preço entre os serviços (nulos sem serviços)
+    private BigDecimal maxPrice;
     private String address;
     private String cep;
     private String phone;
@@ -19,4 +21,5 @@ public class BarbershopListDTO {
     private String image;
     private Double latitude;
     private Double longitude;
+    private Double distanceKm; // Preenchido apenas em /nearby
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package br.com.barbershop.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BarbershopPageDTO {
+    private List<BarbershopListDTO> barbershops;
+
+    // Cursor opaco para buscar a próxima página; nulo quando não há mais resultados
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package br.com.barbershop.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BarbershopSearchPageDTO {
+    private List<BarbershopListDTO> barbershops;
+
+    // Total de barbearias encontradas pela consulta
+    private int total;
+
+    // Cursor opaco para buscar a próxima página; nulo quando não há mais resultados
+    private String nextCursor;
+}
@@ -0,0 +1,17 @@
+package br.com.barbershop.api.dto;
+
+import br.com.barbershop.api.model.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusItemDTO {
+    private Long id;
+    private boolean updated;
+    private AppointmentStatus previousStatus; // Nulo se o agendamento não existe
+    private AppointmentStatus status; // Status após a operação
+    private String message; // Motivo quando não foi atualizado
+}
@@ -0,0 +1,16 @@
+package br.com.barbershop.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusResultDTO {
+    private int updated;
+    private int rejected;
+    private List<BulkStatusItemDTO> results;
+}
@@ -0,0 +1,21 @@
+package br.com.barbershop.api.dto;
+
+import br.com.barbershop.api.model.AppointmentStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class BulkStatusUpdateDTO {
+    private AppointmentStatus status; // Novo status (CONFIRMED, CANCELLED ou COMPLETED)
+
+    // Opção 1: lista de IDs
+    private List<Long> ids;
+
+    // Opção 2: filtro (ex.: todos os CONFIRMED do barbeiro X antes de agora)
+    private Long barbershopId;
+    private Long barberId;
+    private List<AppointmentStatus> fromStatus; // Status atuais considerados (padrão: todos os permitidos)
+    private LocalDateTime before; // Apenas agendamentos que começam antes deste momento
+}
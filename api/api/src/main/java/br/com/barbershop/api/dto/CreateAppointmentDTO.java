@@ -12,4 +12,5 @@ public class CreateAppointmentDTO {
     private Long serviceId;
     private LocalDate date; // Data no formato YYYY-MM-DD
     private LocalTime time; // Hora no formato HH:MM
+    private String holdId; // Opcional: reserva obtida em POST /api/appointments/holds
 }
\ No newline at end of file
@@ -8,4 +8,8 @@ public class CreateBarbershopDTO {
     private String address;
     private String phone;
     private String hours;
+    private Double latitude; // Opcional: sem coordenadas a barbearia não aparece em /nearby
+    private Double longitude;
+    private Integer pendingTtlMinutes; // Opcional: validade de agendamentos não confirmados
+    private Integer autoCompleteAfterMinutes; // Opcional: conclusão automática após o horário
 }
\ No newline at end of file
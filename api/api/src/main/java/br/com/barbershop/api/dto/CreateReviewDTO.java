@@ -0,0 +1,9 @@
+package br.com.barbershop.api.dto;
+
+import lombok.Data;
+
+@Data
+public class CreateReviewDTO {
+    private Integer rating; // 1 a 5
+    private String comment; // Opcional, até 1000 caracteres
+}
@@ -0,0 +1,27 @@
+package br.com.barbershop.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EarliestSlotDTO {
+    private Long barbershopId;
+    private String barbershopName;
+    private String barbershopAddress;
+    private Double distanceKm; // Nulo quando a busca não informou localização
+    private Long barberId;
+    private String barberName;
+    private Long serviceId;
+    private String serviceName;
+    private int duration;
+    private BigDecimal price;
+    private LocalDate date;
+    private LocalTime time;
+}
@@ -0,0 +1,22 @@
+package br.com.barbershop.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldDTO {
+    private String holdId; // Enviado no POST /api/appointments para consumir a reserva
+    private Long barbershopId;
+    private Long barberId;
+    private LocalDate date;
+    private LocalTime time;
+    private int duration;
+    private Instant expiresAt;
+}
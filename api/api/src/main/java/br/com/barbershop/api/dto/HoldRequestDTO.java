@@ -0,0 +1,14 @@
+package br.com.barbershop.api.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+public class HoldRequestDTO {
+    private Long barbershopId;
+    private Long barberId;
+    private Long serviceId; // Opcional: sem serviço, reserva um slot padrão de 30 minutos
+    private LocalDate date; // Data no formato YYYY-MM-DD
+    private LocalTime time; // Hora no formato HH:MM
+}
@@ -0,0 +1,20 @@
+package br.com.barbershop.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewDTO {
+    private Long id;
+    private Long appointmentId;
+    private Long barbershopId;
+    private String clientName;
+    private Integer rating;
+    private String comment;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package br.com.barbershop.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotAlternativesDTO {
+    private LocalDate date;
+    private int duration;
+    private List<String> sameBarber; // Horários "HH:mm" do barbeiro pedido, do mais próximo ao mais distante
+    private List<BarberAvailabilityDTO> otherBarbers; // Idem para os demais barbeiros da barbearia
+}
@@ -0,0 +1,42 @@
+package br.com.barbershop.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Diretório de contas: uma linha por cliente ou barbeiro, indexada pelo email normalizado.
+ * Login, UserDetailsService e validação de email consultam só esta tabela, e a constraint única
+ * do email impede o mesmo email em um cliente e em um barbeiro.
+ */
+@Entity
+@Table(name = "accounts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_accounts_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_accounts_user", columnNames = {"user_type", "user_id"})
+})
+@Data
+public class Account {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Email em minúsculas e sem espaços nas pontas (AccountDirectory.normalize)
+    @Column(nullable = false)
+    private String email;
+
+    // CLIENT ou BARBER
+    @Column(name = "user_type", nullable = false, length = 16)
+    private String userType;
+
+    // Id em clients ou barbers, conforme userType
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Hash BCrypt da senha (o mesmo gravado em Client/Barber)
+    @Column(nullable = false)
+    private String password;
+
+    // Incrementada ao trocar email ou senha: tokens emitidos com a versão anterior deixam de valer
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion = 0;
+}
@@ -6,7 +6,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        // Agenda/disponibilidade e busca paginada por keyset (start_time, id) de cada dono da agenda
+        @Index(name = "idx_appointments_barbershop_start_id", columnList = "barbershop_id, start_time, id"),
+        @Index(name = "idx_appointments_client_start_id", columnList = "client_id, start_time, id"),
+        @Index(name = "idx_appointments_barber_start_id", columnList = "barber_id, start_time, id")
+})
 @Data
 public class Appointment {
 
@@ -2,6 +2,8 @@ package br.com.barbershop.api.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+
+import java.math.BigDecimal;
 import java.util.List;
 
 @Entity
@@ -26,13 +28,50 @@ public class Barbershop {
     private Double rating;
     private Integer reviews;
 
+    // Soma das notas das avaliações: rating = ratingSum / reviews, atualizado a cada avaliação
+    // (BarbershopRepository.addRating), sem recalcular a média sobre todas as avaliações
+    @Column(name = "rating_sum")
+    private Long ratingSum = 0L;
+
     // NOVOS CAMPOS OPCIONAIS PARA COORDENADAS
     private Double latitude;
     private Double longitude;
 
+    // Minutos que um agendamento PENDING espera confirmação antes de ser cancelado pela
+    // manutenção automática (nulo = appointments.maintenance.pending-ttl-minutes)
+    @Column(name = "pending_ttl_minutes")
+    private Integer pendingTtlMinutes;
+
+    // Minutos após o fim de um agendamento CONFIRMED para marcá-lo como COMPLETED
+    // (nulo = appointments.maintenance.auto-complete-after-minutes)
+    @Column(name = "auto_complete_after_minutes")
+    private Integer autoCompleteAfterMinutes;
+
+    // Agregados dos preços dos serviços, atualizados junto com cada serviço adicionado
+    // (BarbershopRepository.addServicePrice); min/max/avg ficam nulos sem serviços
+    @Column(name = "service_count")
+    private Integer serviceCount = 0;
+
+    @Column(name = "price_sum", precision = 12, scale = 2)
+    private BigDecimal priceSum = BigDecimal.ZERO;
+
+    @Column(name = "min_price", precision = 10, scale = 2)
+    private BigDecimal minPrice;
+
+    @Column(name = "max_price", precision = 10, scale = 2)
+    private BigDecimal maxPrice;
+
+    @Column(name = "avg_price", precision = 10, scale = 2)
+    private BigDecimal avgPrice;
+
     @OneToMany(mappedBy = "barbershop", fetch = FetchType.LAZY)
     private List<Barber> barbers;
 
     @OneToMany(mappedBy = "barbershop", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Service> services;
+
+    // Horário de funcionamento estruturado, gerado a partir do texto de "hours"
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "barbershop_opening_hours", joinColumns = @JoinColumn(name = "barbershop_id"))
+    private List<OpeningInterval> openingHours;
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package br.com.barbershop.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resposta gravada para um Idempotency-Key. O id é o SHA-256 de usuário + método + caminho + chave,
+ * e requestHash é o SHA-256 do corpo, para recusar a mesma chave com outro conteúdo. Enquanto a
+ * requisição está em processamento o registro fica pendente (status 0, sem corpo).
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private int status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(columnDefinition = "text")
+    private String body;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public boolean isPending() {
+        return status == 0;
+    }
+}
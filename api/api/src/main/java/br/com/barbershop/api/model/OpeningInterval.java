@@ -0,0 +1,32 @@
+package br.com.barbershop.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+// Um período de funcionamento num dia da semana. Intervalos (almoço) viram dois períodos no mesmo dia
+// e dias sem nenhum período são considerados fechados.
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpeningInterval {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false)
+    private DayOfWeek dayOfWeek;
+
+    @Column(name = "open_time", nullable = false)
+    private LocalTime openTime;
+
+    // 00:00 no fechamento significa meia-noite (fim do dia)
+    @Column(name = "close_time", nullable = false)
+    private LocalTime closeTime;
+}
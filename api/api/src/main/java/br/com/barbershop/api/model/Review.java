@@ -0,0 +1,45 @@
+package br.com.barbershop.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reviews", indexes = {
+        // Avaliações de uma barbearia, das mais recentes para as mais antigas (paginação por id)
+        @Index(name = "idx_reviews_barbershop_id", columnList = "barbershop_id, id"),
+        // Limite de avaliações por cliente numa janela de tempo
+        @Index(name = "idx_reviews_client_created", columnList = "client_id, created_at")
+})
+@Data
+public class Review {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Uma avaliação por agendamento concluído (garantido também pela constraint unique)
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "appointment_id", nullable = false, unique = true)
+    private Appointment appointment;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "barbershop_id", nullable = false)
+    private Barbershop barbershop;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "client_id", nullable = false)
+    private Client client;
+
+    // Nota de 1 a 5
+    @Column(nullable = false)
+    private Integer rating;
+
+    @Column(length = 1000)
+    private String comment;
+
+    // Preenchido pelo ReviewService no fuso da barbearia, o mesmo da janela do limite por cliente
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,26 @@
+package br.com.barbershop.api.repository;
+
+import br.com.barbershop.api.model.Account;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface AccountRepository extends JpaRepository<Account, Long> {
+    Optional<Account> findByEmail(String email);
+    boolean existsByEmail(String email);
+    Optional<Account> findByUserTypeAndUserId(String userType, Long userId);
+
+    @Query("SELECT a.tokenVersion FROM Account a WHERE a.userType = :userType AND a.userId = :userId")
+    Optional<Integer> findTokenVersion(@Param("userType") String userType, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Account a SET a.password = :password WHERE a.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    @Modifying
+    @Query("DELETE FROM Account a WHERE a.userType = :userType AND a.userId = :userId")
+    int deleteByUser(@Param("userType") String userType, @Param("userId") Long userId);
+}
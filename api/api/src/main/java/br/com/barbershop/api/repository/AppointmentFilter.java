@@ -0,0 +1,18 @@
+package br.com.barbershop.api.repository;
+
+import br.com.barbershop.api.model.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Filtros opcionais da busca de agendamentos (campos nulos/vazios são ignorados).
+// from é inclusivo e to exclusivo, ambos sobre o início do agendamento.
+public record AppointmentFilter(
+        Long barbershopId,
+        Long clientId,
+        Long barberId,
+        List<AppointmentStatus> statuses,
+        LocalDateTime from,
+        LocalDateTime to
+) {
+}
@@ -3,11 +3,36 @@ package br.com.barbershop.api.repository;
 import br.com.barbershop.api.model.Appointment;
 import br.com.barbershop.api.model.AppointmentStatus; // Import Enum
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentSearchRepository {
+
+    // Colunas do AppointmentView numa única consulta com JOIN (sem carregar as entidades relacionadas)
+    String VIEW_SELECT = """
+            SELECT a.id AS id,
+                   c.id AS clientId, c.name AS clientName,
+                   bs.id AS barbershopId, bs.name AS barbershopName,
+                   bs.address AS barbershopAddress, bs.phone AS barbershopPhone,
+                   b.id AS barberId, b.name AS barberName,
+                   s.id AS serviceId, s.name AS serviceName, s.duration AS duration,
+                   a.startTime AS startTime, a.endTime AS endTime,
+                   a.price AS price, a.status AS status
+            FROM Appointment a
+            JOIN a.client c
+            JOIN a.barbershop bs
+            JOIN a.barber b
+            JOIN a.service s
+            """;
+
+    @Query(VIEW_SELECT + "WHERE a.id = :id")
+    Optional<AppointmentView> findViewById(@Param("id") Long id);
 
     List<Appointment> findByClientId(Long clientId);
     List<Appointment> findByBarbershopId(Long barbershopId);
@@ -29,7 +54,187 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // Método para buscar por barbearia e intervalo de tempo
     List<Appointment> findByBarbershopIdAndStartTimeBetween(Long barbershopId, LocalDateTime start, LocalDateTime end);
 
-    // Método para buscar por barbearia, intervalo de tempo E status específicos
-    List<Appointment> findByBarbershopIdAndStartTimeBetweenAndStatusIn(Long barbershopId, LocalDateTime start, LocalDateTime end, List<AppointmentStatus> statuses);
+    // Agendamentos com os status informados que ocupam algum minuto de [start, end), inclusive os
+    // que começaram antes (ex.: no dia anterior, passando da meia-noite)
+    List<Appointment> findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(Long barbershopId, LocalDateTime end, LocalDateTime start, List<AppointmentStatus> statuses);
+
+    // Mesma busca para várias barbearias de uma vez (ex.: procura do horário mais cedo)
+    List<Appointment> findByBarbershopIdInAndStartTimeBeforeAndEndTimeAfterAndStatusIn(Collection<Long> barbershopIds, LocalDateTime end, LocalDateTime start, List<AppointmentStatus> statuses);
+
+    /**
+     * Cria um agendamento PENDING numa única instrução: confere se cliente, barbeiro, barbearia e
+     * serviço existem, se o barbeiro está livre em [startTime, startTime + duração do serviço) e
+     * insere, devolvendo já os nomes usados no AppointmentDTO.
+     *
+     * Retorna vazio se algum dos IDs não existir ou se o horário estiver ocupado. Agendamentos
+     * concorrentes que passem juntos pelo NOT EXISTS são barrados pela constraint appointments_no_overlap.
+     */
+    @Transactional
+    @Query(value = """
+            WITH input AS (
+                SELECT c.id AS client_id, c.name AS client_name,
+                       b.id AS barber_id, b.name AS barber_name,
+                       bs.id AS barbershop_id, bs.name AS barbershop_name,
+                       bs.address AS barbershop_address, bs.phone AS barbershop_phone,
+                       s.id AS service_id, s.name AS service_name, s.duration, s.price,
+                       CAST(:startTime AS timestamp) AS start_time,
+                       CAST(:startTime AS timestamp) + make_interval(mins => COALESCE(s.duration, 30)) AS end_time
+                FROM clients c, barbers b, barbershops bs, services s
+                WHERE c.id = :clientId AND b.id = :barberId AND bs.id = :barbershopId AND s.id = :serviceId
+            ),
+            inserted AS (
+                INSERT INTO appointments (client_id, barber_id, barbershop_id, service_id,
+                                          start_time, end_time, status, price, created_at, updated_at)
+                SELECT i.client_id, i.barber_id, i.barbershop_id, i.service_id,
+                       i.start_time, i.end_time, 'PENDING', i.price, now(), now()
+                FROM input i
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM appointments a
+                    WHERE a.barber_id = i.barber_id
+                      AND a.status IN ('PENDING', 'CONFIRMED')
+                      AND a.start_time < i.end_time
+                      AND a.end_time > i.start_time
+                )
+                RETURNING id, start_time, end_time, status, price
+            )
+            SELECT n.id AS "id",
+                   i.client_id AS "clientId", i.client_name AS "clientName",
+                   i.barbershop_id AS "barbershopId", i.barbershop_name AS "barbershopName",
+                   i.barbershop_address AS "barbershopAddress", i.barbershop_phone AS "barbershopPhone",
+                   i.barber_id AS "barberId", i.barber_name AS "barberName",
+                   i.service_id AS "serviceId", i.service_name AS "serviceName", i.duration AS "duration",
+                   n.start_time AS "startTime", n.end_time AS "endTime",
+                   n.price AS "price", n.status AS "status"
+            FROM inserted n CROSS JOIN input i
+            """, nativeQuery = true)
+    Optional<AppointmentView> book(
+            @Param("clientId") Long clientId,
+            @Param("barberId") Long barberId,
+            @Param("barbershopId") Long barbershopId,
+            @Param("serviceId") Long serviceId,
+            @Param("startTime") LocalDateTime startTime
+    );
+
+    /**
+     * Aplica o novo status aos IDs informados numa única instrução, apenas onde o status atual
+     * está em allowedFrom. Retorna uma linha por ID pedido, com o status anterior e se foi atualizado.
+     */
+    @Transactional
+    @Query(value = """
+            WITH requested AS (
+                SELECT DISTINCT r.id FROM unnest(ARRAY[:ids]) AS r(id)
+            ),
+            previous AS (
+                SELECT a.id, a.status
+                FROM appointments a
+                JOIN requested r ON r.id = a.id
+                FOR UPDATE OF a
+            ),
+            updated AS (
+                UPDATE appointments a
+                SET status = :status, updated_at = now()
+                FROM previous p
+                WHERE a.id = p.id AND p.status IN (:allowedFrom)
+                RETURNING a.id
+            )
+            SELECT r.id AS "id", p.status AS "previousStatus", (u.id IS NOT NULL) AS "updated"
+            FROM requested r
+            LEFT JOIN previous p ON p.id = r.id
+            LEFT JOIN updated u ON u.id = r.id
+            ORDER BY r.id
+            """, nativeQuery = true)
+    List<StatusTransitionView> transitionStatus(
+            @Param("ids") List<Long> ids,
+            @Param("status") String status,
+            @Param("allowedFrom") List<String> allowedFrom
+    );
+
+    /**
+     * Mesma transição, mas para todos os agendamentos do barbeiro/barbearia cujo status atual está em
+     * fromStatus e que começam antes de before. Retorna apenas as linhas atualizadas.
+     */
+    @Transactional
+    @Query(value = """
+            WITH previous AS (
+                SELECT a.id, a.status
+                FROM appointments a
+                WHERE a.barbershop_id = COALESCE(CAST(:barbershopId AS bigint), a.barbershop_id)
+                  AND a.barber_id = COALESCE(CAST(:barberId AS bigint), a.barber_id)
+                  AND a.status IN (:fromStatus)
+                  AND a.start_time < :before
+                FOR UPDATE OF a
+            ),
+            updated AS (
+                UPDATE appointments a
+                SET status = :status, updated_at = now()
+                FROM previous p
+                WHERE a.id = p.id
+                RETURNING a.id, p.status
+            )
+            SELECT u.id AS "id", u.status AS "previousStatus", true AS "updated"
+            FROM updated u
+            ORDER BY u.id
+            """, nativeQuery = true)
+    List<StatusTransitionView> transitionStatusWhere(
+            @Param("barbershopId") Long barbershopId,
+            @Param("barberId") Long barberId,
+            @Param("fromStatus") List<String> fromStatus,
+            @Param("before") LocalDateTime before,
+            @Param("status") String status
+    );
+
+    /**
+     * Cancela um lote de agendamentos PENDING vencidos: já começaram ou estão sem confirmação há mais
+     * que o TTL da barbearia. SKIP LOCKED permite que vários nós executem a limpeza ao mesmo tempo
+     * sem disputar as mesmas linhas. Retorna os IDs alterados.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE appointments a
+            SET status = 'CANCELLED', updated_at = :now
+            WHERE a.id IN (
+                SELECT p.id
+                FROM appointments p
+                JOIN barbershops b ON b.id = p.barbershop_id
+                WHERE p.status = 'PENDING'
+                  AND (p.start_time < :now
+                       OR p.created_at < :now - make_interval(mins => COALESCE(b.pending_ttl_minutes, :defaultTtlMinutes)))
+                ORDER BY p.id
+                LIMIT :batchSize
+                FOR UPDATE OF p SKIP LOCKED
+            )
+            RETURNING a.id
+            """, nativeQuery = true)
+    List<Long> expireStalePending(
+            @Param("now") LocalDateTime now,
+            @Param("defaultTtlMinutes") int defaultTtlMinutes,
+            @Param("batchSize") int batchSize
+    );
+
+    /**
+     * Conclui um lote de agendamentos CONFIRMED que terminaram há mais que o prazo da barbearia.
+     * Mesmo esquema de lote com SKIP LOCKED de expireStalePending.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE appointments a
+            SET status = 'COMPLETED', updated_at = :now
+            WHERE a.id IN (
+                SELECT c.id
+                FROM appointments c
+                JOIN barbershops b ON b.id = c.barbershop_id
+                WHERE c.status = 'CONFIRMED'
+                  AND c.end_time < :now - make_interval(mins => COALESCE(b.auto_complete_after_minutes, :defaultAfterMinutes))
+                ORDER BY c.id
+                LIMIT :batchSize
+                FOR UPDATE OF c SKIP LOCKED
+            )
+            RETURNING a.id
+            """, nativeQuery = true)
+    List<Long> completePastConfirmed(
+            @Param("now") LocalDateTime now,
+            @Param("defaultAfterMinutes") int defaultAfterMinutes,
+            @Param("batchSize") int batchSize
+    );
 
 }
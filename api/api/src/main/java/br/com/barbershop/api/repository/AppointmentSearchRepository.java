@@ -0,0 +1,14 @@
+package br.com.barbershop.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AppointmentSearchRepository {
+
+    /**
+     * Busca paginada por keyset em (start_time, id): retorna até limit agendamentos que atendem
+     * aos filtros e vêm depois de (afterStartTime, afterId), em ordem crescente. Sem cursor
+     * (afterStartTime nulo), começa do primeiro.
+     */
+    List<AppointmentView> search(AppointmentFilter filter, LocalDateTime afterStartTime, Long afterId, int limit);
+}
@@ -0,0 +1,76 @@
+package br.com.barbershop.api.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Monta o JPQL só com os filtros informados, para que o PostgreSQL use o índice composto
+// adequado (barbearia, cliente ou barbeiro + start_time + id) em vez de um plano genérico.
+public class AppointmentSearchRepositoryImpl implements AppointmentSearchRepository {
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AppointmentView> search(AppointmentFilter filter, LocalDateTime afterStartTime, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(AppointmentRepository.VIEW_SELECT).append("WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter.barbershopId() != null) {
+            jpql.append(" AND bs.id = :barbershopId");
+            params.put("barbershopId", filter.barbershopId());
+        }
+        if (filter.clientId() != null) {
+            jpql.append(" AND c.id = :clientId");
+            params.put("clientId", filter.clientId());
+        }
+        if (filter.barberId() != null) {
+            jpql.append(" AND b.id = :barberId");
+            params.put("barberId", filter.barberId());
+        }
+        if (filter.statuses() != null && !filter.statuses().isEmpty()) {
+            jpql.append(" AND a.status IN :statuses");
+            params.put("statuses", filter.statuses());
+        }
+        if (filter.from() != null) {
+            jpql.append(" AND a.startTime >= :from");
+            params.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            jpql.append(" AND a.startTime < :to");
+            params.put("to", filter.to());
+        }
+        if (afterStartTime != null) {
+            jpql.append(" AND (a.startTime > :afterStartTime OR (a.startTime = :afterStartTime AND a.id > :afterId))");
+            params.put("afterStartTime", afterStartTime);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY a.startTime, a.id");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+
+        List<AppointmentView> views = new ArrayList<>();
+        for (Tuple tuple : query.getResultList()) {
+            Map<String, Object> row = new HashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            views.add(projectionFactory.createProjection(AppointmentView.class, row));
+        }
+        return views;
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.barbershop.api.repository;
+
+import br.com.barbershop.api.model.AppointmentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Projeção com tudo o que o AppointmentDTO precisa, preenchida por uma única consulta
+// (sem carregar as entidades relacionadas)
+public interface AppointmentView {
+
+    Long getId();
+
+    Long getClientId();
+
+    String getClientName();
+
+    Long getBarbershopId();
+
+    String getBarbershopName();
+
+    String getBarbershopAddress();
+
+    String getBarbershopPhone();
+
+    Long getBarberId();
+
+    String getBarberName();
+
+    Long getServiceId();
+
+    String getServiceName();
+
+    Integer getDuration();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+
+    BigDecimal getPrice();
+
+    AppointmentStatus getStatus();
+}
@@ -2,12 +2,25 @@ package br.com.barbershop.api.repository;
 
 import br.com.barbershop.api.model.Barber;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface BarberRepository extends JpaRepository<Barber, Long> {
     Optional<Barber> findByEmail(String email);
     Optional<Barber> findByCpf(String cpf);
+    List<Barber> findByBarbershopId(Long barbershopId);
+    List<Barber> findByBarbershopIdIn(Collection<Long> barbershopIds);
 
     boolean existsByEmail(String email);
     boolean existsByCpf(String cpf);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Barber b SET b.password = :password WHERE b.id = :id")
+    void updatePassword(@Param("id") Long id, @Param("password") String password);
 }
@@ -1,8 +1,15 @@
 package br.com.barbershop.api.repository;
 
 import br.com.barbershop.api.model.Barbershop;
+import br.com.barbershop.api.model.OpeningInterval;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query; // Importe a anotação Query
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List; // Importe a classe List
 
 public interface BarbershopRepository extends JpaRepository<Barbershop, Long> {
@@ -12,4 +19,46 @@ public interface BarbershopRepository extends JpaRepository<Barbershop, Long> {
     // na mesma consulta, já "puxar" (FETCH) a lista de serviços de cada uma.
     @Query("SELECT DISTINCT b FROM Barbershop b LEFT JOIN FETCH b.services")
     List<Barbershop> findAllWithServices();
+
+    @Query("SELECT DISTINCT b FROM Barbershop b LEFT JOIN FETCH b.services WHERE b.id IN :ids")
+    List<Barbershop> findAllWithServicesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT oh FROM Barbershop b JOIN b.openingHours oh WHERE b.id = :barbershopId")
+    List<OpeningInterval> findOpeningHours(@Param("barbershopId") Long barbershopId);
+
+    // Pares [id da barbearia, OpeningInterval] de todas as barbearias, numa única consulta
+    @Query("SELECT b.id, oh FROM Barbershop b JOIN b.openingHours oh")
+    List<Object[]> findAllOpeningHours();
+
+    // Pares [id da barbearia, nome do serviço], sem carregar as entidades Service
+    @Query("SELECT b.id, s.name FROM Barbershop b JOIN b.services s ORDER BY s.id")
+    List<Object[]> findAllServiceNames();
+
+    // Soma um serviço aos agregados de preço no próprio UPDATE (os valores da direita são os
+    // anteriores), então adições simultâneas na mesma barbearia não se perdem
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Barbershop b SET " +
+            "b.serviceCount = COALESCE(b.serviceCount, 0) + 1, " +
+            "b.priceSum = COALESCE(b.priceSum, 0) + :price, " +
+            "b.minPrice = CASE WHEN b.minPrice IS NULL OR b.minPrice > :price THEN :price ELSE b.minPrice END, " +
+            "b.maxPrice = CASE WHEN b.maxPrice IS NULL OR b.maxPrice < :price THEN :price ELSE b.maxPrice END, " +
+            "b.avgPrice = (COALESCE(b.priceSum, 0) + :price) / (COALESCE(b.serviceCount, 0) + 1) " +
+            "WHERE b.id = :barbershopId")
+    int addServicePrice(@Param("barbershopId") Long barbershopId, @Param("price") BigDecimal price);
+
+    // Soma uma avaliação à nota no próprio UPDATE (O(1), sem AVG sobre as avaliações); o lock da
+    // linha serializa avaliações simultâneas da mesma barbearia sem perder nenhuma
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Barbershop b SET " +
+            "b.ratingSum = COALESCE(b.ratingSum, 0) + :rating, " +
+            "b.reviews = COALESCE(b.reviews, 0) + 1, " +
+            "b.rating = ROUND((COALESCE(b.ratingSum, 0) + :rating) * 1.0 / (COALESCE(b.reviews, 0) + 1), 2) " +
+            "WHERE b.id = :barbershopId")
+    int addRating(@Param("barbershopId") Long barbershopId, @Param("rating") long rating);
+
+    // Barbearias que ainda só têm o horário em texto livre
+    @Query("SELECT b FROM Barbershop b WHERE b.hours IS NOT NULL AND b.openingHours IS EMPTY")
+    List<Barbershop> findWithoutOpeningHours();
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package br.com.barbershop.api.repository;
 
 import br.com.barbershop.api.model.Client;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,9 +12,19 @@ import java.util.Optional;
 
 public interface ClientRepository extends JpaRepository<Client, Long> {
     Optional<Client> findByEmail(String email);
+
+    // SELECT ... FOR UPDATE: serializa operações do mesmo cliente até o fim da transação
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Client c WHERE c.id = :id")
+    Optional<Client> lockById(@Param("id") Long id);
     
     @Modifying
     @Transactional
     @Query("UPDATE Client c SET c.phone = :phone WHERE c.id = :id")
     void updatePhone(@Param("id") Long id, @Param("phone") String phone);
-}
\ No newline at end of file
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Client c SET c.password = :password WHERE c.id = :id")
+    void updatePassword(@Param("id") Long id, @Param("password") String password);
+}
@@ -0,0 +1,41 @@
+package br.com.barbershop.api.repository;
+
+import br.com.barbershop.api.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Reserva a chave com um registro pendente (status 0) antes de processar a requisição. Retorna 0
+     * quando a chave já existe e não venceu, ou seja, quando outra requisição (em qualquer nó) já a
+     * reservou ou concluiu; um registro vencido é reaproveitado.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (id, request_hash, status, expires_at)
+            VALUES (:id, :requestHash, 0, :expiresAt)
+            ON CONFLICT (id) DO UPDATE
+                SET request_hash = EXCLUDED.request_hash, status = 0, content_type = NULL, body = NULL,
+                    expires_at = EXCLUDED.expires_at
+                WHERE idempotency_keys.expires_at < :now
+            """, nativeQuery = true)
+    int reserve(@Param("id") String id, @Param("requestHash") String requestHash,
+                @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.status = 0")
+    int deletePending(@Param("id") String id);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
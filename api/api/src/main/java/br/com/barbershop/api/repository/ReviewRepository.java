@@ -0,0 +1,26 @@
+package br.com.barbershop.api.repository;
+
+import br.com.barbershop.api.model.Review;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReviewRepository extends JpaRepository<Review, Long> {
+
+    boolean existsByAppointmentId(Long appointmentId);
+
+    long countByClientIdAndCreatedAtAfter(Long clientId, LocalDateTime after);
+
+    Optional<Review> findFirstByClientIdAndCreatedAtAfterOrderByCreatedAtAsc(Long clientId, LocalDateTime after);
+
+    // Página de avaliações da barbearia, da mais recente para a mais antiga, continuando antes de beforeId
+    @Query("SELECT r FROM Review r JOIN FETCH r.client " +
+            "WHERE r.barbershop.id = :barbershopId AND (:beforeId IS NULL OR r.id < :beforeId) " +
+            "ORDER BY r.id DESC")
+    List<Review> findPage(@Param("barbershopId") Long barbershopId, @Param("beforeId") Long beforeId, Pageable pageable);
+}
@@ -2,6 +2,28 @@ package br.com.barbershop.api.repository;
 
 import br.com.barbershop.api.model.Service;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface ServiceRepository extends JpaRepository<Service, Long> {
-}
\ No newline at end of file
+
+    @Query("SELECT s FROM Service s JOIN FETCH s.barbershop WHERE s.id = :id")
+    Optional<Service> findWithBarbershopById(@Param("id") Long id);
+
+    // Serviços com o nome informado (sem diferenciar maiúsculas) em barbearias dentro do retângulo
+    // de coordenadas, já com a barbearia carregada
+    @Query("SELECT s FROM Service s JOIN FETCH s.barbershop b " +
+            "WHERE LOWER(s.name) = LOWER(:name) " +
+            "AND b.latitude BETWEEN :minLatitude AND :maxLatitude " +
+            "AND b.longitude BETWEEN :minLongitude AND :maxLongitude")
+    List<Service> findByNameWithin(
+            @Param("name") String name,
+            @Param("minLatitude") double minLatitude,
+            @Param("maxLatitude") double maxLatitude,
+            @Param("minLongitude") double minLongitude,
+            @Param("maxLongitude") double maxLongitude
+    );
+}
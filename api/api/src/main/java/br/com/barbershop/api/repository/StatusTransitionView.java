@@ -0,0 +1,12 @@
+package br.com.barbershop.api.repository;
+
+// Resultado por agendamento de uma transição de status em lote
+public interface StatusTransitionView {
+
+    Long getId();
+
+    // Status antes do UPDATE (nulo se o ID não existe)
+    String getPreviousStatus();
+
+    Boolean getUpdated();
+}
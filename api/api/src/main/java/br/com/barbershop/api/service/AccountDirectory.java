@@ -0,0 +1,106 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.model.Account;
+import br.com.barbershop.api.repository.AccountRepository;
+import br.com.barbershop.api.repository.BarberRepository;
+import br.com.barbershop.api.repository.ClientRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Acesso ao diretório de contas (tabela accounts). Toda busca por email passa por aqui e vira
+ * uma única consulta no índice único do email normalizado, em vez de procurar em clients e
+ * depois em barbers.
+ *
+ * Os cadastros, alterações e exclusões de clientes e barbeiros chamam save/delete na mesma
+ * transação, então uma violação da constraint desfaz também a gravação do cliente/barbeiro.
+ */
+@Service
+public class AccountDirectory {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private BarberRepository barberRepository;
+
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Optional<Account> findByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+        return accountRepository.findByEmail(normalize(email));
+    }
+
+    public boolean isEmailTaken(String email) {
+        return email != null && !email.isBlank() && accountRepository.existsByEmail(normalize(email));
+    }
+
+    /**
+     * Cria ou atualiza a conta do cliente/barbeiro. Se o email ou a senha mudaram, a versão do
+     * token é incrementada e os tokens já emitidos deixam de valer.
+     * Lança RuntimeException("Email já cadastrado") se o email pertencer a outra conta.
+     */
+    @Transactional
+    public Account save(String userType, Long userId, String email, String passwordHash) {
+        Account account = accountRepository.findByUserTypeAndUserId(userType, userId).orElseGet(() -> {
+            Account created = new Account();
+            created.setUserType(userType);
+            created.setUserId(userId);
+            return created;
+        });
+
+        String normalizedEmail = normalize(email);
+        boolean credentialsChanged = account.getId() != null
+                && (!normalizedEmail.equals(account.getEmail()) || !passwordHash.equals(account.getPassword()));
+        account.setEmail(normalizedEmail);
+        account.setPassword(passwordHash);
+        if (credentialsChanged) {
+            account.setTokenVersion(account.getTokenVersion() + 1);
+            tokenVersionCache.invalidate(userType, userId);
+        }
+
+        try {
+            // flush imediato: a constraint única do email é conferida ainda dentro desta chamada
+            return accountRepository.saveAndFlush(account);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Email já cadastrado");
+        }
+    }
+
+    /**
+     * Grava o novo hash da mesma senha (custo do BCrypt alterado) na conta e no cliente/barbeiro.
+     * A senha não mudou, então a versão do token é mantida.
+     */
+    @Transactional
+    public Account rehash(Account account, String passwordHash) {
+        accountRepository.updatePassword(account.getId(), passwordHash);
+        if ("BARBER".equals(account.getUserType())) {
+            barberRepository.updatePassword(account.getUserId(), passwordHash);
+        } else {
+            clientRepository.updatePassword(account.getUserId(), passwordHash);
+        }
+        account.setPassword(passwordHash);
+        return account;
+    }
+
+    @Transactional
+    public void delete(String userType, Long userId) {
+        accountRepository.deleteByUser(userType, userId);
+        tokenVersionCache.invalidate(userType, userId);
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.model.Account;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+/**
+ * UserDetails devolvido pelo UserDetailsService. Guarda a conta do diretório para que o login
+ * não precise procurar o email de novo depois de autenticar.
+ */
+public class AccountUserDetails extends User {
+
+    private final Account account;
+
+    public AccountUserDetails(Account account) {
+        super(account.getEmail(), account.getPassword(), List.of());
+        this.account = account;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.repository.AppointmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Manutenção periódica da agenda:
+ * - cancela agendamentos PENDING que nunca foram confirmados (ou cujo horário já passou);
+ * - marca como COMPLETED os CONFIRMED que já terminaram.
+ *
+ * Cada lote é um UPDATE próprio (transação curta) e a execução para após max-batches-per-run lotes;
+ * o restante fica para a próxima rodada. O total de linhas alteradas é publicado no contador
+ * appointments.maintenance.rows (tag action = expired | completed).
+ * Desligável com appointments.maintenance.enabled=false.
+ *
+ * Pode rodar em vários nós ao mesmo tempo (os lotes usam SKIP LOCKED). O nó que alterou o lote
+ * atualiza seu ScheduleIndex na hora; os demais liberam os horários quando o dia é relido do banco
+ * (appointments.schedule-index.reload-seconds) ou quando um conflito visto no índice é conferido
+ * no banco.
+ */
+@Component
+@ConditionalOnProperty(name = "appointments.maintenance.enabled", havingValue = "true", matchIfMissing = true)
+public class AppointmentMaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentMaintenanceJob.class);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ScheduleIndex scheduleIndex;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${appointments.maintenance.batch-size:500}")
+    private int batchSize;
+    @Value("${appointments.maintenance.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+    @Value("${appointments.maintenance.pending-ttl-minutes:1440}")
+    private int defaultPendingTtlMinutes;
+    @Value("${appointments.maintenance.auto-complete-after-minutes:60}")
+    private int defaultAutoCompleteAfterMinutes;
+    // start_time/end_time guardam o horário local da barbearia, não o do servidor
+    @Value("${barbershop.timezone:America/Sao_Paulo}")
+    private String timezone = "America/Sao_Paulo";
+
+    @Scheduled(
+            initialDelayString = "${appointments.maintenance.initial-delay-ms:60000}",
+            fixedDelayString = "${appointments.maintenance.interval-ms:300000}"
+    )
+    public void run() {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of(timezone));
+        expireStalePending(now);
+        completePastConfirmed(now);
+    }
+
+    public int expireStalePending(LocalDateTime now) {
+        return sweep("expired", size -> appointmentRepository.expireStalePending(now, defaultPendingTtlMinutes, size));
+    }
+
+    public int completePastConfirmed(LocalDateTime now) {
+        return sweep("completed", size -> appointmentRepository.completePastConfirmed(now, defaultAutoCompleteAfterMinutes, size));
+    }
+
+    private int sweep(String action, Function<Integer, List<Long>> nextBatch) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Long> ids = nextBatch.apply(batchSize);
+            // Nenhum dos dois status finais ocupa horário; os outros nós veem a mudança na recarga do dia
+            ids.forEach(scheduleIndex::unregister);
+            total += ids.size();
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+
+        meterRegistry.counter("appointments.maintenance.rows", "action", action).increment(total);
+        if (total > 0) {
+            log.info("Manutenção de agendamentos: {} registro(s) {}", total, action);
+        }
+        return total;
+    }
+}
@@ -1,21 +1,47 @@
 package br.com.barbershop.api.service;
 
 import br.com.barbershop.api.dto.AppointmentDTO;
+import br.com.barbershop.api.dto.AppointmentPageDTO;
+import br.com.barbershop.api.dto.AvailabilityDTO;
 import br.com.barbershop.api.dto.AvailableSlotsDTO;
+import br.com.barbershop.api.dto.BarberAvailabilityDTO;
+import br.com.barbershop.api.dto.BulkStatusItemDTO;
+import br.com.barbershop.api.dto.BulkStatusResultDTO;
+import br.com.barbershop.api.dto.BulkStatusUpdateDTO;
 import br.com.barbershop.api.dto.CreateAppointmentDTO;
+import br.com.barbershop.api.dto.EarliestSlotDTO;
+import br.com.barbershop.api.dto.HoldDTO;
+import br.com.barbershop.api.dto.HoldRequestDTO;
 import br.com.barbershop.api.dto.RescheduleDTO;
+import br.com.barbershop.api.dto.SlotAlternativesDTO;
 import br.com.barbershop.api.model.*;
 import br.com.barbershop.api.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @org.springframework.stereotype.Service
 public class AppointmentService {
@@ -25,6 +51,27 @@ public class AppointmentService {
             AppointmentStatus.CONFIRMED
     );
 
+    private static final int SLOT_INTERVAL_MINUTES = 30;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    private static final int MAX_AVAILABILITY_RANGE_DAYS = 31;
+    private static final String OVERLAP_CONSTRAINT = "appointments_no_overlap";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_BULK_IDS = 500;
+
+    // Status de origem aceitos para cada status de destino nas operações em lote
+    private static final Map<AppointmentStatus, List<AppointmentStatus>> ALLOWED_TRANSITIONS = Map.of(
+            AppointmentStatus.CONFIRMED, List.of(AppointmentStatus.PENDING),
+            AppointmentStatus.CANCELLED, List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED),
+            AppointmentStatus.COMPLETED, List.of(AppointmentStatus.CONFIRMED)
+    );
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_ALTERNATIVES = 3;
+    private static final int DEFAULT_EARLIEST_SLOTS = 5;
+    private static final int MAX_EARLIEST_SLOTS = 50;
+    private static final int DEFAULT_EARLIEST_WINDOW_DAYS = 7;
+    private static final double DEFAULT_RADIUS_KM = 5;
+    private static final double MAX_RADIUS_KM = 50;
+
     @Autowired
     private AppointmentRepository appointmentRepository;
     @Autowired
@@ -35,55 +82,215 @@ public class AppointmentService {
     private BarbershopRepository barbershopRepository;
     @Autowired
     private ServiceRepository serviceRepository;
+    @Autowired
+    private ScheduleIndex scheduleIndex;
+    @Autowired
+    private OpeningHoursCache openingHoursCache;
+    @Autowired
+    private SlotHoldService slotHoldService;
+
+    @Value("${barbershop.timezone:America/Sao_Paulo}")
+    private String timezone = "America/Sao_Paulo";
 
     public AppointmentDTO create(CreateAppointmentDTO dto) {
-        Client client = clientRepository.findById(dto.getClientId())
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
-        Barber barber = barberRepository.findById(dto.getBarberId())
-                .orElseThrow(() -> new RuntimeException("Barbeiro não encontrado"));
-        Barbershop barbershop = barbershopRepository.findById(dto.getBarbershopId())
-                .orElseThrow(() -> new RuntimeException("Barbearia não encontrada"));
-        br.com.barbershop.api.model.Service service = serviceRepository.findById(dto.getServiceId())
-                .orElseThrow(() -> new RuntimeException("Serviço não encontrado"));
+        LocalDateTime startTime = LocalDateTime.of(dto.getDate(), dto.getTime());
+        AppointmentView booked;
+        try {
+            rejectIfHeldByOthers(dto, startTime);
+
+            // Existência dos IDs, conflito de horário e INSERT numa única ida ao banco
+            booked = translateOverlapViolation(dto.getBarbershopId(), dto.getDate(), () ->
+                    appointmentRepository.book(
+                            dto.getClientId(),
+                            dto.getBarberId(),
+                            dto.getBarbershopId(),
+                            dto.getServiceId(),
+                            startTime
+                    )).orElseThrow(() -> bookingFailure(dto));
+        } catch (SlotUnavailableException e) {
+            throw unavailableWithAlternatives(dto.getBarbershopId(), dto.getBarberId(), startTime,
+                    serviceDuration(dto.getServiceId()), null, dto.getClientId());
+        }
+
+        scheduleIndex.register(booked.getId(), booked.getBarbershopId(), booked.getBarberId(),
+                booked.getStartTime(), booked.getEndTime());
+        // O hold do próprio cliente deixa de ser necessário
+        slotHoldService.find(dto.getHoldId())
+                .filter(hold -> hold.clientId().equals(dto.getClientId()))
+                .ifPresent(hold -> slotHoldService.release(hold.id()));
+        return mapToAppointmentDTO(booked);
+    }
+
+    // A duração do serviço só é buscada quando outro cliente tem hold com o barbeiro no dia
+    private void rejectIfHeldByOthers(CreateAppointmentDTO dto, LocalDateTime startTime) {
+        if (!slotHoldService.hasHolds(dto.getBarbershopId(), dto.getDate(), dto.getBarberId(), dto.getClientId())) {
+            return;
+        }
+        int startMinute = ScheduleIndex.minuteOfDay(startTime);
+        int endMinute = Math.min(startMinute + serviceDuration(dto.getServiceId()), ScheduleIndex.MINUTES_PER_DAY);
+        if (slotHoldService.isHeldByOthers(dto.getBarbershopId(), dto.getDate(), dto.getBarberId(),
+                startMinute, endMinute, dto.getClientId())) {
+            throw new SlotUnavailableException();
+        }
+    }
+
+    private int serviceDuration(Long serviceId) {
+        return serviceRepository.findById(serviceId)
+                .map(br.com.barbershop.api.model.Service::getDuration)
+                .filter(minutes -> minutes > 0)
+                .orElse(SLOT_INTERVAL_MINUTES);
+    }
+
+    /**
+     * Reserva temporária do horário enquanto o cliente conclui o checkout. Enquanto válida, o horário
+     * some da disponibilidade e só o próprio cliente consegue agendá-lo. O cliente é o usuário
+     * autenticado (email do token), nunca um ID vindo do corpo.
+     */
+    public HoldDTO holdSlot(HoldRequestDTO dto, String clientEmail) {
+        if (dto.getBarberId() == null || dto.getDate() == null || dto.getTime() == null) {
+            throw new IllegalArgumentException("Informe barberId, date e time");
+        }
+        Long clientId = Optional.ofNullable(clientEmail)
+                .flatMap(clientRepository::findByEmail)
+                .map(Client::getId)
+                .orElseThrow(() -> new AccessDeniedException("Apenas clientes podem reservar horários"));
+        AvailabilityRequest request = resolveAvailabilityRequest(dto.getBarbershopId(), dto.getBarberId(), dto.getServiceId());
 
         LocalDateTime startTime = LocalDateTime.of(dto.getDate(), dto.getTime());
-        LocalDateTime endTime = startTime.plusMinutes(service.getDuration());
-        validateSlotAvailability(barber.getId(), startTime, endTime, null);
+        int startMinute = ScheduleIndex.minuteOfDay(startTime);
+        int endMinute = startMinute + request.duration();
+        // Mesma regra da disponibilidade: o atendimento inteiro precisa caber no expediente
+        BitSet openMinutes = request.openingHours().openMinutes(dto.getDate().getDayOfWeek());
+        if (endMinute > ScheduleIndex.MINUTES_PER_DAY
+                || openMinutes.get(startMinute, endMinute).cardinality() < request.duration()) {
+            throw new IllegalArgumentException("Horário fora do expediente da barbearia");
+        }
+        if (hasConflict(dto.getBarbershopId(), dto.getDate(), dto.getBarberId(), startMinute, endMinute, null)) {
+            throw unavailableWithAlternatives(dto.getBarbershopId(), dto.getBarberId(), startTime,
+                    request.duration(), null, clientId);
+        }
 
-        Appointment newAppointment = new Appointment();
-        newAppointment.setClient(client);
-        newAppointment.setBarber(barber);
-        newAppointment.setBarbershop(barbershop);
-        newAppointment.setService(service);
-        newAppointment.setStartTime(startTime);
-        newAppointment.setEndTime(endTime);
-        newAppointment.setStatus(AppointmentStatus.PENDING);
-        newAppointment.setPrice(service.getPrice());
+        SlotHoldService.Hold hold = slotHoldService
+                .tryHold(dto.getBarbershopId(), dto.getBarberId(), clientId, dto.getDate(), startMinute, endMinute)
+                .orElseThrow(() -> unavailableWithAlternatives(dto.getBarbershopId(), dto.getBarberId(), startTime,
+                        request.duration(), null, clientId));
+        return new HoldDTO(
+                hold.id(),
+                hold.barbershopId(),
+                hold.barberId(),
+                hold.date(),
+                dto.getTime(),
+                request.duration(),
+                Instant.ofEpochMilli(hold.expiresAtMillis())
+        );
+    }
 
-        Appointment savedAppointment = appointmentRepository.save(newAppointment);
+    /**
+     * Libera um hold do próprio cliente (email do token); holds de outros clientes são tratados
+     * como inexistentes.
+     */
+    public void releaseHold(String holdId, String clientEmail) {
+        Long clientId = Optional.ofNullable(clientEmail)
+                .flatMap(clientRepository::findByEmail)
+                .map(Client::getId)
+                .orElseThrow(() -> new AccessDeniedException("Apenas clientes podem liberar reservas"));
+        boolean released = slotHoldService.find(holdId)
+                .filter(hold -> clientId.equals(hold.clientId()))
+                .map(hold -> slotHoldService.release(hold.id()))
+                .orElse(false);
+        if (!released) {
+            throw new RuntimeException("Reserva não encontrada: " + holdId);
+        }
+    }
 
-        return mapToAppointmentDTO(savedAppointment);
+    // Só executado quando o book() não insere nada: descobre o motivo para manter as mensagens de erro
+    private RuntimeException bookingFailure(CreateAppointmentDTO dto) {
+        if (!clientRepository.existsById(dto.getClientId())) {
+            return new RuntimeException("Cliente não encontrado");
+        }
+        if (!barberRepository.existsById(dto.getBarberId())) {
+            return new RuntimeException("Barbeiro não encontrado");
+        }
+        if (!barbershopRepository.existsById(dto.getBarbershopId())) {
+            return new RuntimeException("Barbearia não encontrada");
+        }
+        if (!serviceRepository.existsById(dto.getServiceId())) {
+            return new RuntimeException("Serviço não encontrado");
+        }
+        // O banco viu um conflito que o índice em memória pode não conhecer (ex.: gravado por outro nó)
+        scheduleIndex.invalidate(dto.getBarbershopId(), dto.getDate());
+        return new SlotUnavailableException();
     }
 
-    public List<AppointmentDTO> findByClientId(Long clientId) {
-        return appointmentRepository.findByClientId(clientId)
-                .stream()
-                .map(this::mapToAppointmentDTO)
-                .collect(Collectors.toList());
+    public AppointmentPageDTO findByClientId(Long clientId, String cursor, Integer limit) {
+        return search(new AppointmentFilter(null, clientId, null, null, null, null), cursor, limit);
     }
 
-    public List<AppointmentDTO> findByBarbershopId(Long barbershopId) {
+    public AppointmentPageDTO findByBarbershopId(Long barbershopId, String cursor, Integer limit) {
         if (!barbershopRepository.existsById(barbershopId)) {
             throw new RuntimeException("Barbearia não encontrada com o ID: " + barbershopId);
         }
-        return appointmentRepository.findByBarbershopId(barbershopId)
-                .stream()
-                .map(this::mapToAppointmentDTO)
-                .collect(Collectors.toList());
+        return search(new AppointmentFilter(barbershopId, null, null, null, null, null), cursor, limit);
+    }
+
+    /**
+     * Página de agendamentos em ordem de início. O cursor é o nextCursor da página anterior;
+     * a consulta continua do último (start_time, id) visto, sem OFFSET.
+     */
+    public AppointmentPageDTO search(AppointmentFilter filter, String cursor, Integer limit) {
+        if (filter.barbershopId() == null && filter.clientId() == null && filter.barberId() == null) {
+            throw new IllegalArgumentException("Informe barbershopId, clientId ou barberId");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+
+        LocalDateTime afterStartTime = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterStartTime = LocalDateTime.parse(position[0]);
+            afterId = Long.valueOf(position[1]);
+        }
+
+        // Um registro a mais indica se existe próxima página
+        List<AppointmentView> rows = appointmentRepository.search(filter, afterStartTime, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<AppointmentView> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            AppointmentView last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(last.getStartTime(), last.getId());
+        }
+        return new AppointmentPageDTO(
+                page.stream().map(this::mapToAppointmentDTO).collect(Collectors.toList()),
+                nextCursor
+        );
+    }
+
+    private static String encodeCursor(LocalDateTime startTime, Long id) {
+        String position = startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
     }
 
     public AppointmentDTO findById(Long id) {
-        Appointment appointment = appointmentRepository.findById(id)
+        AppointmentView appointment = appointmentRepository.findViewById(id)
                 .orElseThrow(() -> new RuntimeException("Agendamento não encontrado com o ID: " + id));
         return mapToAppointmentDTO(appointment);
     }
@@ -94,13 +301,31 @@ public class AppointmentService {
 
         LocalDateTime newStartTime = LocalDateTime.of(dto.getDate(), dto.getTime());
         LocalDateTime newEndTime = newStartTime.plusMinutes(appointment.getService().getDuration());
-        validateSlotAvailability(appointment.getBarber().getId(), newStartTime, newEndTime, appointment.getId());
-
-        appointment.setStartTime(newStartTime);
-        appointment.setEndTime(newEndTime);
-        appointment.setStatus(AppointmentStatus.CONFIRMED);
-
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        Appointment updatedAppointment;
+        try {
+            validateSlotAvailability(
+                    appointment.getBarbershop().getId(),
+                    appointment.getBarber().getId(),
+                    newStartTime,
+                    newEndTime,
+                    appointment.getId()
+            );
+
+            appointment.setStartTime(newStartTime);
+            appointment.setEndTime(newEndTime);
+            appointment.setStatus(AppointmentStatus.CONFIRMED);
+
+            updatedAppointment = translateOverlapViolation(
+                    appointment.getBarbershop().getId(),
+                    newStartTime.toLocalDate(),
+                    () -> appointmentRepository.save(appointment)
+            );
+        } catch (SlotUnavailableException e) {
+            throw unavailableWithAlternatives(appointment.getBarbershop().getId(), appointment.getBarber().getId(),
+                    newStartTime, appointment.getService().getDuration(), appointment.getId(),
+                    appointment.getClient().getId());
+        }
+        scheduleIndex.register(updatedAppointment);
         return mapToAppointmentDTO(updatedAppointment);
     }
 
@@ -111,16 +336,29 @@ public class AppointmentService {
         appointment.setStatus(AppointmentStatus.CANCELLED);
 
         Appointment cancelledAppointment = appointmentRepository.save(appointment);
+        scheduleIndex.unregister(cancelledAppointment.getId());
         return mapToAppointmentDTO(cancelledAppointment);
     }
 
+    /**
+     * Confirma um agendamento PENDING; cancelados e concluídos não voltam a ocupar o horário.
+     */
     public AppointmentDTO confirm(Long id) {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Agendamento não encontrado com o ID: " + id));
+        AppointmentStatus current = appointment.getStatus();
+        if (!ALLOWED_TRANSITIONS.get(AppointmentStatus.CONFIRMED).contains(current)) {
+            throw new IllegalStateException("Transição não permitida: " + current + " -> " + AppointmentStatus.CONFIRMED);
+        }
 
         appointment.setStatus(AppointmentStatus.CONFIRMED);
 
-        Appointment confirmedAppointment = appointmentRepository.save(appointment);
+        Appointment confirmedAppointment = translateOverlapViolation(
+                appointment.getBarbershop().getId(),
+                appointment.getStartTime().toLocalDate(),
+                () -> appointmentRepository.save(appointment)
+        );
+        scheduleIndex.register(confirmedAppointment);
         return mapToAppointmentDTO(confirmedAppointment);
     }
 
@@ -131,83 +369,568 @@ public class AppointmentService {
         appointment.setStatus(AppointmentStatus.COMPLETED);
 
         Appointment completedAppointment = appointmentRepository.save(appointment);
+        scheduleIndex.unregister(completedAppointment.getId());
         return mapToAppointmentDTO(completedAppointment);
     }
 
+    /**
+     * Muda o status de vários agendamentos de uma vez, por lista de IDs ou por filtro, com um único
+     * UPDATE. Só são aplicadas as transições permitidas (ALLOWED_TRANSITIONS); os demais IDs voltam
+     * no resultado com o motivo. O modo por filtro alcança a agenda inteira da barbearia ou do
+     * barbeiro, então só é aceito para um barbeiro da própria barbearia (callerEmail, do token) e,
+     * com barberId, apenas para a própria agenda.
+     */
+    public BulkStatusResultDTO updateStatuses(BulkStatusUpdateDTO dto, String callerEmail) {
+        AppointmentStatus target = dto.getStatus();
+        List<AppointmentStatus> allowedFrom = target == null ? null : ALLOWED_TRANSITIONS.get(target);
+        if (allowedFrom == null) {
+            throw new IllegalArgumentException("Status inválido: use CONFIRMED, CANCELLED ou COMPLETED");
+        }
+
+        boolean byIds = dto.getIds() != null && !dto.getIds().isEmpty();
+        boolean byFilter = dto.getBarbershopId() != null || dto.getBarberId() != null;
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Informe a lista de ids ou um filtro (barbershopId/barberId)");
+        }
+
+        List<StatusTransitionView> rows;
+        if (byIds) {
+            if (dto.getIds().size() > MAX_BULK_IDS) {
+                throw new IllegalArgumentException("Máximo de " + MAX_BULK_IDS + " agendamentos por operação");
+            }
+            rows = appointmentRepository.transitionStatus(dto.getIds(), target.name(), statusNames(allowedFrom));
+        } else {
+            requireOwnSchedule(dto.getBarbershopId(), dto.getBarberId(), callerEmail);
+            List<AppointmentStatus> fromStatus = dto.getFromStatus() == null || dto.getFromStatus().isEmpty()
+                    ? allowedFrom
+                    : dto.getFromStatus();
+            for (AppointmentStatus from : fromStatus) {
+                if (!allowedFrom.contains(from)) {
+                    throw new IllegalArgumentException("Transição não permitida: " + from + " -> " + target);
+                }
+            }
+            rows = appointmentRepository.transitionStatusWhere(
+                    dto.getBarbershopId(),
+                    dto.getBarberId(),
+                    statusNames(fromStatus),
+                    dto.getBefore() == null ? LocalDateTime.now(ZoneId.of(timezone)) : dto.getBefore(),
+                    target.name()
+            );
+        }
+
+        List<BulkStatusItemDTO> results = new ArrayList<>(rows.size());
+        int updated = 0;
+        for (StatusTransitionView row : rows) {
+            AppointmentStatus previous = row.getPreviousStatus() == null
+                    ? null
+                    : AppointmentStatus.valueOf(row.getPreviousStatus());
+            if (Boolean.TRUE.equals(row.getUpdated())) {
+                updated++;
+                // Cancelados e concluídos liberam o horário; confirmados continuam ocupando
+                if (!ACTIVE_STATUSES.contains(target)) {
+                    scheduleIndex.unregister(row.getId());
+                }
+                results.add(new BulkStatusItemDTO(row.getId(), true, previous, target, null));
+            } else if (previous == null) {
+                results.add(new BulkStatusItemDTO(row.getId(), false, null, null, "Agendamento não encontrado"));
+            } else {
+                results.add(new BulkStatusItemDTO(row.getId(), false, previous, previous,
+                        "Transição não permitida: " + previous + " -> " + target));
+            }
+        }
+        return new BulkStatusResultDTO(updated, results.size() - updated, results);
+    }
+
+    private void requireOwnSchedule(Long barbershopId, Long barberId, String callerEmail) {
+        Barber caller = Optional.ofNullable(callerEmail)
+                .flatMap(barberRepository::findByEmail)
+                .orElseThrow(() -> new AccessDeniedException("Apenas barbeiros podem alterar agendamentos por filtro"));
+        if (barbershopId != null && !barbershopId.equals(caller.getBarbershop().getId())) {
+            throw new AccessDeniedException("Sem permissão para alterar agendamentos desta barbearia");
+        }
+        if (barberId != null && !barberId.equals(caller.getId())) {
+            throw new AccessDeniedException("Sem permissão para alterar agendamentos de outro barbeiro");
+        }
+    }
+
+    private static List<String> statusNames(List<AppointmentStatus> statuses) {
+        return statuses.stream().map(AppointmentStatus::name).toList();
+    }
+
     public AvailableSlotsDTO findAvailableSlots(Long barbershopId, LocalDate date) {
         Barbershop barbershop = barbershopRepository.findById(barbershopId)
                 .orElseThrow(() -> new RuntimeException("Barbearia não encontrada com o ID: " + barbershopId));
 
-        LocalTime openingTime = LocalTime.of(8, 0);
-        LocalTime closingTime = LocalTime.of(18, 0);
-        int slotIntervalMinutes = 30;
+        BitSet busyMinutes = scheduleFor(barbershopId, date).busyMinutes(null);
+        busyMinutes.or(slotHoldService.heldMinutes(barbershopId, date, null, null));
+        BitSet openMinutes = openingHoursFor(barbershopId).openMinutes(date.getDayOfWeek());
+        return new AvailableSlotsDTO(date, freeSlots(openMinutes, busyMinutes, SLOT_INTERVAL_MINUTES));
+    }
 
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
+    /**
+     * Horários livres de cada barbeiro da barbearia (ou apenas do barbeiro informado) em que
+     * o serviço escolhido cabe inteiro. Sem serviço, considera um slot padrão de 30 minutos.
+     */
+    public AvailabilityDTO findAvailability(Long barbershopId, Long barberId, Long serviceId, LocalDate date) {
+        AvailabilityRequest request = resolveAvailabilityRequest(barbershopId, barberId, serviceId);
+        return availabilityFor(request, scheduleFor(barbershopId, date), date);
+    }
+
+    /**
+     * Versão por intervalo de datas (ex.: calendário de 14 dias). Todos os agendamentos ativos do
+     * intervalo são buscados numa única consulta e cada dia é calculado sob demanda ao consumir
+     * o Stream, permitindo que o controller envie a resposta aos poucos.
+     */
+    public Stream<AvailabilityDTO> findAvailabilityRange(
+            Long barbershopId,
+            Long barberId,
+            Long serviceId,
+            LocalDate from,
+            LocalDate to
+    ) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("A data final deve ser igual ou posterior à data inicial");
+        }
+        if (from.plusDays(MAX_AVAILABILITY_RANGE_DAYS).isBefore(to.plusDays(1))) {
+            throw new IllegalArgumentException("O intervalo máximo é de " + MAX_AVAILABILITY_RANGE_DAYS + " dias");
+        }
 
-        List<Appointment> existingAppointments = appointmentRepository
-                .findByBarbershopIdAndStartTimeBetweenAndStatusIn(
+        AvailabilityRequest request = resolveAvailabilityRequest(barbershopId, barberId, serviceId);
+        scheduleIndex.preload(barbershopId, from, to, () -> appointmentRepository
+                .findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
                         barbershopId,
-                        startOfDay,
-                        endOfDay,
+                        to.plusDays(1).atStartOfDay(),
+                        from.atStartOfDay(),
                         ACTIVE_STATUSES
-                );
+                ));
+
+        return from.datesUntil(to.plusDays(1))
+                .map(date -> availabilityFor(request, scheduleFor(barbershopId, date), date));
+    }
 
-        List<String> availableSlots = new ArrayList<>();
-        LocalTime currentTimeSlot = openingTime;
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+    /**
+     * Os K horários livres mais cedo para um serviço: em todas as barbearias dentro do raio
+     * (serviceName + latitude/longitude) ou na barbearia do serviço informado (serviceId).
+     *
+     * Cada barbeiro vira um cursor que percorre seus inícios livres em ordem, um dia por vez. Uma
+     * fila de prioridade sempre avança o cursor com o horário mais cedo e a busca para assim que
+     * encontra K resultados, sem calcular os dias e barbeiros restantes.
+     */
+    public List<EarliestSlotDTO> findEarliestSlots(
+            Long serviceId,
+            String serviceName,
+            Double latitude,
+            Double longitude,
+            Double radiusKm,
+            LocalDate from,
+            LocalDate to,
+            Integer limit
+    ) {
+        int resultSize = limit == null ? DEFAULT_EARLIEST_SLOTS : limit;
+        if (resultSize < 1 || resultSize > MAX_EARLIEST_SLOTS) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_EARLIEST_SLOTS);
+        }
+        LocalDateTime now = LocalDateTime.now(ZoneId.of(timezone));
+        LocalDate firstDate = from == null || from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+        LocalDate lastDate = to == null ? firstDate.plusDays(DEFAULT_EARLIEST_WINDOW_DAYS - 1) : to;
+        if (lastDate.isBefore(firstDate)) {
+            throw new IllegalArgumentException("A data final deve ser igual ou posterior à data inicial");
+        }
+        if (firstDate.plusDays(MAX_AVAILABILITY_RANGE_DAYS).isBefore(lastDate.plusDays(1))) {
+            throw new IllegalArgumentException("O intervalo máximo é de " + MAX_AVAILABILITY_RANGE_DAYS + " dias");
+        }
 
-        while (currentTimeSlot.isBefore(closingTime)) {
-            LocalDateTime slotStart = date.atTime(currentTimeSlot);
-            LocalDateTime slotEnd = slotStart.plusMinutes(slotIntervalMinutes);
+        // Um serviço por barbearia (o de menor ID quando o nome se repete)
+        Map<Long, br.com.barbershop.api.model.Service> serviceByShop = new LinkedHashMap<>();
+        earliestSlotServices(serviceId, serviceName, latitude, longitude, radiusKm).stream()
+                .sorted(Comparator.comparing(br.com.barbershop.api.model.Service::getId))
+                .forEach(service -> serviceByShop.putIfAbsent(service.getBarbershop().getId(), service));
+        if (serviceByShop.isEmpty()) {
+            return List.of();
+        }
 
-            if (!hasSlotConflict(existingAppointments, slotStart, slotEnd)) {
-                availableSlots.add(currentTimeSlot.format(timeFormatter));
+        // Uma única consulta traz a janela de todas as barbearias, e só se algum dia ainda não está no índice
+        List<Long> shopIds = List.copyOf(serviceByShop.keySet());
+        Supplier<Map<Long, List<Appointment>>> window = memoize(() -> appointmentRepository
+                .findByBarbershopIdInAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                        shopIds,
+                        lastDate.plusDays(1).atStartOfDay(),
+                        firstDate.atStartOfDay(),
+                        ACTIVE_STATUSES
+                ).stream()
+                .collect(Collectors.groupingBy(appointment -> appointment.getBarbershop().getId())));
+        for (Long shopId : shopIds) {
+            scheduleIndex.preload(shopId, firstDate, lastDate, () -> window.get().getOrDefault(shopId, List.of()));
+        }
+
+        PriorityQueue<SlotCursor> queue = new PriorityQueue<>(Comparator
+                .comparing(SlotCursor::current)
+                .thenComparingDouble(SlotCursor::distanceForOrdering)
+                .thenComparing(cursor -> cursor.barber.getId()));
+        for (Barber barber : barberRepository.findByBarbershopIdIn(shopIds)) {
+            br.com.barbershop.api.model.Service service = serviceByShop.get(barber.getBarbershop().getId());
+            Double distanceKm = latitude == null || longitude == null ? null
+                    : BarbershopGeoIndex.distanceKm(latitude, longitude, service.getBarbershop().getLatitude(), service.getBarbershop().getLongitude());
+            SlotCursor cursor = new SlotCursor(service, barber, distanceKm, firstDate, lastDate, now);
+            if (cursor.advance()) {
+                queue.add(cursor);
             }
-            currentTimeSlot = currentTimeSlot.plusMinutes(slotIntervalMinutes);
         }
 
-        return new AvailableSlotsDTO(date, availableSlots);
+        List<EarliestSlotDTO> slots = new ArrayList<>(resultSize);
+        while (slots.size() < resultSize && !queue.isEmpty()) {
+            SlotCursor cursor = queue.poll();
+            slots.add(cursor.toDTO());
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        return slots;
     }
 
-    private boolean hasSlotConflict(
-            List<Appointment> existingAppointments,
-            LocalDateTime slotStart,
-            LocalDateTime slotEnd
+    private List<br.com.barbershop.api.model.Service> earliestSlotServices(
+            Long serviceId,
+            String serviceName,
+            Double latitude,
+            Double longitude,
+            Double radiusKm
     ) {
-        return existingAppointments.stream()
-                .anyMatch(appointment ->
-                        appointment.getStartTime().isBefore(slotEnd)
-                                && appointment.getEndTime().isAfter(slotStart)
-                );
+        if (serviceId != null) {
+            return List.of(serviceRepository.findWithBarbershopById(serviceId)
+                    .orElseThrow(() -> new RuntimeException("Serviço não encontrado com o ID: " + serviceId)));
+        }
+        if (serviceName == null || serviceName.isBlank() || latitude == null || longitude == null) {
+            throw new IllegalArgumentException("Informe serviceId ou serviceName com latitude e longitude");
+        }
+        double radius = radiusKm == null ? DEFAULT_RADIUS_KM : radiusKm;
+        if (radius <= 0 || radius > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("radiusKm deve estar entre 0 e " + (int) MAX_RADIUS_KM);
+        }
+
+        // Retângulo que contém o círculo (filtrado no banco), depois a distância real
+        double latitudeDelta = radius / BarbershopGeoIndex.KM_PER_DEGREE_LATITUDE;
+        double longitudeDelta = radius / (BarbershopGeoIndex.KM_PER_DEGREE_LATITUDE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        return serviceRepository.findByNameWithin(
+                        serviceName.trim(),
+                        latitude - latitudeDelta,
+                        latitude + latitudeDelta,
+                        longitude - longitudeDelta,
+                        longitude + longitudeDelta
+                ).stream()
+                .filter(service -> BarbershopGeoIndex.distanceKm(latitude, longitude,
+                        service.getBarbershop().getLatitude(), service.getBarbershop().getLongitude()) <= radius)
+                .toList();
+    }
+
+    private static <T> Supplier<T> memoize(Supplier<T> loader) {
+        return new Supplier<>() {
+            private T value;
+            private boolean loaded;
+
+            @Override
+            public T get() {
+                if (!loaded) {
+                    value = loader.get();
+                    loaded = true;
+                }
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Inícios livres de um barbeiro para o serviço, em ordem. Os dias só são calculados quando o
+     * cursor chega neles.
+     */
+    private final class SlotCursor {
+
+        private final br.com.barbershop.api.model.Service service;
+        private final Barber barber;
+        private final Double distanceKm;
+        private final int duration;
+        private final OpeningHours openingHours;
+        private final LocalDate lastDate;
+        private final LocalDateTime now;
+
+        private LocalDate date;
+        private List<Integer> starts = List.of();
+        private int index;
+        private LocalDateTime current;
+
+        SlotCursor(br.com.barbershop.api.model.Service service, Barber barber, Double distanceKm,
+                   LocalDate firstDate, LocalDate lastDate, LocalDateTime now) {
+            this.service = service;
+            this.barber = barber;
+            this.distanceKm = distanceKm;
+            this.duration = service.getDuration() != null && service.getDuration() > 0
+                    ? service.getDuration()
+                    : SLOT_INTERVAL_MINUTES;
+            this.openingHours = openingHoursFor(service.getBarbershop().getId());
+            this.lastDate = lastDate;
+            this.now = now;
+            this.date = firstDate.minusDays(1);
+        }
+
+        LocalDateTime current() {
+            return current;
+        }
+
+        double distanceForOrdering() {
+            return distanceKm == null ? 0 : distanceKm;
+        }
+
+        boolean advance() {
+            while (index >= starts.size()) {
+                if (!date.isBefore(lastDate)) {
+                    return false;
+                }
+                date = date.plusDays(1);
+                starts = freeStartsOn(date);
+                index = 0;
+            }
+            current = date.atStartOfDay().plusMinutes(starts.get(index++));
+            return true;
+        }
+
+        private List<Integer> freeStartsOn(LocalDate day) {
+            Long barbershopId = service.getBarbershop().getId();
+            BitSet busyMinutes = scheduleFor(barbershopId, day).busyMinutes(barber.getId());
+            busyMinutes.or(slotHoldService.heldMinutes(barbershopId, day, barber.getId(), null));
+            List<Integer> free = freeStartMinutes(openingHours.openMinutes(day.getDayOfWeek()), busyMinutes, duration);
+            if (!day.equals(now.toLocalDate())) {
+                return free;
+            }
+            // Hoje: apenas horários que ainda não começaram
+            int nowMinute = ScheduleIndex.minuteOfDay(now);
+            return free.stream().filter(minute -> minute > nowMinute).toList();
+        }
+
+        EarliestSlotDTO toDTO() {
+            Barbershop barbershop = service.getBarbershop();
+            return new EarliestSlotDTO(
+                    barbershop.getId(),
+                    barbershop.getName(),
+                    barbershop.getAddress(),
+                    distanceKm == null ? null : Math.round(distanceKm * 100) / 100.0,
+                    barber.getId(),
+                    barber.getName(),
+                    service.getId(),
+                    service.getName(),
+                    duration,
+                    service.getPrice(),
+                    current.toLocalDate(),
+                    current.toLocalTime()
+            );
+        }
+    }
+
+    private AvailabilityRequest resolveAvailabilityRequest(Long barbershopId, Long barberId, Long serviceId) {
+        if (!barbershopRepository.existsById(barbershopId)) {
+            throw new RuntimeException("Barbearia não encontrada com o ID: " + barbershopId);
+        }
+
+        int duration = SLOT_INTERVAL_MINUTES;
+        if (serviceId != null) {
+            br.com.barbershop.api.model.Service service = serviceRepository.findById(serviceId)
+                    .orElseThrow(() -> new RuntimeException("Serviço não encontrado com o ID: " + serviceId));
+            if (service.getDuration() != null && service.getDuration() > 0) {
+                duration = service.getDuration();
+            }
+        }
+
+        List<Barber> barbers;
+        if (barberId != null) {
+            Barber barber = barberRepository.findById(barberId)
+                    .filter(b -> b.getBarbershop() != null && barbershopId.equals(b.getBarbershop().getId()))
+                    .orElseThrow(() -> new RuntimeException("Barbeiro não encontrado nesta barbearia: " + barberId));
+            barbers = List.of(barber);
+        } else {
+            barbers = barberRepository.findByBarbershopId(barbershopId);
+        }
+
+        return new AvailabilityRequest(barbershopId, serviceId, duration, barbers, openingHoursFor(barbershopId));
+    }
+
+    private AvailabilityDTO availabilityFor(AvailabilityRequest request, ScheduleIndex.DaySchedule schedule, LocalDate date) {
+        BitSet openMinutes = request.openingHours().openMinutes(date.getDayOfWeek());
+        List<BarberAvailabilityDTO> barberSlots = new ArrayList<>(request.barbers().size());
+        for (Barber barber : request.barbers()) {
+            BitSet busyMinutes = schedule.busyMinutes(barber.getId());
+            busyMinutes.or(slotHoldService.heldMinutes(request.barbershopId(), date, barber.getId(), null));
+            List<String> slots = freeSlots(openMinutes, busyMinutes, request.duration());
+            barberSlots.add(new BarberAvailabilityDTO(barber.getId(), barber.getName(), slots));
+        }
+        return new AvailabilityDTO(request.barbershopId(), request.serviceId(), request.duration(), date, barberSlots);
+    }
+
+    private record AvailabilityRequest(
+            Long barbershopId,
+            Long serviceId,
+            int duration,
+            List<Barber> barbers,
+            OpeningHours openingHours
+    ) {
+    }
+
+    private List<String> freeSlots(BitSet openMinutes, BitSet busyMinutes, int durationMinutes) {
+        return freeStartMinutes(openMinutes, busyMinutes, durationMinutes).stream()
+                .map(AppointmentService::formatMinute)
+                .toList();
+    }
+
+    private static String formatMinute(int minuteOfDay) {
+        return LocalTime.ofSecondOfDay(minuteOfDay * 60L).format(TIME_FORMATTER);
+    }
+
+    // Percorre cada período de funcionamento em passos de 30 minutos a partir da abertura e mantém
+    // os inícios em que [início, início + duração) cabe no período e está livre
+    private static List<Integer> freeStartMinutes(BitSet openMinutes, BitSet busyMinutes, int durationMinutes) {
+        List<Integer> starts = new ArrayList<>();
+        int periodStart = openMinutes.nextSetBit(0);
+        while (periodStart >= 0) {
+            int periodEnd = openMinutes.nextClearBit(periodStart);
+            for (int start = periodStart; start + durationMinutes <= periodEnd; start += SLOT_INTERVAL_MINUTES) {
+                if (!ScheduleIndex.DaySchedule.isBusy(busyMinutes, start, start + durationMinutes)) {
+                    starts.add(start);
+                }
+            }
+            periodStart = openMinutes.nextSetBit(periodEnd);
+        }
+        return starts;
+    }
+
+    private OpeningHours openingHoursFor(Long barbershopId) {
+        return openingHoursCache.get(barbershopId, () -> barbershopRepository.findOpeningHours(barbershopId));
+    }
+
+    // Agenda do dia em memória; só vai ao banco na primeira consulta do dia e quando ela vence
+    private ScheduleIndex.DaySchedule scheduleFor(Long barbershopId, LocalDate date) {
+        return scheduleIndex.day(barbershopId, date, () -> appointmentRepository
+                .findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                        barbershopId,
+                        date.plusDays(1).atStartOfDay(),
+                        date.atStartOfDay(),
+                        ACTIVE_STATUSES
+                ));
     }
 
     private void validateSlotAvailability(
+            Long barbershopId,
             Long barberId,
             LocalDateTime startTime,
             LocalDateTime endTime,
             Long excludedAppointmentId
     ) {
-        boolean hasConflict = excludedAppointmentId == null
-                ? appointmentRepository.existsByBarberIdAndStatusInAndStartTimeLessThanAndEndTimeGreaterThan(
-                        barberId,
-                        ACTIVE_STATUSES,
-                        endTime,
-                        startTime
-                )
-                : appointmentRepository.existsByBarberIdAndIdNotAndStatusInAndStartTimeLessThanAndEndTimeGreaterThan(
-                        barberId,
-                        excludedAppointmentId,
-                        ACTIVE_STATUSES,
-                        endTime,
-                        startTime
-                );
+        // Percorre os dias cobertos pelo intervalo (normalmente apenas um)
+        boolean hasConflict = false;
+        for (LocalDate day = startTime.toLocalDate(); !day.isAfter(endTime.toLocalDate()) && !hasConflict; day = day.plusDays(1)) {
+            int startMinute = day.equals(startTime.toLocalDate()) ? ScheduleIndex.minuteOfDay(startTime) : 0;
+            int endMinute = day.equals(endTime.toLocalDate()) ? ScheduleIndex.minuteOfDay(endTime) : ScheduleIndex.MINUTES_PER_DAY;
+            if (endMinute > startMinute) {
+                hasConflict = hasConflict(barbershopId, day, barberId, startMinute, endMinute, excludedAppointmentId);
+            }
+        }
 
         if (hasConflict) {
-            throw new IllegalStateException("Horario indisponivel para o barbeiro selecionado");
+            throw new SlotUnavailableException();
         }
     }
 
+    // O índice pode estar desatualizado (ex.: cancelamento feito em outro nó): um conflito visto
+    // nele só é confirmado depois de reler o dia do banco
+    private boolean hasConflict(Long barbershopId, LocalDate date, Long barberId, int startMinute, int endMinute,
+                                Long excludedAppointmentId) {
+        if (!scheduleFor(barbershopId, date).hasConflict(barberId, startMinute, endMinute, excludedAppointmentId)) {
+            return false;
+        }
+        scheduleIndex.invalidate(barbershopId, date);
+        return scheduleFor(barbershopId, date).hasConflict(barberId, startMinute, endMinute, excludedAppointmentId);
+    }
+
+    /**
+     * Conflito com os horários livres mais próximos do pedido: até MAX_ALTERNATIVES para o mesmo
+     * barbeiro e para cada um dos demais barbeiros da barbearia. Usa a mesma agenda em memória da
+     * verificação de conflito (recarregada do banco quando foi o banco que apontou o conflito).
+     */
+    private SlotUnavailableException unavailableWithAlternatives(
+            Long barbershopId,
+            Long barberId,
+            LocalDateTime requested,
+            int duration,
+            Long excludedAppointmentId,
+            Long clientId
+    ) {
+        LocalDate date = requested.toLocalDate();
+        int requestedMinute = ScheduleIndex.minuteOfDay(requested);
+        LocalDateTime now = LocalDateTime.now(ZoneId.of(timezone));
+        ScheduleIndex.DaySchedule schedule = scheduleFor(barbershopId, date);
+        BitSet openMinutes = openingHoursFor(barbershopId).openMinutes(date.getDayOfWeek());
+
+        List<String> sameBarber = List.of();
+        List<BarberAvailabilityDTO> otherBarbers = new ArrayList<>();
+        for (Barber barber : barberRepository.findByBarbershopId(barbershopId)) {
+            boolean requestedBarber = barber.getId().equals(barberId);
+            BitSet busyMinutes = schedule.busyMinutes(barber.getId(), excludedAppointmentId);
+            busyMinutes.or(slotHoldService.heldMinutes(barbershopId, date, barber.getId(), clientId));
+
+            // Ordem crescente + sort estável: na mesma distância, o horário mais cedo vem antes
+            List<String> nearest = freeStartMinutes(openMinutes, busyMinutes, duration).stream()
+                    .filter(start -> !(requestedBarber && start == requestedMinute))
+                    .filter(start -> date.atStartOfDay().plusMinutes(start).isAfter(now))
+                    .sorted(Comparator.comparingInt(start -> Math.abs(start - requestedMinute)))
+                    .limit(MAX_ALTERNATIVES)
+                    .map(AppointmentService::formatMinute)
+                    .toList();
+            if (requestedBarber) {
+                sameBarber = nearest;
+            } else if (!nearest.isEmpty()) {
+                otherBarbers.add(new BarberAvailabilityDTO(barber.getId(), barber.getName(), nearest));
+            }
+        }
+        return new SlotUnavailableException(new SlotAlternativesDTO(date, duration, sameBarber, otherBarbers));
+    }
+
+    // A verificação em memória só enxerga o que este nó já carregou. Quem garante a ausência de
+    // sobreposição é a constraint appointments_no_overlap (data.sql); se ela rejeitar o INSERT/UPDATE,
+    // a agenda do dia é descartada do índice para ser recarregada do banco na próxima consulta.
+    private <T> T translateOverlapViolation(Long barbershopId, LocalDate date, Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            scheduleIndex.invalidate(barbershopId, date);
+            throw new SlotUnavailableException();
+        }
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(OVERLAP_CONSTRAINT);
+    }
+
+
+    private AppointmentDTO mapToAppointmentDTO(AppointmentView view) {
+        AppointmentDTO dto = new AppointmentDTO();
+        dto.setId(view.getId());
+        dto.setClientId(view.getClientId());
+        dto.setClientName(view.getClientName());
+        dto.setBarbershopId(view.getBarbershopId());
+        dto.setBarbershopName(view.getBarbershopName());
+        dto.setBarbershopAddress(view.getBarbershopAddress());
+        dto.setBarbershopPhone(view.getBarbershopPhone());
+        dto.setBarberId(view.getBarberId());
+        dto.setBarberName(view.getBarberName());
+        dto.setServiceId(view.getServiceId());
+        dto.setService(view.getServiceName());
+        dto.setDate(view.getStartTime().toLocalDate());
+        dto.setTime(view.getStartTime().toLocalTime());
+        dto.setDuration(view.getDuration());
+        dto.setPrice(view.getPrice());
+        dto.setStatus(view.getStatus());
+        return dto;
+    }
 
     private AppointmentDTO mapToAppointmentDTO(Appointment appointment) {
         AppointmentDTO dto = new AppointmentDTO();
@@ -4,16 +4,21 @@ import br.com.barbershop.api.dto.AuthResponseDTO;
 import br.com.barbershop.api.dto.BarberResponseDTO;
 import br.com.barbershop.api.dto.ClientResponseDTO;
 import br.com.barbershop.api.dto.LoginRequest;
+import br.com.barbershop.api.model.Account;
+import br.com.barbershop.api.model.Barber;
+import br.com.barbershop.api.model.Client;
 import br.com.barbershop.api.repository.BarberRepository;
 import br.com.barbershop.api.repository.ClientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Optional;
 
 @Service
 public class AuthService {
@@ -26,19 +31,29 @@ public class AuthService {
     private JwtService jwtService;
     @Autowired
     private AuthenticationManager authenticationManager;
+    @Autowired
+    private AccountDirectory accountDirectory;
 
 
     public AuthResponseDTO login(LoginRequest request) {
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
 
-        var clientOptional = clientRepository.findByEmail(request.getEmail());
+        // O UserDetailsService já resolveu a conta no diretório; só o cliente/barbeiro é carregado (por id)
+        Account account = authentication != null && authentication.getPrincipal() instanceof AccountUserDetails details
+                ? details.getAccount()
+                : accountDirectory.findByEmail(request.getEmail())
+                        .orElseThrow(() -> new RuntimeException("Usuário autenticado não encontrado nos repositórios."));
+
+        Optional<Client> clientOptional = "CLIENT".equals(account.getUserType())
+                ? clientRepository.findById(account.getUserId())
+                : Optional.empty();
         if (clientOptional.isPresent()) {
             var client = clientOptional.get();
             UserDetails userDetails = new User(client.getEmail(), client.getPassword(), new ArrayList<>());
             // CORREÇÃO: Passa "CLIENT" para gerar o token
-            var jwtToken = jwtService.generateToken(userDetails, "CLIENT");
+            var jwtToken = jwtService.generateToken(userDetails, "CLIENT", client.getId(), account.getTokenVersion());
 
             ClientResponseDTO clientDto = new ClientResponseDTO();
             clientDto.setId(client.getId());
@@ -52,12 +67,14 @@ public class AuthService {
                     .build();
         }
 
-        var barberOptional = barberRepository.findByEmail(request.getEmail());
+        Optional<Barber> barberOptional = "BARBER".equals(account.getUserType())
+                ? barberRepository.findById(account.getUserId())
+                : Optional.empty();
         if (barberOptional.isPresent()) {
             var barber = barberOptional.get();
             UserDetails userDetails = new User(barber.getEmail(), barber.getPassword(), new ArrayList<>());
             // CORREÇÃO: Passa "BARBER" para gerar o token
-            var jwtToken = jwtService.generateToken(userDetails, "BARBER");
+            var jwtToken = jwtService.generateToken(userDetails, "BARBER", barber.getId(), account.getTokenVersion());
 
             BarberResponseDTO barberDto = new BarberResponseDTO();
             barberDto.setId(barber.getId());
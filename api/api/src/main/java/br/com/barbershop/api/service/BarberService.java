@@ -6,10 +6,10 @@ import br.com.barbershop.api.dto.BarberResponseDTO;
 import br.com.barbershop.api.model.Barber;
 import br.com.barbershop.api.repository.BarberRepository;
 import br.com.barbershop.api.repository.BarbershopRepository;
-import br.com.barbershop.api.repository.ClientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class BarberService {
@@ -17,14 +17,15 @@ public class BarberService {
     @Autowired
     private BarberRepository barberRepository;
     @Autowired
-    private ClientRepository clientRepository; // Para verificar se o email já existe em clientes
-    @Autowired
     private BarbershopRepository barbershopRepository; // Para verificar se a barbearia existe
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private AccountDirectory accountDirectory; // Email único entre clientes e barbeiros
 
+    @Transactional
     public br.com.barbershop.api.dto.BarberResponseDTO register(BarberRegistrationDTO dto) {
-        if (barberRepository.existsByEmail(dto.getEmail())) {
+        if (accountDirectory.isEmailTaken(dto.getEmail())) {
             throw new RuntimeException("E-mail já cadastrado");
         }
         if (barberRepository.existsByCpf(dto.getCpf())) {
@@ -43,6 +44,7 @@ public class BarberService {
         b.setBarbershop(shop);
 
         var saved = barberRepository.save(b);
+        accountDirectory.save("BARBER", saved.getId(), saved.getEmail(), saved.getPassword());
 
         var resp = new br.com.barbershop.api.dto.BarberResponseDTO();
         resp.setId(saved.getId());
@@ -0,0 +1,161 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.dto.BarbershopListDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Catálogo de barbearias de GET /api/barbershops já serializado em JSON (e comprimido em gzip),
+ * com o ETag calculado sobre o conteúdo.
+ *
+ * O catálogo muda poucas vezes por dia: cada alteração pede uma nova versão, reconstruída em
+ * segundo plano por uma thread própria; até ela ficar pronta, a versão anterior continua sendo
+ * servida. Pedidos acumulados durante uma reconstrução viram uma só, e um pedido feito durante a
+ * primeira carga gera uma versão mais nova que a dela. Além disso, a cada
+ * barbershops.index.reload-seconds uma reconstrução é pedida para incluir o que outros nós gravaram.
+ */
+@Component
+public class BarbershopCatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(BarbershopCatalogCache.class);
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "barbershop-catalog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Executor executor = rebuilder;
+
+    @Value("${barbershops.index.reload-seconds:300}")
+    private long reloadSeconds = 300;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final AtomicLong requestedVersion = new AtomicLong();
+    private final AtomicLong nextReloadAt = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public record Snapshot(long version, byte[] json, byte[] gzip, String etag, String gzipEtag) {
+
+        public static Snapshot of(long version, List<BarbershopListDTO> barbershops) {
+            try {
+                byte[] json = MAPPER.writeValueAsBytes(Collections.singletonMap("barbershops", barbershops));
+                String hash = Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString(Arrays.copyOf(MessageDigest.getInstance("SHA-256").digest(json), 16));
+                return new Snapshot(version, json, gzip(json), "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Falha ao serializar o catálogo de barbearias", e);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Verdadeiro quando o If-None-Match contém um dos ETags desta versão (com ou sem W/) ou "*".
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static byte[] gzip(byte[] json) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return compressed.toByteArray();
+        }
+    }
+
+    /**
+     * Versão atual do catálogo; só a primeira chamada (sem nenhuma versão pronta) espera a carga.
+     */
+    public Snapshot current(Supplier<List<BarbershopListDTO>> loader) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            reloadIfDue(loader);
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = Snapshot.of(requestedVersion.get(), loader.get());
+                nextReloadAt.set(clock.millis() + reloadSeconds * 1000);
+            }
+            return snapshot;
+        }
+    }
+
+    // Uma única thread por intervalo pede a reconstrução; a versão atual segue sendo servida
+    private void reloadIfDue(Supplier<List<BarbershopListDTO>> loader) {
+        long now = clock.millis();
+        long due = nextReloadAt.get();
+        if (now >= due && nextReloadAt.compareAndSet(due, now + reloadSeconds * 1000)) {
+            refreshAsync(loader);
+        }
+    }
+
+    // Pede uma nova versão após uma alteração em barbearias ou serviços
+    public void refreshAsync(Supplier<List<BarbershopListDTO>> loader) {
+        long version = requestedVersion.incrementAndGet();
+        executor.execute(() -> rebuild(version, loader));
+    }
+
+    private void rebuild(long version, Supplier<List<BarbershopListDTO>> loader) {
+        // Um pedido mais novo já está na fila e vai ler o estado mais recente
+        if (version < requestedVersion.get()) {
+            return;
+        }
+        try {
+            Snapshot built = Snapshot.of(version, loader.get());
+            synchronized (this) {
+                if (snapshot == null || snapshot.version() < version) {
+                    snapshot = built;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao reconstruir o catálogo de barbearias (versão {}); mantendo a anterior", version, e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        rebuilder.shutdownNow();
+    }
+}
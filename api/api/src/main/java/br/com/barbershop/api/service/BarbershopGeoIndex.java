@@ -0,0 +1,158 @@
+package br.com.barbershop.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Índice espacial em memória das barbearias com coordenadas: uma grade de células de CELL_DEGREES
+ * graus (cerca de 1 km) com as barbearias de cada célula, além da nota e do preço médio usados
+ * nos filtros.
+ *
+ * A busca percorre anéis de células a partir da célula do ponto e para assim que os resultados
+ * encontrados estão mais perto do que qualquer célula ainda não visitada. O índice é carregado
+ * do banco na primeira consulta, recarregado a cada barbershops.index.reload-seconds (mudanças
+ * feitas por outros nós) e atualizado a cada put/remove local (criação de barbearia, serviço ou
+ * avaliação), inclusive durante uma carga (ver IndexLoader).
+ */
+@Component
+public class BarbershopGeoIndex {
+
+    public static final double KM_PER_DEGREE_LATITUDE = 111.32;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double CELL_DEGREES = 0.01;
+
+    public record Entry(Long barbershopId, double latitude, double longitude, Double rating, BigDecimal price) {
+    }
+
+    public record Match(Entry entry, double distanceKm) {
+    }
+
+    private record Cell(long row, long column) {
+    }
+
+    // Barbearias por célula e por id; substituído inteiro a cada recarga
+    private record Grid(Map<Cell, Map<Long, Entry>> cells, Map<Long, Entry> entries) {
+
+        static Grid of(List<Entry> entries) {
+            Grid grid = new Grid(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+            entries.forEach(grid::put);
+            return grid;
+        }
+
+        void put(Entry entry) {
+            remove(entry.barbershopId());
+            entries.put(entry.barbershopId(), entry);
+            cells.computeIfAbsent(cellOf(entry.latitude(), entry.longitude()), cell -> new ConcurrentHashMap<>())
+                    .put(entry.barbershopId(), entry);
+        }
+
+        void remove(Long barbershopId) {
+            Entry previous = entries.remove(barbershopId);
+            if (previous == null) {
+                return;
+            }
+            Map<Long, Entry> cell = cells.get(cellOf(previous.latitude(), previous.longitude()));
+            if (cell != null) {
+                cell.remove(barbershopId);
+            }
+        }
+    }
+
+    @Value("${barbershops.index.reload-seconds:300}")
+    private long reloadSeconds = 300;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final IndexLoader<Grid> loader = new IndexLoader<>("busca por proximidade", Grid.of(List.of()));
+
+    public void ensureLoaded(Supplier<List<Entry>> source) {
+        loader.ensureLoaded(() -> Grid.of(source.get()), clock.millis(), reloadSeconds * 1000);
+    }
+
+    public void put(Entry entry) {
+        loader.write(grid -> grid.put(entry));
+    }
+
+    public void remove(Long barbershopId) {
+        loader.write(grid -> grid.remove(barbershopId));
+    }
+
+    public boolean isLoaded() {
+        return loader.isLoaded();
+    }
+
+    /**
+     * Até limit barbearias dentro do raio que passam no filtro, da mais próxima para a mais distante.
+     */
+    public List<Match> nearest(double latitude, double longitude, double radiusKm, Predicate<Entry> filter, int limit) {
+        Map<Cell, Map<Long, Entry>> cells = loader.state().cells();
+        Cell center = cellOf(latitude, longitude);
+        // Menor lado da célula nesta latitude (o de longitude encolhe com o cosseno)
+        double cellKm = CELL_DEGREES * KM_PER_DEGREE_LATITUDE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        int maxRing = (int) Math.ceil(radiusKm / cellKm) + 1;
+
+        // Heap com a pior das melhores no topo
+        PriorityQueue<Match> best = new PriorityQueue<>(Comparator.comparingDouble(Match::distanceKm).reversed());
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (long row = center.row() - ring; row <= center.row() + ring; row++) {
+                boolean edgeRow = Math.abs(row - center.row()) == ring;
+                long step = edgeRow || ring == 0 ? 1 : 2L * ring;
+                for (long column = center.column() - ring; column <= center.column() + ring; column += step) {
+                    Map<Long, Entry> cell = cells.get(new Cell(row, column));
+                    if (cell != null) {
+                        collect(cell.values(), latitude, longitude, radiusKm, filter, limit, best);
+                    }
+                }
+            }
+            // Qualquer célula do próximo anel está a pelo menos ring * cellKm do ponto
+            if (best.size() == limit && best.peek().distanceKm() <= ring * cellKm) {
+                break;
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(Comparator.comparingDouble(Match::distanceKm));
+        return matches;
+    }
+
+    private static void collect(Iterable<Entry> candidates, double latitude, double longitude, double radiusKm,
+                                Predicate<Entry> filter, int limit, PriorityQueue<Match> best) {
+        for (Entry entry : candidates) {
+            double distance = distanceKm(latitude, longitude, entry.latitude(), entry.longitude());
+            if (distance > radiusKm || !filter.test(entry)) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(new Match(entry, distance));
+            } else if (distance < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new Match(entry, distance));
+            }
+        }
+    }
+
+    // Distância em linha reta (fórmula de haversine)
+    public static double distanceKm(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double latitudeDelta = Math.toRadians(toLatitude - fromLatitude);
+        double longitudeDelta = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.pow(Math.sin(latitudeDelta / 2), 2)
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude))
+                * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    private static Cell cellOf(double latitude, double longitude) {
+        return new Cell((long) Math.floor(latitude / CELL_DEGREES), (long) Math.floor(longitude / CELL_DEGREES));
+    }
+}
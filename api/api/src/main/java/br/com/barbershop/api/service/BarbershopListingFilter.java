@@ -0,0 +1,18 @@
+package br.com.barbershop.api.service;
+
+import java.math.BigDecimal;
+
+// Filtros e ordenação opcionais da listagem de barbearias (campos nulos são ignorados).
+// minPrice/maxPrice comparam com o preço médio; sort = rating (padrão) | price | distance,
+// sendo que distance exige latitude e longitude.
+public record BarbershopListingFilter(
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Double minRating,
+        String service,
+        boolean openNow,
+        String sort,
+        Double latitude,
+        Double longitude
+) {
+}
@@ -0,0 +1,124 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.dto.BarbershopListDTO;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Listagem de barbearias pronta para filtrar e ordenar: o DTO de cada barbearia já montado e os
+ * agregados dos seus serviços (quantidade, soma, mínimo e máximo de preço, nomes sem acento).
+ *
+ * É carregada do banco na primeira consulta e recarregada a cada barbershops.index.reload-seconds
+ * (mudanças feitas por outros nós). Entre recargas, cada barbearia criada entra com put e cada
+ * serviço novo ou avaliação só atualiza a sua barbearia (addService, updateRating), sem reler as
+ * demais; uma atualização que chega durante a carga faz a carga reler o banco (ver IndexLoader).
+ */
+@Component
+public class BarbershopListingIndex {
+
+    public record Entry(
+            BarbershopListDTO listing,
+            int serviceCount,
+            BigDecimal priceSum,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Set<String> serviceNames
+    ) {
+
+        // Agregados vindos das colunas da barbearia; os nomes dos serviços vêm do próprio DTO
+        public static Entry of(BarbershopListDTO listing, int serviceCount, BigDecimal priceSum) {
+            Set<String> names = new HashSet<>();
+            listing.getServices().forEach(name -> names.add(fold(name)));
+            return new Entry(listing, serviceCount, priceSum, listing.getMinPrice(), listing.getMaxPrice(), Set.copyOf(names));
+        }
+
+        /**
+         * Novo Entry com mais um serviço; o DTO é copiado, pois o anterior pode estar sendo lido.
+         */
+        public Entry withService(String name, BigDecimal price) {
+            int count = serviceCount + 1;
+            BigDecimal sum = priceSum.add(price);
+            Set<String> names = new HashSet<>(serviceNames);
+            names.add(fold(name));
+
+            BarbershopListDTO updated = copy(listing);
+            List<String> services = new ArrayList<>(listing.getServices());
+            services.add(name);
+            updated.setServices(services);
+            updated.setPrice(sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP));
+            updated.setMinPrice(minPrice == null || price.compareTo(minPrice) < 0 ? price : minPrice);
+            updated.setMaxPrice(maxPrice == null || price.compareTo(maxPrice) > 0 ? price : maxPrice);
+            return new Entry(updated, count, sum, updated.getMinPrice(), updated.getMaxPrice(), Set.copyOf(names));
+        }
+
+        // Algum serviço cujo nome (sem acentos) contém o texto informado
+        public boolean offers(String service) {
+            String folded = fold(service);
+            return serviceNames.stream().anyMatch(name -> name.contains(folded));
+        }
+    }
+
+    @Value("${barbershops.index.reload-seconds:300}")
+    private long reloadSeconds = 300;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final IndexLoader<Map<Long, Entry>> loader = new IndexLoader<>("listagem", new ConcurrentHashMap<>());
+
+    public void ensureLoaded(Supplier<List<Entry>> source) {
+        loader.ensureLoaded(() -> {
+            Map<Long, Entry> entries = new ConcurrentHashMap<>();
+            source.get().forEach(entry -> entries.put(entry.listing().getId(), entry));
+            return entries;
+        }, clock.millis(), reloadSeconds * 1000);
+    }
+
+    public boolean isLoaded() {
+        return loader.isLoaded();
+    }
+
+    public void put(Entry entry) {
+        loader.write(entries -> entries.put(entry.listing().getId(), entry));
+    }
+
+    public void addService(Long barbershopId, String name, BigDecimal price) {
+        loader.write(entries -> entries.computeIfPresent(barbershopId, (id, entry) -> entry.withService(name, price)));
+    }
+
+    public void updateRating(Long barbershopId, Double rating, Integer reviews) {
+        loader.write(entries -> entries.computeIfPresent(barbershopId, (id, entry) -> {
+            BarbershopListDTO updated = copy(entry.listing());
+            updated.setRating(rating);
+            updated.setReviews(reviews);
+            return new Entry(updated, entry.serviceCount(), entry.priceSum(), entry.minPrice(), entry.maxPrice(),
+                    entry.serviceNames());
+        }));
+    }
+
+    public Collection<Entry> entries() {
+        return loader.state().values();
+    }
+
+    public static BarbershopListDTO copy(BarbershopListDTO source) {
+        BarbershopListDTO copy = new BarbershopListDTO();
+        BeanUtils.copyProperties(source, copy);
+        return copy;
+    }
+
+    private static String fold(String name) {
+        return String.join(" ", BarbershopSearchIndex.tokenize(name));
+    }
+}
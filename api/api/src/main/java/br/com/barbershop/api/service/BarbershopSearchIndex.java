@@ -0,0 +1,222 @@
+package br.com.barbershop.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória para a busca textual de barbearias (nome, endereço, CEP e nomes
+ * dos serviços).
+ *
+ * Os termos são normalizados sem acento e em minúsculas ("Goiânia" e "goiania" são o mesmo
+ * termo). Todos os termos da consulta precisam aparecer na barbearia; cada um casa por prefixo,
+ * o que atende o autocomplete ("nav" encontra "Navalha"). A relevância soma o peso do campo em
+ * que cada termo apareceu, com metade do peso para casamentos só por prefixo, e a nota da
+ * barbearia desempata.
+ *
+ * O índice é carregado do banco na primeira consulta e recarregado periodicamente; cada barbearia
+ * criada, serviço novo ou avaliação atualiza só o documento da barbearia (ver IndexLoader).
+ */
+@Component
+public class BarbershopSearchIndex {
+
+    private static final double NAME_WEIGHT = 3;
+    private static final double SERVICE_WEIGHT = 2;
+    private static final double ADDRESS_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final double RATING_FACTOR = 0.01;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> STOP_WORDS = Set.of("a", "as", "o", "os", "e", "de", "da", "das", "do", "dos", "em", "na", "no");
+
+    public record Document(Long barbershopId, String name, String address, String cep, Collection<String> services,
+                           Double rating) {
+    }
+
+    public record Hit(Long barbershopId, double score) {
+    }
+
+    @Value("${barbershops.index.reload-seconds:300}")
+    private long reloadSeconds = 300;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final IndexLoader<Postings> loader = new IndexLoader<>("busca textual", new Postings());
+
+    /**
+     * Carrega o índice na primeira consulta e o recarrega depois de barbershops.index.reload-seconds
+     * (barbearias criadas ou alteradas por outros nós). Documentos gravados durante a carga não se perdem.
+     */
+    public void ensureLoaded(Supplier<List<Document>> source) {
+        loader.ensureLoaded(() -> {
+            Postings postings = new Postings();
+            source.get().forEach(document -> postings.put(document.barbershopId(), weightsOf(document), document.rating()));
+            return postings;
+        }, clock.millis(), reloadSeconds * 1000);
+    }
+
+    public boolean isLoaded() {
+        return loader.isLoaded();
+    }
+
+    public void put(Document document) {
+        Map<String, Double> weights = weightsOf(document);
+        loader.write(postings -> postings.put(document.barbershopId(), weights, document.rating()));
+    }
+
+    public void remove(Long barbershopId) {
+        loader.write(postings -> postings.remove(barbershopId));
+    }
+
+    /**
+     * Barbearias que contêm todos os termos da consulta, da mais relevante para a menos
+     * relevante (empate pelo id, para a paginação ser estável).
+     */
+    public List<Hit> search(String query) {
+        List<String> terms = new ArrayList<>(new HashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        return loader.state().search(terms);
+    }
+
+    private static Map<String, Double> weightsOf(Document document) {
+        Map<String, Double> weights = new HashMap<>();
+        addTerms(weights, document.name(), NAME_WEIGHT);
+        addTerms(weights, document.address(), ADDRESS_WEIGHT);
+        if (document.cep() != null) {
+            addTerms(weights, document.cep(), ADDRESS_WEIGHT);
+            // "74230100" também encontra "74230-100"
+            addTerms(weights, document.cep().replaceAll("\\D", ""), ADDRESS_WEIGHT);
+        }
+        if (document.services() != null) {
+            document.services().forEach(service -> addTerms(weights, service, SERVICE_WEIGHT));
+        }
+        return weights;
+    }
+
+    /**
+     * Listas invertidas (termo -> barbearia -> peso) e notas; substituídas inteiras a cada recarga.
+     */
+    private static final class Postings {
+
+        private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+        private final Map<Long, Set<String>> termsByShop = new HashMap<>();
+        private final Map<Long, Double> ratings = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void put(Long barbershopId, Map<String, Double> weights, Double rating) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(barbershopId);
+                weights.forEach((term, weight) ->
+                        postings.computeIfAbsent(term, key -> new HashMap<>()).put(barbershopId, weight));
+                termsByShop.put(barbershopId, weights.keySet());
+                ratings.put(barbershopId, rating == null ? 0.0 : rating);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long barbershopId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(barbershopId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Hit> search(List<String> terms) {
+            lock.readLock().lock();
+            try {
+                Map<Long, Double> scores = null;
+                for (String term : terms) {
+                    Map<Long, Double> termScores = scoreTerm(term);
+                    if (scores == null) {
+                        scores = termScores;
+                    } else {
+                        scores.keySet().retainAll(termScores.keySet());
+                        scores.replaceAll((barbershopId, score) -> score + termScores.get(barbershopId));
+                    }
+                    if (scores.isEmpty()) {
+                        return List.of();
+                    }
+                }
+
+                List<Hit> hits = new ArrayList<>(scores.size());
+                scores.forEach((barbershopId, score) ->
+                        hits.add(new Hit(barbershopId, score + ratings.getOrDefault(barbershopId, 0.0) * RATING_FACTOR)));
+                hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::barbershopId));
+                return hits;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Melhor peso de cada barbearia para um termo da consulta: termo exato ou termos que começam por ele
+        private Map<Long, Double> scoreTerm(String term) {
+            Map<Long, Double> scores = new HashMap<>();
+            for (Map.Entry<String, Map<Long, Double>> entry : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+                double factor = entry.getKey().equals(term) ? 1 : PREFIX_FACTOR;
+                entry.getValue().forEach((barbershopId, weight) -> scores.merge(barbershopId, weight * factor, Math::max));
+            }
+            return scores;
+        }
+
+        private void removeLocked(Long barbershopId) {
+            Set<String> terms = termsByShop.remove(barbershopId);
+            ratings.remove(barbershopId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                Map<Long, Double> shops = postings.get(term);
+                if (shops != null) {
+                    shops.remove(barbershopId);
+                    if (shops.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Double> weights, String text, double weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Math::max);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(folded)) {
+            if (!term.isEmpty() && !STOP_WORDS.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
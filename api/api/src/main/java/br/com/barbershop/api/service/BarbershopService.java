@@ -2,18 +2,39 @@ package br.com.barbershop.api.service;
 
 import br.com.barbershop.api.dto.BarbershopDetailDTO;
 import br.com.barbershop.api.dto.BarbershopListDTO;
+import br.com.barbershop.api.dto.BarbershopPageDTO;
+import br.com.barbershop.api.dto.BarbershopSearchPageDTO;
 import br.com.barbershop.api.dto.CreateBarbershopDTO;
 import br.com.barbershop.api.dto.AddServiceDTO;
 import br.com.barbershop.api.dto.ServiceDTO;
 import br.com.barbershop.api.model.Barbershop;
+import br.com.barbershop.api.model.OpeningInterval;
 import br.com.barbershop.api.model.Service;
 import br.com.barbershop.api.repository.BarbershopRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @org.springframework.stereotype.Service
@@ -21,6 +42,31 @@ public class BarbershopService {
 
     @Autowired
     private BarbershopRepository barbershopRepository;
+    @Autowired
+    private OpeningHoursCache openingHoursCache;
+    @Autowired
+    private BarbershopGeoIndex geoIndex;
+    @Autowired
+    private BarbershopSearchIndex searchIndex;
+    @Autowired
+    private BarbershopCatalogCache catalogCache;
+    @Autowired
+    private BarbershopListingIndex listingIndex;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${barbershop.timezone:America/Sao_Paulo}")
+    private String timezone;
+
+    private static final double DEFAULT_NEARBY_RADIUS_KM = 5;
+    private static final double MAX_NEARBY_RADIUS_KM = 50;
+    private static final int DEFAULT_NEARBY_LIMIT = 20;
+    private static final int MAX_NEARBY_LIMIT = 100;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 50;
+    private static final int DEFAULT_LISTING_LIMIT = 20;
+    private static final int MAX_LISTING_LIMIT = 100;
+    private static final List<String> LISTING_SORTS = List.of("rating", "price", "distance");
 
     public BarbershopDetailDTO findById(Long id) {
         Barbershop barbershop = barbershopRepository.findById(id)
@@ -29,23 +75,308 @@ public class BarbershopService {
     }
 
     public List<BarbershopListDTO> findAll() {
-        return barbershopRepository.findAllWithServices()
+        // Preços vêm dos agregados da barbearia; dos serviços só é preciso o nome
+        Map<Long, List<String>> serviceNames = serviceNamesByShop();
+        return barbershopRepository.findAll()
                 .stream()
-                .map(this::mapToBarbershopListDTO)
+                .map(barbershop -> mapToBarbershopListDTO(barbershop, serviceNames.getOrDefault(barbershop.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
+    // Catálogo completo pré-serializado; é reconstruído em segundo plano a cada alteração
+    public BarbershopCatalogCache.Snapshot catalog() {
+        return catalogCache.current(this::findAll);
+    }
+
+    public List<BarbershopListDTO> findOpenNow() {
+        List<BarbershopListDTO> barbershops = findAll();
+        Predicate<Long> openNow = openNow(barbershops.stream().map(BarbershopListDTO::getId).toList());
+        return barbershops.stream()
+                .filter(barbershop -> openNow.test(barbershop.getId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Página da listagem filtrada e ordenada a partir dos agregados já calculados por barbearia
+     * (BarbershopListingIndex), sem consultar serviços. O cursor é o nextCursor da página
+     * anterior e continua do último (chave de ordenação, id) visto.
+     */
+    public BarbershopPageDTO list(BarbershopListingFilter filter, String cursor, Integer limit) {
+        String sort = filter.sort() == null ? "rating" : filter.sort().toLowerCase(Locale.ROOT);
+        if (!LISTING_SORTS.contains(sort)) {
+            throw new IllegalArgumentException("sort deve ser rating, price ou distance");
+        }
+        boolean hasPoint = filter.latitude() != null && filter.longitude() != null;
+        if (sort.equals("distance") && !hasPoint) {
+            throw new IllegalArgumentException("sort=distance exige lat e lng");
+        }
+        int pageSize = limit == null ? DEFAULT_LISTING_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_LISTING_LIMIT) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_LISTING_LIMIT);
+        }
+        String[] position = cursor == null || cursor.isBlank() ? null : decodeListingCursor(cursor, sort);
+
+        listingIndex.ensureLoaded(() -> {
+            Map<Long, List<String>> serviceNames = serviceNamesByShop();
+            return barbershopRepository.findAll().stream()
+                    .map(barbershop -> toListingEntry(barbershop, serviceNames.getOrDefault(barbershop.getId(), List.of())))
+                    .toList();
+        });
+        Predicate<Long> openNow = filter.openNow()
+                ? openNow(listingIndex.entries().stream().map(entry -> entry.listing().getId()).toList())
+                : id -> true;
+
+        // Chave crescente de ordenação: nota decrescente, preço e distância crescentes
+        record Ranked(BarbershopListingIndex.Entry entry, double key, Double distanceKm) {
+        }
+        List<Ranked> ranked = new ArrayList<>();
+        for (BarbershopListingIndex.Entry entry : listingIndex.entries()) {
+            BarbershopListDTO listing = entry.listing();
+            Double rating = listing.getRating();
+            BigDecimal price = listing.getPrice();
+            if ((filter.minPrice() != null && (price == null || price.compareTo(filter.minPrice()) < 0))
+                    || (filter.maxPrice() != null && (price == null || price.compareTo(filter.maxPrice()) > 0))
+                    || (filter.minRating() != null && (rating == null || rating < filter.minRating()))
+                    || (filter.service() != null && !filter.service().isBlank() && !entry.offers(filter.service()))
+                    || !openNow.test(listing.getId())) {
+                continue;
+            }
+            Double distance = hasPoint && listing.getLatitude() != null && listing.getLongitude() != null
+                    ? BarbershopGeoIndex.distanceKm(filter.latitude(), filter.longitude(), listing.getLatitude(), listing.getLongitude())
+                    : null;
+            double key = switch (sort) {
+                // Barbearias sem serviços (sem preço) ficam no fim
+                case "price" -> price == null ? Double.MAX_VALUE : price.doubleValue();
+                case "distance" -> distance == null ? Double.NaN : distance;
+                default -> rating == null ? 0.0 : -rating;
+            };
+            if (!Double.isNaN(key)) {
+                ranked.add(new Ranked(entry, key, distance));
+            }
+        }
+        ranked.sort(Comparator.comparingDouble(Ranked::key).thenComparing(item -> item.entry().listing().getId()));
+
+        int from = 0;
+        if (position != null) {
+            double afterKey = Double.parseDouble(position[1]);
+            long afterId = Long.parseLong(position[2]);
+            while (from < ranked.size()
+                    && (ranked.get(from).key() < afterKey
+                    || (ranked.get(from).key() == afterKey && ranked.get(from).entry().listing().getId() <= afterId))) {
+                from++;
+            }
+        }
+        List<Ranked> page = ranked.subList(from, Math.min(from + pageSize, ranked.size()));
+
+        List<BarbershopListDTO> barbershops = new ArrayList<>(page.size());
+        for (Ranked item : page) {
+            BarbershopListDTO dto = BarbershopListingIndex.copy(item.entry().listing());
+            if (item.distanceKm() != null) {
+                dto.setDistanceKm(BigDecimal.valueOf(item.distanceKm()).setScale(2, RoundingMode.HALF_UP).doubleValue());
+            }
+            barbershops.add(dto);
+        }
+        String nextCursor = null;
+        if (from + page.size() < ranked.size()) {
+            Ranked last = page.get(page.size() - 1);
+            nextCursor = encodeListingCursor(sort, last.key(), last.entry().listing().getId());
+        }
+        return new BarbershopPageDTO(barbershops, nextCursor);
+    }
+
+    private static String encodeListingCursor(String sort, double key, Long id) {
+        String position = sort + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeListingCursor(String cursor, String sort) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            // Um cursor só vale para a mesma ordenação
+            if (position.length != 3 || !position[0].equals(sort)) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            Double.parseDouble(position[1]);
+            Long.parseLong(position[2]);
+            return position;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    // Uma única consulta compila o horário de todas as barbearias ainda fora do cache
+    private Predicate<Long> openNow(List<Long> ids) {
+        if (!openingHoursCache.containsAll(ids)) {
+            Map<Long, List<OpeningInterval>> intervalsByShop = new HashMap<>();
+            for (Object[] row : barbershopRepository.findAllOpeningHours()) {
+                intervalsByShop.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((OpeningInterval) row[1]);
+            }
+            ids.forEach(id -> openingHoursCache.put(id, intervalsByShop.get(id)));
+        }
+
+        LocalDateTime now = LocalDateTime.now(ZoneId.of(timezone));
+        return id -> openingHoursCache.get(id, List::of).isOpenAt(now);
+    }
+
+    /**
+     * Barbearias com coordenadas dentro do raio, da mais próxima para a mais distante, usando o
+     * índice espacial em memória. minRating e maxPrice (preço médio) são opcionais.
+     */
+    public List<BarbershopListDTO> findNearby(Double latitude, Double longitude, Double radiusKm,
+                                              Double minRating, BigDecimal maxPrice, Integer limit) {
+        if (latitude == null || longitude == null
+                || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new IllegalArgumentException("Informe lat e lng válidos");
+        }
+        double radius = radiusKm == null ? DEFAULT_NEARBY_RADIUS_KM : radiusKm;
+        if (radius <= 0 || radius > MAX_NEARBY_RADIUS_KM) {
+            throw new IllegalArgumentException("radiusKm deve estar entre 0 e " + (int) MAX_NEARBY_RADIUS_KM);
+        }
+        int max = limit == null ? DEFAULT_NEARBY_LIMIT : limit;
+        if (max < 1 || max > MAX_NEARBY_LIMIT) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_NEARBY_LIMIT);
+        }
+
+        geoIndex.ensureLoaded(() -> barbershopRepository.findAll().stream()
+                .map(this::toGeoEntry)
+                .filter(Objects::nonNull)
+                .toList());
+        List<BarbershopGeoIndex.Match> matches = geoIndex.nearest(latitude, longitude, radius,
+                entry -> (minRating == null || (entry.rating() != null && entry.rating() >= minRating))
+                        && (maxPrice == null || (entry.price() != null && entry.price().compareTo(maxPrice) <= 0)),
+                max);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Barbershop> barbershops = barbershopRepository.findAllWithServicesByIdIn(
+                        matches.stream().map(match -> match.entry().barbershopId()).toList())
+                .stream()
+                .collect(Collectors.toMap(Barbershop::getId, barbershop -> barbershop));
+        List<BarbershopListDTO> result = new ArrayList<>();
+        for (BarbershopGeoIndex.Match match : matches) {
+            Barbershop barbershop = barbershops.get(match.entry().barbershopId());
+            if (barbershop == null) {
+                geoIndex.remove(match.entry().barbershopId());
+                continue;
+            }
+            BarbershopListDTO dto = mapToBarbershopListDTO(barbershop);
+            dto.setDistanceKm(BigDecimal.valueOf(match.distanceKm()).setScale(2, RoundingMode.HALF_UP).doubleValue());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    /**
+     * Busca textual (sem acentos, com prefixo para autocomplete) por nome, endereço, CEP e
+     * serviços, em ordem de relevância. O cursor é o nextCursor da página anterior. A latência de
+     * cada consulta é publicada no timer barbershops.search.latency.
+     */
+    public BarbershopSearchPageDTO search(String query, String cursor, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Informe o termo de busca (q)");
+        }
+        int pageSize = limit == null ? DEFAULT_SEARCH_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_SEARCH_LIMIT);
+        }
+        String[] position = cursor == null || cursor.isBlank() ? null : decodeSearchCursor(cursor);
+
+        long startedAt = System.nanoTime();
+        searchIndex.ensureLoaded(() -> {
+            Map<Long, List<String>> serviceNames = serviceNamesByShop();
+            return barbershopRepository.findAll().stream()
+                    .map(barbershop -> toSearchDocument(barbershop, serviceNames.getOrDefault(barbershop.getId(), List.of())))
+                    .toList();
+        });
+        List<BarbershopSearchIndex.Hit> hits = searchIndex.search(query);
+
+        // Continua depois do último (relevância, id) visto
+        int from = 0;
+        if (position != null) {
+            double afterScore = Double.parseDouble(position[0]);
+            long afterId = Long.parseLong(position[1]);
+            while (from < hits.size()
+                    && (hits.get(from).score() > afterScore
+                    || (hits.get(from).score() == afterScore && hits.get(from).barbershopId() <= afterId))) {
+                from++;
+            }
+        }
+        List<BarbershopSearchIndex.Hit> page = hits.subList(from, Math.min(from + pageSize, hits.size()));
+
+        List<BarbershopListDTO> barbershops = new ArrayList<>();
+        if (!page.isEmpty()) {
+            Map<Long, Barbershop> byId = barbershopRepository.findAllWithServicesByIdIn(
+                            page.stream().map(BarbershopSearchIndex.Hit::barbershopId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Barbershop::getId, barbershop -> barbershop));
+            for (BarbershopSearchIndex.Hit hit : page) {
+                Barbershop barbershop = byId.get(hit.barbershopId());
+                if (barbershop == null) {
+                    searchIndex.remove(hit.barbershopId());
+                } else {
+                    barbershops.add(mapToBarbershopListDTO(barbershop));
+                }
+            }
+        }
+        String nextCursor = null;
+        if (from + page.size() < hits.size()) {
+            BarbershopSearchIndex.Hit last = page.get(page.size() - 1);
+            nextCursor = encodeSearchCursor(last.score(), last.barbershopId());
+        }
+
+        Timer.builder("barbershops.search.latency")
+                .tag("result", hits.isEmpty() ? "empty" : "hits")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return new BarbershopSearchPageDTO(barbershops, hits.size(), nextCursor);
+    }
+
+    private static String encodeSearchCursor(double score, Long id) {
+        String position = score + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeSearchCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            Double.parseDouble(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
     public Barbershop create(CreateBarbershopDTO dto) {
         Barbershop newBarbershop = new Barbershop();
         newBarbershop.setName(dto.getName());
         newBarbershop.setAddress(dto.getAddress());
         newBarbershop.setPhone(dto.getPhone());
+        newBarbershop.setLatitude(dto.getLatitude());
+        newBarbershop.setLongitude(dto.getLongitude());
         newBarbershop.setHours(dto.getHours());
+        newBarbershop.setOpeningHours(OpeningHours.parse(dto.getHours()));
+        newBarbershop.setPendingTtlMinutes(dto.getPendingTtlMinutes());
+        newBarbershop.setAutoCompleteAfterMinutes(dto.getAutoCompleteAfterMinutes());
         newBarbershop.setRating(0.0);
         newBarbershop.setReviews(0);
-        return barbershopRepository.save(newBarbershop);
+        newBarbershop.setServiceCount(0);
+        newBarbershop.setPriceSum(BigDecimal.ZERO);
+        Barbershop saved = barbershopRepository.save(newBarbershop);
+        openingHoursCache.invalidate(saved.getId());
+        refreshGeoEntry(saved);
+        refreshSearchDocument(saved);
+        listingIndex.put(toListingEntry(saved, List.of()));
+        catalogCache.refreshAsync(this::findAll);
+        return saved;
     }
 
+    @Transactional
     public Service addServiceToBarbershop(Long barbershopId, AddServiceDTO serviceDto) {
         Barbershop barbershop = barbershopRepository.findById(barbershopId)
                 .orElseThrow(() -> new RuntimeException("Barbearia não encontrada com o ID: " + barbershopId));
@@ -62,9 +393,52 @@ public class BarbershopService {
         barbershop.getServices().add(newService);
 
         barbershopRepository.save(barbershop);
+        barbershopRepository.addServicePrice(barbershopId, newService.getPrice());
+
+        // O preço médio usado no filtro de /nearby e os termos da busca mudaram
+        Barbershop updated = barbershopRepository.findAllWithServicesByIdIn(List.of(barbershopId)).get(0);
+        afterCommit(() -> {
+            refreshGeoEntry(updated);
+            refreshSearchDocument(updated);
+            listingIndex.addService(barbershopId, newService.getName(), newService.getPrice());
+            catalogCache.refreshAsync(this::findAll);
+        });
         return newService;
     }
 
+    /**
+     * Propaga para os índices em memória e o catálogo a nota já atualizada no banco por uma
+     * nova avaliação, depois do commit da transação da avaliação.
+     */
+    public void ratingChanged(Long barbershopId) {
+        List<Barbershop> found = barbershopRepository.findAllWithServicesByIdIn(List.of(barbershopId));
+        if (found.isEmpty()) {
+            return;
+        }
+        Barbershop barbershop = found.get(0);
+        afterCommit(() -> {
+            refreshGeoEntry(barbershop);
+            refreshSearchDocument(barbershop);
+            listingIndex.updateRating(barbershopId, barbershop.getRating(), barbershop.getReviews());
+            catalogCache.refreshAsync(this::findAll);
+        });
+    }
+
+    // Índices e catálogo só recebem o que foi commitado: um rollback não deixa rastro em memória e a
+    // reconstrução do catálogo, feita em outra thread, já encontra a alteração no banco
+    private static void afterCommit(Runnable publish) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
     private BarbershopDetailDTO mapToBarbershopDetailDTO(Barbershop barbershop) {
         BarbershopDetailDTO dto = new BarbershopDetailDTO();
         dto.setId(barbershop.getId());
@@ -97,6 +471,12 @@ public class BarbershopService {
     }
 
     private BarbershopListDTO mapToBarbershopListDTO(Barbershop barbershop) {
+        return mapToBarbershopListDTO(barbershop, barbershop.getServices() == null
+                ? List.of()
+                : barbershop.getServices().stream().map(Service::getName).toList());
+    }
+
+    private BarbershopListDTO mapToBarbershopListDTO(Barbershop barbershop, List<String> serviceNames) {
         BarbershopListDTO dto = new BarbershopListDTO();
         dto.setId(barbershop.getId());
         dto.setName(barbershop.getName());
@@ -109,27 +489,57 @@ public class BarbershopService {
         dto.setLatitude(barbershop.getLatitude());
         dto.setLongitude(barbershop.getLongitude());
 
-        // Calcula preço médio dos serviços ou usa valor padrão
-        if (barbershop.getServices() != null && !barbershop.getServices().isEmpty()) {
-            BigDecimal avgPrice = barbershop.getServices().stream()
-                    .map(Service::getPrice)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-                    .divide(new BigDecimal(barbershop.getServices().size()), 2, RoundingMode.HALF_UP);
-            dto.setPrice(avgPrice);
-        } else {
-            dto.setPrice(new BigDecimal("50.00"));
-        }
-        
+        // Agregados mantidos na própria barbearia (nulos enquanto ela não tem serviços)
+        dto.setPrice(barbershop.getAvgPrice());
+        dto.setMinPrice(barbershop.getMinPrice());
+        dto.setMaxPrice(barbershop.getMaxPrice());
+
         dto.setImage("https://example.com/image.jpg");
+        dto.setServices(new ArrayList<>(serviceNames));
+        return dto;
+    }
 
-        if (barbershop.getServices() != null) {
-            dto.setServices(barbershop.getServices().stream()
-                    .map(Service::getName)
-                    .collect(Collectors.toList()));
+    // Nomes dos serviços por barbearia, numa única consulta de projeção
+    private Map<Long, List<String>> serviceNamesByShop() {
+        Map<Long, List<String>> names = new HashMap<>();
+        for (Object[] row : barbershopRepository.findAllServiceNames()) {
+            names.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return names;
+    }
+
+    private BarbershopGeoIndex.Entry toGeoEntry(Barbershop barbershop) {
+        if (barbershop.getLatitude() == null || barbershop.getLongitude() == null) {
+            return null;
+        }
+        return new BarbershopGeoIndex.Entry(barbershop.getId(), barbershop.getLatitude(), barbershop.getLongitude(),
+                barbershop.getRating(), barbershop.getAvgPrice());
+    }
+
+    // Aplicado mesmo durante a carga do índice: a carga relê o banco se uma escrita chegar no meio
+    private void refreshGeoEntry(Barbershop barbershop) {
+        BarbershopGeoIndex.Entry entry = toGeoEntry(barbershop);
+        if (entry == null) {
+            geoIndex.remove(barbershop.getId());
         } else {
-            dto.setServices(Collections.emptyList());
+            geoIndex.put(entry);
         }
+    }
 
-        return dto;
+    private static BarbershopSearchIndex.Document toSearchDocument(Barbershop barbershop, List<String> serviceNames) {
+        return new BarbershopSearchIndex.Document(barbershop.getId(), barbershop.getName(), barbershop.getAddress(),
+                barbershop.getCep(), serviceNames, barbershop.getRating());
+    }
+
+    private void refreshSearchDocument(Barbershop barbershop) {
+        searchIndex.put(toSearchDocument(barbershop, barbershop.getServices() == null
+                ? List.of()
+                : barbershop.getServices().stream().map(Service::getName).toList()));
+    }
+
+    private BarbershopListingIndex.Entry toListingEntry(Barbershop barbershop, List<String> serviceNames) {
+        return BarbershopListingIndex.Entry.of(mapToBarbershopListDTO(barbershop, serviceNames),
+                barbershop.getServiceCount() == null ? 0 : barbershop.getServiceCount(),
+                barbershop.getPriceSum() == null ? BigDecimal.ZERO : barbershop.getPriceSum());
     }
-}
\ No newline at end of file
+}
@@ -7,6 +7,7 @@ import br.com.barbershop.api.repository.ClientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ClientService {
@@ -17,8 +18,13 @@ public class ClientService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AccountDirectory accountDirectory;
+
+    @Transactional
     public ClientResponseDTO register(ClientRegistrationDTO dto) {
-        if (clientRepository.findByEmail(dto.getEmail()).isPresent()) {
+        // Email único entre clientes e barbeiros
+        if (accountDirectory.isEmailTaken(dto.getEmail())) {
             throw new RuntimeException("Email já cadastrado");
         }
 
@@ -28,6 +34,8 @@ public class ClientService {
         newClient.setPassword(passwordEncoder.encode(dto.getPassword()));
 
         Client savedClient = clientRepository.save(newClient);
+        // Na mesma transação: se outro cadastro levou o email antes, o cliente também é desfeito
+        accountDirectory.save("CLIENT", savedClient.getId(), savedClient.getEmail(), savedClient.getPassword());
 
         ClientResponseDTO response = new ClientResponseDTO();
         response.setId(savedClient.getId());
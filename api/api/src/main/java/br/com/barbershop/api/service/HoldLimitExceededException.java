@@ -0,0 +1,11 @@
+package br.com.barbershop.api.service;
+
+/**
+ * O cliente já tem o máximo de reservas temporárias ativas (respondido com 429).
+ */
+public class HoldLimitExceededException extends RuntimeException {
+
+    public HoldLimitExceededException(int maxHolds) {
+        super("Limite de " + maxHolds + " reservas ativas por cliente atingido");
+    }
+}
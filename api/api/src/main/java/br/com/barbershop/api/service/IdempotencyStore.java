@@ -0,0 +1,144 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.model.IdempotencyRecord;
+import br.com.barbershop.api.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Respostas já enviadas para cada Idempotency-Key (ver IdempotencyFilter).
+ *
+ * As mais recentes ficam num cache LRU limitado a cache-size entradas; todas são gravadas na
+ * tabela idempotency_keys para sobreviver a um restart. Registros vencidos (ttl-minutes) são
+ * ignorados na leitura e apagados periodicamente.
+ *
+ * Antes de processar, a chave é reservada na tabela (reserve), o que vale entre todos os nós. A
+ * reserva dura pending-seconds: se o nó cair no meio, a chave volta a ficar livre depois disso.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Value("${appointments.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes = 1440;
+
+    @Value("${appointments.idempotency.cache-size:10000}")
+    private int cacheSize = 10000;
+
+    @Value("${appointments.idempotency.pending-seconds:120}")
+    private long pendingSeconds = 120;
+
+    // LinkedHashMap em ordem de acesso: a entrada mais antiga é descartada ao passar do limite
+    private final Map<String, IdempotencyRecord> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    // Chaves com requisição em andamento nesta instância
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public Optional<IdempotencyRecord> find(String id) {
+        IdempotencyRecord record;
+        synchronized (cache) {
+            record = cache.get(id);
+        }
+        if (record == null) {
+            record = idempotencyRecordRepository.findById(id).orElse(null);
+            if (record == null) {
+                return Optional.empty();
+            }
+            // Reserva de outra requisição: ainda vai mudar, não entra no cache
+            if (!record.isPending()) {
+                synchronized (cache) {
+                    cache.put(id, record);
+                }
+            }
+        }
+
+        if (record.getExpiresAt().isBefore(LocalDateTime.now())) {
+            synchronized (cache) {
+                cache.remove(id);
+            }
+            return Optional.empty();
+        }
+        return Optional.of(record);
+    }
+
+    public boolean begin(String id) {
+        return inFlight.add(id);
+    }
+
+    public void end(String id) {
+        inFlight.remove(id);
+    }
+
+    /**
+     * Reserva a chave no banco. Retorna false se outra requisição já a reservou ou concluiu, nesta
+     * ou em outra instância.
+     */
+    public boolean reserve(String id, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return idempotencyRecordRepository.reserve(id, requestHash, now.plusSeconds(pendingSeconds), now) > 0;
+        } catch (RuntimeException e) {
+            // Sem o banco vale apenas a proteção desta instância (begin)
+            log.warn("Não foi possível reservar o Idempotency-Key: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /** Libera a reserva de uma requisição que não teve a resposta guardada (5xx ou exceção). */
+    public void release(String id) {
+        try {
+            idempotencyRecordRepository.deletePending(id);
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível liberar o Idempotency-Key: {}", e.getMessage());
+        }
+    }
+
+    public void save(String id, String requestHash, int status, String contentType, String body) {
+        IdempotencyRecord record = new IdempotencyRecord(
+                id, requestHash, status, contentType, body, LocalDateTime.now().plusMinutes(ttlMinutes));
+        synchronized (cache) {
+            cache.put(id, record);
+        }
+        try {
+            idempotencyRecordRepository.save(record);
+        } catch (RuntimeException e) {
+            // A resposta já foi processada: sem o banco, o replay vale apenas para esta instância
+            log.warn("Não foi possível gravar o Idempotency-Key: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${appointments.idempotency.purge-interval-ms:3600000}",
+            fixedDelayString = "${appointments.idempotency.purge-interval-ms:3600000}"
+    )
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (cache) {
+            cache.values().removeIf(record -> record.getExpiresAt().isBefore(now));
+        }
+        int deleted = idempotencyRecordRepository.deleteExpired(now);
+        if (deleted > 0) {
+            log.info("Idempotency-Key: {} registro(s) vencido(s) removido(s)", deleted);
+        }
+    }
+}
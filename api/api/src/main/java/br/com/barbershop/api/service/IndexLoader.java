@@ -0,0 +1,100 @@
+package br.com.barbershop.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Carga dos índices em memória de barbearias: o estado é montado do banco na primeira consulta e
+ * remontado quando fica mais velho que o maxAge informado, para enxergar o que outros nós gravaram.
+ * A recarga é feita por uma única thread; as demais continuam usando o estado atual.
+ *
+ * As escritas locais (write) são aplicadas ao estado servido. Uma escrita que chega enquanto o
+ * banco está sendo lido não se perde: a carga percebe e relê antes de trocar o estado.
+ */
+final class IndexLoader<S> {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexLoader.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final String name;
+    private final Object writeLock = new Object();
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private volatile S state;
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+    // Escritas aplicadas desde o início; protegido por writeLock
+    private long writes;
+
+    IndexLoader(String name, S empty) {
+        this.name = name;
+        this.state = empty;
+    }
+
+    S state() {
+        return state;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    void ensureLoaded(Supplier<S> builder, long nowMillis, long maxAgeMillis) {
+        if (loaded) {
+            if (nowMillis - loadedAt < maxAgeMillis || !reloading.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                load(builder, nowMillis);
+            } catch (RuntimeException e) {
+                log.error("Falha ao recarregar o índice de {}; mantendo o atual", name, e);
+            } finally {
+                reloading.set(false);
+            }
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                load(builder, nowMillis);
+            }
+        }
+    }
+
+    void write(Consumer<S> change) {
+        synchronized (writeLock) {
+            change.accept(state);
+            writes++;
+        }
+    }
+
+    private void load(Supplier<S> builder, long nowMillis) {
+        for (int attempt = 1; ; attempt++) {
+            long writesBefore;
+            synchronized (writeLock) {
+                writesBefore = writes;
+            }
+            S built = builder.get();
+            synchronized (writeLock) {
+                if (writes == writesBefore) {
+                    state = built;
+                    loadedAt = nowMillis;
+                    loaded = true;
+                    return;
+                }
+                if (attempt == MAX_ATTEMPTS) {
+                    // Escritas seguidas durante todas as tentativas: numa recarga fica o estado atual
+                    // (que já tem as escritas); na primeira carga instala e recarrega na próxima consulta
+                    if (!loaded) {
+                        state = built;
+                        loadedAt = Long.MIN_VALUE / 2;
+                        loaded = true;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
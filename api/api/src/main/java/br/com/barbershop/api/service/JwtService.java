@@ -1,6 +1,8 @@
 package br.com.barbershop.api.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -9,26 +11,99 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Emissão e verificação de JWT (HS256).
+ *
+ * A chave e o parser são montados uma única vez. Tokens já verificados ficam num cache LRU
+ * (chave: SHA-256 do token) até expirarem, então cada token tem a assinatura conferida uma vez
+ * e as requisições seguintes com o mesmo token só pagam o hash.
+ */
 @Service
 public class JwtService {
 
     @Value("${jwt.secret}")
     private String secretKey;
 
+    @Value("${security.jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize = 10000;
+
+    private Clock clock = Clock.systemUTC();
+
+    private volatile Key signInKey;
+    private volatile JwtParser parser;
+
+    // LinkedHashMap em ordem de acesso: o token usado há mais tempo é descartado ao passar do limite
+    private final Map<String, VerifiedToken> verifiedTokens = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            return size() > verifiedCacheSize || !eldest.getValue().expiresAt().isAfter(clock.instant());
+        }
+    };
+
+    /**
+     * Verifica assinatura e expiração do token uma única vez e devolve os claims tipados.
+     * Lança JwtException (ex.: ExpiredJwtException, SignatureException) se o token não for válido.
+     */
+    public VerifiedToken verify(String token) {
+        String cacheKey = sha256(token);
+        Instant now = clock.instant();
+        synchronized (verifiedTokens) {
+            VerifiedToken cached = verifiedTokens.get(cacheKey);
+            if (cached != null) {
+                if (cached.expiresAt().isAfter(now)) {
+                    return cached;
+                }
+                verifiedTokens.remove(cacheKey);
+            }
+        }
+
+        // Fora do lock: a verificação HMAC e o parse do JSON são a parte cara
+        Claims claims = extractAllClaims(token);
+        Number userId = claims.get("uid", Number.class);
+        Number tokenVersion = claims.get("ver", Number.class);
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                claims.get("userType", String.class),
+                userId == null ? null : userId.longValue(),
+                tokenVersion == null ? null : tokenVersion.intValue(),
+                claims.getExpiration().toInstant()
+        );
+        synchronized (verifiedTokens) {
+            verifiedTokens.put(cacheKey, verified);
+        }
+        return verified;
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     // ✅ NOVO MÉTODO: Extrai o userType do token
     public String extractUserType(String token) {
-        final Claims claims = extractAllClaims(token);
-        return (String) claims.get("userType"); // Busca o claim customizado
+        return verify(token).userType();
+    }
+
+    // Id da conta (claim "uid"); nulo em tokens emitidos antes do modo stateless
+    public Long extractUserId(String token) {
+        return verify(token).userId();
+    }
+
+    // Versão do token da conta (claim "ver"), comparada com Client/Barber.tokenVersion
+    public Integer extractTokenVersion(String token) {
+        return verify(token).tokenVersion();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -48,42 +123,71 @@ public class JwtService {
         return generateToken(extraClaims, userDetails, userType);
     }
 
+    // Inclui id e versão do token, permitindo montar o usuário autenticado sem consultar o banco
+    public String generateToken(UserDetails userDetails, String userType, Long userId, Integer tokenVersion) {
+        Map<String, Object> extraClaims = new HashMap<>();
+        extraClaims.put("uid", userId);
+        extraClaims.put("ver", tokenVersion == null ? 0 : tokenVersion);
+        return generateToken(extraClaims, userDetails, userType);
+    }
+
     // Método base para geração, agora com userType nos claims
     private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails, String userType) {
         extraClaims.put("userType", userType); // Garante que userType está nos claims
+        long now = clock.millis();
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24)) // Mantendo 24 horas
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 1000 * 60 * 60 * 24)) // Mantendo 24 horas
                 .signWith(getSignInKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-
+    // A expiração já é conferida em verify (ExpiredJwtException)
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        try {
+            return verify(token).subject().equals(userDetails.getUsername());
+        } catch (ExpiredJwtException e) {
+            return false;
+        }
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            // JwtParser é imutável e thread-safe; usa o mesmo relógio do cache
+            current = Jwts.parserBuilder()
+                    .setSigningKey(getSignInKey())
+                    .setClock(() -> Date.from(clock.instant()))
+                    .build();
+            parser = current;
+        }
+        return current;
+    }
+
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key current = signInKey;
+        if (current == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+            current = Keys.hmacShaKeyFor(keyBytes);
+            signInKey = current;
+        }
+        return current;
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.model.OpeningInterval;
+
+import java.text.Normalizer;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Horário de funcionamento compilado: um bitmap de minutos (1440 bits) por dia da semana.
+ *
+ * Também faz o parse do texto livre usado em Barbershop.hours, por exemplo
+ * "Seg-Sáb: 9h-20h", "Seg-Sex: 9h-12h, 13h30-19h; Sáb: 9h-14h; Dom: Fechado".
+ */
+public final class OpeningHours {
+
+    // Usado quando a barbearia ainda não tem horário estruturado (comportamento anterior)
+    public static final OpeningHours DEFAULT = compile(defaultIntervals());
+
+    private static final Map<String, DayOfWeek> DAY_NAMES = Map.of(
+            "seg", DayOfWeek.MONDAY,
+            "ter", DayOfWeek.TUESDAY,
+            "qua", DayOfWeek.WEDNESDAY,
+            "qui", DayOfWeek.THURSDAY,
+            "sex", DayOfWeek.FRIDAY,
+            "sab", DayOfWeek.SATURDAY,
+            "dom", DayOfWeek.SUNDAY
+    );
+
+    private static final Pattern TIME_RANGE = Pattern.compile(
+            "(\\d{1,2})(?:[h:](\\d{2})?)?\\s*(?:-|–|as|a)\\s*(\\d{1,2})(?:[h:](\\d{2})?)?");
+
+    // Separa grupos de dias: ";", "|", quebra de linha ou vírgula logo após um horário/"fechado"
+    // e antes de outro dia (ex.: "Seg-Sex: 9h-18h, Sáb: 9h-14h")
+    private static final Pattern SEGMENT_SEPARATOR = Pattern.compile(
+            "[;|\\n]|(?<=[\\dh]|fechado)\\s*,\\s*(?=[a-z])");
+
+    private final Map<DayOfWeek, BitSet> openMinutes;
+
+    private OpeningHours(Map<DayOfWeek, BitSet> openMinutes) {
+        this.openMinutes = openMinutes;
+    }
+
+    public static OpeningHours compile(List<OpeningInterval> intervals) {
+        Map<DayOfWeek, BitSet> openMinutes = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            openMinutes.put(day, new BitSet(ScheduleIndex.MINUTES_PER_DAY));
+        }
+        for (OpeningInterval interval : intervals) {
+            int open = interval.getOpenTime().toSecondOfDay() / 60;
+            int close = interval.getCloseTime().equals(LocalTime.MIDNIGHT)
+                    ? ScheduleIndex.MINUTES_PER_DAY
+                    : interval.getCloseTime().toSecondOfDay() / 60;
+            if (close > open) {
+                openMinutes.get(interval.getDayOfWeek()).set(open, close);
+            }
+        }
+        return new OpeningHours(openMinutes);
+    }
+
+    /**
+     * Minutos em que a barbearia atende no dia da semana. Não deve ser alterado por quem chama.
+     */
+    public BitSet openMinutes(DayOfWeek day) {
+        return openMinutes.get(day);
+    }
+
+    public boolean isOpenAt(LocalDateTime dateTime) {
+        return openMinutes.get(dateTime.getDayOfWeek()).get(ScheduleIndex.minuteOfDay(dateTime));
+    }
+
+    /**
+     * Converte o texto livre em períodos por dia. Trechos que não puderem ser interpretados
+     * são ignorados; se nada for reconhecido, retorna uma lista vazia.
+     */
+    public static List<OpeningInterval> parse(String text) {
+        List<OpeningInterval> intervals = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return intervals;
+        }
+
+        for (String segment : SEGMENT_SEPARATOR.split(normalize(text))) {
+            int colon = segment.indexOf(':');
+            // O primeiro ":" que não faz parte de um horário (ex.: "09:00") separa dias e horários
+            while (colon > 0 && Character.isDigit(segment.charAt(colon - 1))) {
+                colon = segment.indexOf(':', colon + 1);
+            }
+            if (colon < 0) {
+                continue;
+            }
+
+            List<DayOfWeek> days = parseDays(segment.substring(0, colon));
+            String ranges = segment.substring(colon + 1);
+            if (days.isEmpty() || ranges.contains("fechad")) {
+                continue;
+            }
+
+            Matcher matcher = TIME_RANGE.matcher(ranges);
+            while (matcher.find()) {
+                LocalTime open = toTime(matcher.group(1), matcher.group(2));
+                LocalTime close = toTime(matcher.group(3), matcher.group(4));
+                if (open == null || close == null) {
+                    continue;
+                }
+                for (DayOfWeek day : days) {
+                    intervals.add(new OpeningInterval(day, open, close));
+                }
+            }
+        }
+        return intervals;
+    }
+
+    private static List<DayOfWeek> parseDays(String text) {
+        List<DayOfWeek> days = new ArrayList<>();
+        if (text.contains("todos") || text.contains("diariamente")) {
+            days.addAll(List.of(DayOfWeek.values()));
+            return days;
+        }
+
+        for (String part : text.split(",|\\be\\b")) {
+            String[] bounds = part.trim().split("\\s*(?:-|–|\\ba\\b)\\s*");
+            DayOfWeek first = dayOf(bounds[0]);
+            if (first == null) {
+                continue;
+            }
+            DayOfWeek last = bounds.length > 1 ? dayOf(bounds[bounds.length - 1]) : first;
+            if (last == null) {
+                last = first;
+            }
+            for (DayOfWeek day = first; ; day = day.plus(1)) {
+                if (!days.contains(day)) {
+                    days.add(day);
+                }
+                if (day == last) {
+                    break;
+                }
+            }
+        }
+        return days;
+    }
+
+    private static DayOfWeek dayOf(String text) {
+        String trimmed = text.trim();
+        return trimmed.length() < 3 ? null : DAY_NAMES.get(trimmed.substring(0, 3));
+    }
+
+    private static LocalTime toTime(String hours, String minutes) {
+        int h = Integer.parseInt(hours);
+        int m = minutes == null ? 0 : Integer.parseInt(minutes);
+        if (h == 24 && m == 0) {
+            return LocalTime.MIDNIGHT;
+        }
+        if (h > 23 || m > 59) {
+            return null;
+        }
+        return LocalTime.of(h, m);
+    }
+
+    // Minúsculas e sem acentos ("Sáb" -> "sab")
+    private static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase();
+    }
+
+    private static List<OpeningInterval> defaultIntervals() {
+        List<OpeningInterval> intervals = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            intervals.add(new OpeningInterval(day, LocalTime.of(8, 0), LocalTime.of(18, 0)));
+        }
+        return intervals;
+    }
+}
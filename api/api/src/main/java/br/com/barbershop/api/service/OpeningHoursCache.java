@@ -0,0 +1,44 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.model.OpeningInterval;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Horários de funcionamento já compilados, por barbearia. Barbearias sem horário estruturado
+ * usam OpeningHours.DEFAULT.
+ */
+@Component
+public class OpeningHoursCache {
+
+    private final Map<Long, OpeningHours> compiled = new ConcurrentHashMap<>();
+
+    public OpeningHours get(Long barbershopId, Supplier<List<OpeningInterval>> loader) {
+        OpeningHours hours = compiled.get(barbershopId);
+        if (hours == null) {
+            hours = put(barbershopId, loader.get());
+        }
+        return hours;
+    }
+
+    public OpeningHours put(Long barbershopId, List<OpeningInterval> intervals) {
+        OpeningHours hours = intervals == null || intervals.isEmpty()
+                ? OpeningHours.DEFAULT
+                : OpeningHours.compile(intervals);
+        compiled.put(barbershopId, hours);
+        return hours;
+    }
+
+    public boolean containsAll(Collection<Long> barbershopIds) {
+        return compiled.keySet().containsAll(barbershopIds);
+    }
+
+    public void invalidate(Long barbershopId) {
+        compiled.remove(barbershopId);
+    }
+}
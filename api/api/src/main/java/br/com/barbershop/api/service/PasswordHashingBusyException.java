@@ -0,0 +1,18 @@
+package br.com.barbershop.api.service;
+
+/**
+ * O pool de hash de senhas está com a fila cheia (respondido com 503 e Retry-After).
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(long retryAfterSeconds) {
+        super("Servidor ocupado. Tente novamente em instantes");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.barbershop.api.service;
+
+/**
+ * O cliente atingiu o limite de avaliações na última hora (respondido com 429 e Retry-After).
+ */
+public class ReviewRateLimitException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ReviewRateLimitException(long retryAfterSeconds) {
+        super("Limite de avaliações atingido. Tente novamente mais tarde");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
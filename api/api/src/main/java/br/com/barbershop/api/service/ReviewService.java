@@ -0,0 +1,158 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.dto.CreateReviewDTO;
+import br.com.barbershop.api.dto.ReviewDTO;
+import br.com.barbershop.api.dto.ReviewPageDTO;
+import br.com.barbershop.api.model.Appointment;
+import br.com.barbershop.api.model.AppointmentStatus;
+import br.com.barbershop.api.model.Review;
+import br.com.barbershop.api.repository.AppointmentRepository;
+import br.com.barbershop.api.repository.BarbershopRepository;
+import br.com.barbershop.api.repository.ClientRepository;
+import br.com.barbershop.api.repository.ReviewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class ReviewService {
+
+    private static final int MAX_COMMENT_LENGTH = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final Duration RATE_LIMIT_WINDOW = Duration.ofHours(1);
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private BarbershopRepository barbershopRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private BarbershopService barbershopService;
+
+    @Value("${reviews.max-per-hour:5}")
+    private int maxPerHour = 5;
+
+    @Value("${barbershop.timezone:America/Sao_Paulo}")
+    private String timezone = "America/Sao_Paulo";
+
+    /**
+     * Avaliação de um agendamento COMPLETED, feita pelo próprio cliente. A nota da barbearia é
+     * atualizada somando esta avaliação à soma e à contagem já gravadas, num único UPDATE.
+     */
+    @Transactional
+    public ReviewDTO create(Long appointmentId, String clientEmail, CreateReviewDTO dto) {
+        if (dto.getRating() == null || dto.getRating() < 1 || dto.getRating() > 5) {
+            throw new IllegalArgumentException("A nota deve estar entre 1 e 5");
+        }
+        if (dto.getComment() != null && dto.getComment().length() > MAX_COMMENT_LENGTH) {
+            throw new IllegalArgumentException("O comentário deve ter no máximo " + MAX_COMMENT_LENGTH + " caracteres");
+        }
+
+        Appointment appointment = appointmentRepository.findById(appointmentId)
+                .orElseThrow(() -> new RuntimeException("Agendamento não encontrado com o ID: " + appointmentId));
+        if (clientEmail == null || !clientEmail.equalsIgnoreCase(appointment.getClient().getEmail())) {
+            throw new AccessDeniedException("Apenas o cliente do agendamento pode avaliá-lo");
+        }
+        if (appointment.getStatus() != AppointmentStatus.COMPLETED) {
+            throw new IllegalStateException("Apenas agendamentos concluídos podem ser avaliados");
+        }
+        if (reviewRepository.existsByAppointmentId(appointmentId)) {
+            throw new IllegalStateException("Este agendamento já foi avaliado");
+        }
+
+        Long clientId = appointment.getClient().getId();
+        // Trava a linha do cliente até o commit: avaliações simultâneas do mesmo cliente contam e
+        // gravam uma de cada vez, sem passar juntas pelo limite
+        clientRepository.lockById(clientId);
+        LocalDateTime now = LocalDateTime.now(ZoneId.of(timezone));
+        LocalDateTime windowStart = now.minus(RATE_LIMIT_WINDOW);
+        if (reviewRepository.countByClientIdAndCreatedAtAfter(clientId, windowStart) >= maxPerHour) {
+            // Libera quando a avaliação mais antiga da janela sair dela
+            long retryAfter = reviewRepository.findFirstByClientIdAndCreatedAtAfterOrderByCreatedAtAsc(clientId, windowStart)
+                    .map(oldest -> Duration.between(now, oldest.getCreatedAt().plus(RATE_LIMIT_WINDOW)).toSeconds())
+                    .orElse(RATE_LIMIT_WINDOW.toSeconds());
+            throw new ReviewRateLimitException(Math.max(retryAfter, 1));
+        }
+
+        Review review = new Review();
+        review.setAppointment(appointment);
+        review.setBarbershop(appointment.getBarbershop());
+        review.setClient(appointment.getClient());
+        review.setRating(dto.getRating());
+        review.setComment(dto.getComment());
+        review.setCreatedAt(now);
+        try {
+            reviewRepository.saveAndFlush(review);
+        } catch (DataIntegrityViolationException e) {
+            // Outra requisição avaliou o mesmo agendamento ao mesmo tempo
+            throw new IllegalStateException("Este agendamento já foi avaliado");
+        }
+        ReviewDTO created = mapToReviewDTO(review);
+
+        Long barbershopId = appointment.getBarbershop().getId();
+        barbershopRepository.addRating(barbershopId, dto.getRating());
+        barbershopService.ratingChanged(barbershopId);
+        return created;
+    }
+
+    /**
+     * Avaliações da barbearia, da mais recente para a mais antiga. O cursor é o nextCursor da
+     * página anterior.
+     */
+    public ReviewPageDTO findByBarbershopId(Long barbershopId, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+        Long beforeId = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        // Um registro a mais indica se existe próxima página
+        List<Review> rows = reviewRepository.findPage(barbershopId, beforeId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<Review> page = hasMore ? rows.subList(0, pageSize) : rows;
+        return new ReviewPageDTO(
+                page.stream().map(this::mapToReviewDTO).collect(Collectors.toList()),
+                hasMore ? encodeCursor(page.get(page.size() - 1).getId()) : null
+        );
+    }
+
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    private ReviewDTO mapToReviewDTO(Review review) {
+        return new ReviewDTO(
+                review.getId(),
+                review.getAppointment() == null ? null : review.getAppointment().getId(),
+                review.getBarbershop().getId(),
+                review.getClient().getName(),
+                review.getRating(),
+                review.getComment(),
+                review.getCreatedAt()
+        );
+    }
+}
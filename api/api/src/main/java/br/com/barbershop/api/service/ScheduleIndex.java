@@ -0,0 +1,494 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.model.Appointment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Índice em memória da agenda de cada barbearia, por dia.
+ *
+ * Cada dia é carregado do banco na primeira consulta e depois mantido pelo AppointmentService a
+ * cada create/reschedule/cancel/confirm/complete. As alterações feitas por outros nós (e pela
+ * manutenção periódica rodando em outro nó) não chegam aqui: um dia carregado há mais de
+ * reload-seconds é relido do banco na próxima consulta, enquanto as demais consultas continuam
+ * usando a versão atual. Dias vencidos e o excesso acima de max-days (os carregados há mais
+ * tempo) são descartados a cada carga, o que limita a memória. Os horários
+ * ocupados ficam num bitmap de 1440 posições (um bit por minuto) por barbeiro, mais a
+ * união de todos os barbeiros da barbearia. Um agendamento que passa da meia-noite é
+ * marcado em todos os dias que ocupa.
+ *
+ * Enquanto um dia está sendo carregado, as escritas que chegam para ele ficam guardadas e
+ * são reaplicadas sobre o resultado do loader: um agendamento gravado depois da leitura do
+ * banco, mas antes da instalação do dia, não se perde.
+ */
+@Component
+public class ScheduleIndex {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Value("${appointments.schedule-index.reload-seconds:60}")
+    private long reloadSeconds = 60;
+
+    @Value("${appointments.schedule-index.max-days:5000}")
+    private int maxDays = 5000;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final Map<DayKey, DaySchedule> days = new ConcurrentHashMap<>();
+
+    // Dias com carga em andamento (no máximo uma por dia) e as escritas recebidas durante a carga
+    private final Map<DayKey, Loading> loading = new ConcurrentHashMap<>();
+
+    // Dias em que cada agendamento está registrado, para remover só pelo ID
+    private final Map<Long, Set<DayKey>> locations = new ConcurrentHashMap<>();
+
+    /**
+     * Retorna a agenda do dia, carregando-a com o loader informado se ainda não estiver em memória.
+     * O loader deve trazer os agendamentos ativos que ocupam algum minuto do dia. Se outra thread
+     * já estiver carregando o mesmo dia, espera o resultado dela em vez de ir ao banco de novo.
+     */
+    public DaySchedule day(Long barbershopId, LocalDate date, Supplier<List<Appointment>> loader) {
+        DayKey key = new DayKey(barbershopId, date);
+        DaySchedule schedule = days.get(key);
+        if (schedule != null && !isStale(schedule)) {
+            return schedule;
+        }
+
+        Loading claim = new Loading();
+        Loading current = loading.putIfAbsent(key, claim);
+        if (current != null) {
+            // Numa recarga feita por outra thread, segue com a versão atual
+            return schedule != null ? schedule : await(current);
+        }
+        // Outra carga pode ter terminado entre o get e o putIfAbsent
+        DaySchedule installed = days.get(key);
+        if (installed != null && !isStale(installed)) {
+            loading.remove(key, claim);
+            claim.result.complete(installed);
+            return installed;
+        }
+
+        long loadedAt = clock.millis();
+        evictExpired(loadedAt);
+        List<Appointment> appointments;
+        try {
+            appointments = loader.get();
+        } catch (RuntimeException e) {
+            abandon(key, claim, e);
+            throw e;
+        }
+        return install(key, claim, appointments, loadedAt);
+    }
+
+    /**
+     * Garante que todos os dias de [from, to] estejam em memória usando uma única consulta.
+     * O loader só é chamado se algum dia do intervalo ainda não foi carregado (ou venceu) e deve trazer
+     * os agendamentos ativos que ocupam algum minuto do intervalo. Dias que outra thread já
+     * está carregando ficam com ela.
+     */
+    public void preload(Long barbershopId, LocalDate from, LocalDate to, Supplier<List<Appointment>> loader) {
+        Map<LocalDate, Loading> claims = new LinkedHashMap<>();
+        from.datesUntil(to.plusDays(1))
+                .filter(date -> {
+                    DaySchedule schedule = days.get(new DayKey(barbershopId, date));
+                    return schedule == null || isStale(schedule);
+                })
+                .forEach(date -> {
+                    Loading claim = new Loading();
+                    if (loading.putIfAbsent(new DayKey(barbershopId, date), claim) == null) {
+                        claims.put(date, claim);
+                    }
+                });
+        if (claims.isEmpty()) {
+            return;
+        }
+
+        long loadedAt = clock.millis();
+        evictExpired(loadedAt);
+        List<Appointment> appointments;
+        try {
+            appointments = loader.get();
+        } catch (RuntimeException e) {
+            claims.forEach((date, claim) -> abandon(new DayKey(barbershopId, date), claim, e));
+            throw e;
+        }
+
+        Map<LocalDate, List<Appointment>> byDate = new HashMap<>();
+        for (Appointment appointment : appointments) {
+            for (LocalDate date : datesCovered(appointment.getStartTime(), appointment.getEndTime())) {
+                if (claims.containsKey(date)) {
+                    byDate.computeIfAbsent(date, d -> new ArrayList<>()).add(appointment);
+                }
+            }
+        }
+        claims.forEach((date, claim) ->
+                install(new DayKey(barbershopId, date), claim, byDate.getOrDefault(date, List.of()), loadedAt));
+    }
+
+    /**
+     * Registra (ou reposiciona) um agendamento ativo em cada dia que ele ocupa. Dias ainda não
+     * carregados são ignorados: quando forem consultados, o loader já trará o agendamento do banco.
+     */
+    public void register(Appointment appointment) {
+        register(appointment.getId(), appointment.getBarbershop().getId(), appointment.getBarber().getId(),
+                appointment.getStartTime(), appointment.getEndTime());
+    }
+
+    public void register(Long appointmentId, Long barbershopId, Long barberId, LocalDateTime start, LocalDateTime end) {
+        unregister(appointmentId);
+
+        Write write = new Write(appointmentId, barberId, start, end);
+        for (LocalDate date : datesCovered(start, end)) {
+            DayKey key = new DayKey(barbershopId, date);
+            enqueue(key, write);
+            DaySchedule schedule = days.get(key);
+            if (schedule != null) {
+                apply(key, schedule, write);
+            }
+        }
+    }
+
+    /**
+     * Remove o agendamento do índice (cancelado, concluído ou movido para outro dia).
+     */
+    public void unregister(Long appointmentId) {
+        if (appointmentId == null) {
+            return;
+        }
+        // Uma carga em andamento pode ter lido o agendamento antes da remoção
+        Write removal = new Write(appointmentId, null, null, null);
+        loading.keySet().forEach(key -> enqueue(key, removal));
+
+        Set<DayKey> keys = locations.remove(appointmentId);
+        if (keys == null) {
+            return;
+        }
+        for (DayKey key : keys) {
+            DaySchedule schedule = days.get(key);
+            if (schedule != null) {
+                schedule.remove(appointmentId);
+            }
+        }
+    }
+
+    /**
+     * Descarta a agenda do dia para que seja recarregada do banco (ex.: outro nó gravou um
+     * agendamento que este índice ainda não conhece). Uma carga em andamento do dia é usada
+     * só pela consulta que a fez e não fica em memória.
+     */
+    public void invalidate(Long barbershopId, LocalDate date) {
+        DayKey key = new DayKey(barbershopId, date);
+        loading.computeIfPresent(key, (k, pending) -> {
+            pending.invalidated = true;
+            return pending;
+        });
+        drop(key);
+    }
+
+    /**
+     * Descarta os dias anteriores à data informada (não recebem mais agendamentos).
+     */
+    public void evictBefore(LocalDate date) {
+        days.keySet().removeIf(key -> key.date().isBefore(date));
+        forget(key -> key.date().isBefore(date));
+    }
+
+    // Dias passados, dias vencidos (seriam relidos de qualquer forma) e, acima de max-days, os
+    // carregados há mais tempo
+    private void evictExpired(long nowMillis) {
+        evictBefore(LocalDate.now(clock).minusDays(1));
+        days.entrySet().stream()
+                .filter(entry -> nowMillis - entry.getValue().loadedAt >= reloadSeconds * 1000)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(this::drop);
+        // Abre espaço para o dia que está sendo carregado
+        int excess = days.size() - maxDays + 1;
+        if (excess > 0) {
+            days.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().loadedAt))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(this::drop);
+        }
+    }
+
+    private void drop(DayKey key) {
+        DaySchedule removed = days.remove(key);
+        if (removed != null) {
+            removed.ids().forEach(id -> locations.computeIfPresent(id, (i, keys) -> without(keys, key::equals)));
+        }
+    }
+
+    private boolean isStale(DaySchedule schedule) {
+        return clock.millis() - schedule.loadedAt >= reloadSeconds * 1000;
+    }
+
+    // Instala o dia carregado (no lugar da versão vencida, se houver) e reaplica, na ordem, as
+    // escritas recebidas durante a carga
+    private DaySchedule install(DayKey key, Loading claim, List<Appointment> appointments, long loadedAt) {
+        DaySchedule loaded = new DaySchedule();
+        loaded.loadedAt = loadedAt;
+        for (Appointment appointment : appointments) {
+            loaded.put(appointment.getId(), appointment.getBarber().getId(), key.date(),
+                    appointment.getStartTime(), appointment.getEndTime());
+        }
+
+        loading.compute(key, (k, current) -> {
+            DaySchedule schedule = loaded;
+            boolean cached = false;
+            if (!claim.invalidated) {
+                drop(key);
+                days.put(key, loaded);
+                loaded.ids().forEach(id -> remember(id, key));
+                cached = true;
+            }
+            for (Write write : claim.writes) {
+                if (cached) {
+                    apply(key, schedule, write);
+                } else {
+                    write.applyTo(schedule, key.date());
+                }
+            }
+            claim.result.complete(schedule);
+            return current == claim ? null : current;
+        });
+        return claim.result.join();
+    }
+
+    private void abandon(DayKey key, Loading claim, RuntimeException failure) {
+        loading.remove(key, claim);
+        claim.result.completeExceptionally(failure);
+    }
+
+    private static DaySchedule await(Loading pending) {
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void enqueue(DayKey key, Write write) {
+        loading.computeIfPresent(key, (k, pending) -> {
+            pending.writes.add(write);
+            return pending;
+        });
+    }
+
+    private void apply(DayKey key, DaySchedule schedule, Write write) {
+        if (write.applyTo(schedule, key.date())) {
+            remember(write.appointmentId(), key);
+        } else {
+            locations.computeIfPresent(write.appointmentId(), (id, keys) -> without(keys, key::equals));
+        }
+    }
+
+    private void remember(Long appointmentId, DayKey key) {
+        locations.merge(appointmentId, Set.of(key), (current, added) -> {
+            Set<DayKey> keys = new HashSet<>(current);
+            keys.addAll(added);
+            return Set.copyOf(keys);
+        });
+    }
+
+    private void forget(Predicate<DayKey> dropped) {
+        locations.keySet().forEach(id -> locations.computeIfPresent(id, (k, keys) -> without(keys, dropped)));
+    }
+
+    private static Set<DayKey> without(Set<DayKey> keys, Predicate<DayKey> dropped) {
+        if (keys.stream().noneMatch(dropped)) {
+            return keys;
+        }
+        Set<DayKey> remaining = new HashSet<>(keys);
+        remaining.removeIf(dropped);
+        return remaining.isEmpty() ? null : Set.copyOf(remaining);
+    }
+
+    /**
+     * Dias em que o intervalo [start, end) ocupa algum minuto; um fim exatamente à meia-noite
+     * não ocupa o dia seguinte.
+     */
+    static List<LocalDate> datesCovered(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            return List.of(start.toLocalDate());
+        }
+        return start.toLocalDate().datesUntil(end.minusNanos(1).toLocalDate().plusDays(1)).toList();
+    }
+
+    public static int minuteOfDay(LocalDateTime dateTime) {
+        return dateTime.getHour() * 60 + dateTime.getMinute();
+    }
+
+    private record DayKey(Long barbershopId, LocalDate date) {
+    }
+
+    private record Booking(Long barberId, int startMinute, int endMinute) {
+    }
+
+    // Registro (barberId preenchido) ou remoção (barberId nulo) de um agendamento
+    private record Write(Long appointmentId, Long barberId, LocalDateTime start, LocalDateTime end) {
+
+        boolean applyTo(DaySchedule schedule, LocalDate date) {
+            if (barberId == null) {
+                schedule.remove(appointmentId);
+                return false;
+            }
+            return schedule.put(appointmentId, barberId, date, start, end);
+        }
+    }
+
+    // Acesso às escritas e ao flag sempre dentro de loading.compute*, que serializa por dia
+    private static final class Loading {
+
+        private final List<Write> writes = new ArrayList<>();
+        private final CompletableFuture<DaySchedule> result = new CompletableFuture<>();
+        private boolean invalidated;
+    }
+
+    /**
+     * Agenda de um dia de uma barbearia. Os bitmaps são reconstruídos por barbeiro a cada
+     * remoção, o que é barato (poucos agendamentos por barbeiro por dia).
+     */
+    public static final class DaySchedule {
+
+        private final Map<Long, Booking> bookings = new HashMap<>();
+        private final Map<Long, BitSet> busyByBarber = new HashMap<>();
+        private final BitSet busy = new BitSet(MINUTES_PER_DAY);
+        // Início da leitura do banco que montou o dia (Clock.millis)
+        private volatile long loadedAt;
+
+        /**
+         * Marca a parte de [start, end) que cai no dia informado: um agendamento que vem do dia
+         * anterior ocupa desde 00:00 e um que passa da meia-noite ocupa até o fim do dia.
+         * Retorna false se o agendamento não ocupa nenhum minuto do dia.
+         */
+        synchronized boolean put(Long appointmentId, Long barberId, LocalDate date, LocalDateTime start, LocalDateTime end) {
+            int startMinute = start.toLocalDate().isBefore(date) ? 0 : minuteOfDay(start);
+            int endMinute = end.toLocalDate().isAfter(date) ? MINUTES_PER_DAY : minuteOfDay(end);
+            if (start.toLocalDate().isAfter(date) || end.toLocalDate().isBefore(date) || endMinute <= startMinute) {
+                remove(appointmentId);
+                return false;
+            }
+
+            Booking previous = bookings.put(appointmentId, new Booking(barberId, startMinute, endMinute));
+            if (previous != null) {
+                rebuild(previous.barberId());
+                if (!previous.barberId().equals(barberId)) {
+                    rebuild(barberId);
+                }
+                return true;
+            }
+            busyByBarber.computeIfAbsent(barberId, id -> new BitSet(MINUTES_PER_DAY)).set(startMinute, endMinute);
+            busy.set(startMinute, endMinute);
+            return true;
+        }
+
+        synchronized void remove(Long appointmentId) {
+            Booking removed = bookings.remove(appointmentId);
+            if (removed != null) {
+                rebuild(removed.barberId());
+            }
+        }
+
+        synchronized List<Long> ids() {
+            return List.copyOf(bookings.keySet());
+        }
+
+        /**
+         * Verifica se o barbeiro tem algum minuto ocupado em [startMinute, endMinute),
+         * desconsiderando o agendamento informado (usado no reagendamento).
+         */
+        public synchronized boolean hasConflict(Long barberId, int startMinute, int endMinute, Long excludedAppointmentId) {
+            Booking excluded = excludedAppointmentId == null ? null : bookings.get(excludedAppointmentId);
+            if (excluded == null || !excluded.barberId().equals(barberId)) {
+                BitSet barberBusy = busyByBarber.get(barberId);
+                return barberBusy != null && isBusy(barberBusy, startMinute, endMinute);
+            }
+
+            for (Map.Entry<Long, Booking> entry : bookings.entrySet()) {
+                Booking booking = entry.getValue();
+                if (!entry.getKey().equals(excludedAppointmentId)
+                        && booking.barberId().equals(barberId)
+                        && booking.startMinute() < endMinute
+                        && booking.endMinute() > startMinute) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Cópia dos minutos ocupados do barbeiro, ou da barbearia inteira quando barberId é nulo.
+         */
+        public synchronized BitSet busyMinutes(Long barberId) {
+            if (barberId == null) {
+                return (BitSet) busy.clone();
+            }
+            BitSet barberBusy = busyByBarber.get(barberId);
+            return barberBusy == null ? new BitSet(MINUTES_PER_DAY) : (BitSet) barberBusy.clone();
+        }
+
+        /**
+         * Minutos ocupados do barbeiro sem contar o agendamento informado (usado no reagendamento).
+         */
+        public synchronized BitSet busyMinutes(Long barberId, Long excludedAppointmentId) {
+            Booking excluded = excludedAppointmentId == null ? null : bookings.get(excludedAppointmentId);
+            if (excluded == null || !excluded.barberId().equals(barberId)) {
+                return busyMinutes(barberId);
+            }
+            BitSet barberBusy = new BitSet(MINUTES_PER_DAY);
+            for (Map.Entry<Long, Booking> entry : bookings.entrySet()) {
+                Booking booking = entry.getValue();
+                if (!entry.getKey().equals(excludedAppointmentId) && booking.barberId().equals(barberId)) {
+                    barberBusy.set(booking.startMinute(), booking.endMinute());
+                }
+            }
+            return barberBusy;
+        }
+
+        public static boolean isBusy(BitSet busy, int startMinute, int endMinute) {
+            int next = busy.nextSetBit(startMinute);
+            return next >= 0 && next < endMinute;
+        }
+
+        private void rebuild(Long barberId) {
+            BitSet barberBusy = new BitSet(MINUTES_PER_DAY);
+            for (Booking booking : bookings.values()) {
+                if (booking.barberId().equals(barberId)) {
+                    barberBusy.set(booking.startMinute(), booking.endMinute());
+                }
+            }
+            if (barberBusy.isEmpty()) {
+                busyByBarber.remove(barberId);
+            } else {
+                busyByBarber.put(barberId, barberBusy);
+            }
+
+            busy.clear();
+            busyByBarber.values().forEach(busy::or);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package br.com.barbershop.api.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservas temporárias de horário (holds) feitas durante o checkout, antes do POST /api/appointments.
+ *
+ * Ficam apenas em memória, agrupadas por barbearia e dia, e expiram sozinhas após o TTL. A expiração
+ * usa uma roda de tempo (timer wheel) com um bucket por segundo, avançada por uma thread própria;
+ * holds vencidos que ainda não foram recolhidos já são ignorados nas consultas.
+ */
+@Component
+public class SlotHoldService {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 512;
+
+    @Value("${appointments.holds.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    @Value("${appointments.holds.max-per-client:3}")
+    private int maxHoldsPerClient = 3;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<DayKey, Map<String, Hold>> holdsByDay = new ConcurrentHashMap<>();
+    // IDs dos holds de cada cliente (inclusive os ainda sendo criados), alterados só dentro de compute
+    private final Map<Long, Set<String>> holdsByClient = new ConcurrentHashMap<>();
+    private TimerWheel wheel;
+    private ScheduledExecutorService ticker;
+
+    public record Hold(
+            String id,
+            Long barbershopId,
+            Long barberId,
+            Long clientId,
+            LocalDate date,
+            int startMinute,
+            int endMinute,
+            long expiresAtMillis
+    ) {
+    }
+
+    private record DayKey(Long barbershopId, LocalDate date) {
+    }
+
+    @PostConstruct
+    void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slot-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> expireDue(clock.millis()), TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Reserva [startMinute, endMinute) do barbeiro no dia, se não houver outro hold ativo sobreposto.
+     * Holds anteriores do mesmo cliente na barbearia são liberados (um checkout por vez) e cada
+     * cliente tem no máximo appointments.holds.max-per-client holds ativos somando todas as barbearias.
+     *
+     * @throws HoldLimitExceededException se o cliente já atingiu o limite
+     */
+    public Optional<Hold> tryHold(Long barbershopId, Long barberId, Long clientId, LocalDate date, int startMinute, int endMinute) {
+        // Fora do lock do dia: o hold anterior pode estar em outro dia (e outro lock)
+        if (clientId != null) {
+            releaseClientHolds(barbershopId, clientId);
+        }
+        long now = clock.millis();
+        String holdId = UUID.randomUUID().toString();
+        if (clientId != null && !reserveForClient(clientId, holdId, now)) {
+            throw new HoldLimitExceededException(maxHoldsPerClient);
+        }
+        Map<String, Hold> day = holdsByDay.computeIfAbsent(new DayKey(barbershopId, date), key -> new HashMap<>());
+        Hold hold;
+        synchronized (day) {
+            for (Hold other : day.values()) {
+                if (other.expiresAtMillis() > now
+                        && other.barberId().equals(barberId)
+                        && other.startMinute() < endMinute
+                        && other.endMinute() > startMinute) {
+                    forgetForClient(clientId, holdId);
+                    return Optional.empty();
+                }
+            }
+            hold = new Hold(holdId, barbershopId, barberId, clientId, date,
+                    startMinute, endMinute, now + ttlSeconds * 1000);
+            day.put(hold.id(), hold);
+            holds.put(hold.id(), hold);
+        }
+        wheel().schedule(hold);
+        return Optional.of(hold);
+    }
+
+    public Optional<Hold> find(String holdId) {
+        Hold hold = holdId == null ? null : holds.get(holdId);
+        if (hold == null || hold.expiresAtMillis() <= clock.millis()) {
+            return Optional.empty();
+        }
+        return Optional.of(hold);
+    }
+
+    public boolean release(String holdId) {
+        Hold hold = holdId == null ? null : holds.remove(holdId);
+        if (hold == null) {
+            return false;
+        }
+        forgetForClient(hold.clientId(), holdId);
+        Map<String, Hold> day = holdsByDay.get(new DayKey(hold.barbershopId(), hold.date()));
+        if (day != null) {
+            synchronized (day) {
+                day.remove(holdId);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Minutos reservados por holds ativos de outros clientes: de um barbeiro, ou de todos quando
+     * barberId é nulo.
+     */
+    public BitSet heldMinutes(Long barbershopId, LocalDate date, Long barberId, Long excludedClientId) {
+        BitSet held = new BitSet(ScheduleIndex.MINUTES_PER_DAY);
+        for (Hold hold : activeHolds(barbershopId, date, barberId, excludedClientId)) {
+            held.set(hold.startMinute(), hold.endMinute());
+        }
+        return held;
+    }
+
+    public boolean isHeldByOthers(Long barbershopId, LocalDate date, Long barberId, int startMinute, int endMinute,
+                                  Long excludedClientId) {
+        for (Hold hold : activeHolds(barbershopId, date, barberId, excludedClientId)) {
+            if (hold.startMinute() < endMinute && hold.endMinute() > startMinute) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasHolds(Long barbershopId, LocalDate date, Long barberId, Long excludedClientId) {
+        return !activeHolds(barbershopId, date, barberId, excludedClientId).isEmpty();
+    }
+
+    // Remove da memória os holds vencidos até o instante informado (chamado a cada tick)
+    void expireDue(long nowMillis) {
+        for (Hold hold : wheel().advance(nowMillis)) {
+            Hold current = holds.get(hold.id());
+            if (current != null && current.expiresAtMillis() <= nowMillis) {
+                release(hold.id());
+            }
+        }
+        // Dias que já passaram não recebem novos holds
+        LocalDate yesterday = LocalDate.ofInstant(Instant.ofEpochMilli(nowMillis), clock.getZone()).minusDays(1);
+        holdsByDay.entrySet().removeIf(entry -> entry.getKey().date().isBefore(yesterday) && entry.getValue().isEmpty());
+    }
+
+    private List<Hold> activeHolds(Long barbershopId, LocalDate date, Long barberId, Long excludedClientId) {
+        Map<String, Hold> day = holdsByDay.get(new DayKey(barbershopId, date));
+        if (day == null) {
+            return List.of();
+        }
+        long now = clock.millis();
+        List<Hold> active = new ArrayList<>();
+        synchronized (day) {
+            for (Hold hold : day.values()) {
+                if (hold.expiresAtMillis() > now
+                        && (barberId == null || hold.barberId().equals(barberId))
+                        && (excludedClientId == null || !excludedClientId.equals(hold.clientId()))) {
+                    active.add(hold);
+                }
+            }
+        }
+        return active;
+    }
+
+    private void releaseClientHolds(Long barbershopId, Long clientId) {
+        // Cópia dos IDs feita dentro do compute, que é onde o conjunto do cliente é alterado
+        List<String> ids = new ArrayList<>();
+        holdsByClient.computeIfPresent(clientId, (id, current) -> {
+            ids.addAll(current);
+            return current;
+        });
+        for (String id : ids) {
+            Hold hold = holds.get(id);
+            if (hold != null && hold.barbershopId().equals(barbershopId)) {
+                release(id);
+            }
+        }
+    }
+
+    // Conta e reserva numa única operação atômica: dois holds simultâneos não passam juntos do limite.
+    // Holds vencidos e ainda não recolhidos pela roda não contam.
+    private boolean reserveForClient(Long clientId, String holdId, long now) {
+        Set<String> ids = holdsByClient.compute(clientId, (id, current) -> {
+            Set<String> active = current == null ? new HashSet<>() : current;
+            active.removeIf(other -> {
+                Hold hold = holds.get(other);
+                return hold != null && hold.expiresAtMillis() <= now;
+            });
+            if (active.size() < maxHoldsPerClient) {
+                active.add(holdId);
+            }
+            return active.isEmpty() ? null : active;
+        });
+        return ids != null && ids.contains(holdId);
+    }
+
+    private void forgetForClient(Long clientId, String holdId) {
+        if (clientId == null) {
+            return;
+        }
+        holdsByClient.computeIfPresent(clientId, (id, ids) -> {
+            ids.remove(holdId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private synchronized TimerWheel wheel() {
+        if (wheel == null) {
+            wheel = new TimerWheel(clock.millis());
+        }
+        return wheel;
+    }
+
+    /**
+     * Roda de tempo com WHEEL_SIZE buckets de TICK_MILLIS. Cada hold entra no bucket do seu tick de
+     * vencimento; ao avançar, só os buckets dos ticks percorridos são examinados. Holds com TTL maior
+     * que uma volta ficam no bucket até a volta certa.
+     */
+    private static final class TimerWheel {
+
+        private final List<Queue<Hold>> buckets = new ArrayList<>(WHEEL_SIZE);
+        private long currentTick;
+
+        TimerWheel(long nowMillis) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                buckets.add(new ArrayDeque<>());
+            }
+            currentTick = nowMillis / TICK_MILLIS;
+        }
+
+        synchronized void schedule(Hold hold) {
+            long deadlineTick = Math.max(tickOf(hold), currentTick + 1);
+            buckets.get((int) (deadlineTick % WHEEL_SIZE)).add(hold);
+        }
+
+        synchronized List<Hold> advance(long nowMillis) {
+            long nowTick = nowMillis / TICK_MILLIS;
+            // Após uma pausa maior que uma volta, basta examinar cada bucket uma vez
+            long firstTick = Math.max(currentTick + 1, nowTick - WHEEL_SIZE + 1);
+            List<Hold> due = new ArrayList<>();
+            for (long tick = firstTick; tick <= nowTick; tick++) {
+                Iterator<Hold> bucket = buckets.get((int) (tick % WHEEL_SIZE)).iterator();
+                while (bucket.hasNext()) {
+                    Hold hold = bucket.next();
+                    if (tickOf(hold) <= nowTick) {
+                        bucket.remove();
+                        due.add(hold);
+                    }
+                }
+            }
+            currentTick = Math.max(currentTick, nowTick);
+            return due;
+        }
+
+        private static long tickOf(Hold hold) {
+            return (hold.expiresAtMillis() + TICK_MILLIS - 1) / TICK_MILLIS;
+        }
+    }
+}
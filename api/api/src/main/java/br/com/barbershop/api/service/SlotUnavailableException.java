@@ -0,0 +1,29 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.dto.SlotAlternativesDTO;
+
+/**
+ * O horário pedido já está ocupado para o barbeiro (respondido com 409 pelos controllers).
+ * Lançada tanto pela verificação em memória quanto quando a constraint appointments_no_overlap
+ * do banco rejeita o agendamento.
+ *
+ * Quando lançada pelo AppointmentService, traz os horários livres mais próximos do pedido para
+ * que o cliente escolha outro sem nova consulta.
+ */
+public class SlotUnavailableException extends IllegalStateException {
+
+    private final SlotAlternativesDTO alternatives;
+
+    public SlotUnavailableException() {
+        this(null);
+    }
+
+    public SlotUnavailableException(SlotAlternativesDTO alternatives) {
+        super("Horario indisponivel para o barbeiro selecionado");
+        this.alternatives = alternatives;
+    }
+
+    public SlotAlternativesDTO getAlternatives() {
+        return alternatives;
+    }
+}
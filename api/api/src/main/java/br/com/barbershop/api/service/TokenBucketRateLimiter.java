@@ -0,0 +1,103 @@
+package br.com.barbershop.api.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket por chave (IP, email...): até `capacity` requisições seguidas, recarregando
+ * `refillPerMinute` fichas por minuto.
+ *
+ * Sem locks: cada bucket guarda (fichas, instante da última recarga) num AtomicReference
+ * atualizado por CAS. A memória é limitada a maxKeys buckets; buckets que já recarregaram por
+ * completo equivalem a um bucket novo e são descartados (evictIdle). Se ainda assim o limite for
+ * atingido, chaves novas passam a dividir um único bucket de transbordo até a próxima limpeza.
+ */
+public class TokenBucketRateLimiter {
+
+    private final int capacity;
+    private final double refillPerNano;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Bucket overflow;
+
+    private record State(double tokens, long refilledAtNanos) {
+    }
+
+    private static final class Bucket extends AtomicReference<State> {
+        Bucket(int capacity, long nowNanos) {
+            super(new State(capacity, nowNanos));
+        }
+    }
+
+    public TokenBucketRateLimiter(int capacity, double refillPerMinute, int maxKeys) {
+        this(capacity, refillPerMinute, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, double refillPerMinute, int maxKeys, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.overflow = new Bucket(capacity, nanoClock.getAsLong());
+    }
+
+    /**
+     * Consome uma ficha da chave. Retorna 0 se a requisição está liberada, ou os segundos até
+     * haver uma ficha disponível (valor para o header Retry-After).
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        Bucket bucket = bucketFor(key, now);
+        while (true) {
+            State current = bucket.get();
+            double tokens = tokensAt(current, now);
+            if (tokens < 1) {
+                long waitNanos = (long) Math.ceil((1 - tokens) / refillPerNano);
+                return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            }
+            if (bucket.compareAndSet(current, new State(tokens - 1, Math.max(now, current.refilledAtNanos())))) {
+                return 0;
+            }
+        }
+    }
+
+    // Remove os buckets que já recarregaram por completo (mesmo efeito que não existir)
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int removed = 0;
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            if (tokensAt(entry.getValue().get(), now) >= capacity && buckets.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private Bucket bucketFor(String key, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            evictIdle();
+            if (buckets.size() >= maxKeys) {
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(key, ignored -> new Bucket(capacity, now));
+    }
+
+    private double tokensAt(State state, long now) {
+        long elapsed = Math.max(0, now - state.refilledAtNanos());
+        return Math.min(capacity, state.tokens() + elapsed * refillPerNano);
+    }
+}
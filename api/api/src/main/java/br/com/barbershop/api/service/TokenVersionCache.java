@@ -0,0 +1,96 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Versão atual do token de cada conta (Account.tokenVersion), usada pelo JwtAuthFilter para
+ * recusar tokens emitidos antes de uma troca de email ou senha.
+ *
+ * As versões ficam num cache LRU limitado a cache-size contas e são relidas do banco após
+ * ttl-seconds; alterações feitas nesta instância invalidam a entrada na hora (após o commit).
+ * Em outras instâncias, um token antigo vale no máximo até o TTL.
+ */
+@Component
+public class TokenVersionCache {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Value("${security.jwt.token-version-ttl-seconds:60}")
+    private long ttlSeconds = 60;
+
+    @Value("${security.jwt.token-version-cache-size:10000}")
+    private int cacheSize = 10000;
+
+    private Clock clock = Clock.systemUTC();
+
+    private record Cached(int version, long loadedAtMillis) {
+    }
+
+    // LinkedHashMap em ordem de acesso: a entrada mais antiga é descartada ao passar do limite
+    private final Map<String, Cached> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * Verdadeiro se a conta ainda existe e o token foi emitido com a versão atual dela.
+     */
+    public boolean isCurrent(String userType, Long userId, int tokenVersion) {
+        String key = key(userType, userId);
+        long now = clock.millis();
+        synchronized (cache) {
+            Cached cached = cache.get(key);
+            if (cached != null && now - cached.loadedAtMillis() < ttlSeconds * 1000) {
+                return cached.version() == tokenVersion;
+            }
+        }
+
+        // Fora do lock: uma consulta no índice único (user_type, user_id)
+        Optional<Integer> current = accountRepository.findTokenVersion(userType.toUpperCase(), userId);
+        if (current.isEmpty()) {
+            return false;
+        }
+        synchronized (cache) {
+            cache.put(key, new Cached(current.get(), now));
+        }
+        return current.get() == tokenVersion;
+    }
+
+    // Descarta a versão em cache; dentro de uma transação, só depois do commit
+    public void invalidate(String userType, Long userId) {
+        String key = key(userType, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(key);
+                }
+            });
+        } else {
+            remove(key);
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (cache) {
+            cache.remove(key);
+        }
+    }
+
+    private static String key(String userType, Long userId) {
+        return userType.toUpperCase() + ":" + userId;
+    }
+}
@@ -31,6 +31,9 @@ public class UserService {
     @Autowired
     private AppointmentRepository appointmentRepository;
 
+    @Autowired
+    private AccountDirectory accountDirectory;
+
     public List<UserResponseDTO> findAllUsers() {
         List<UserResponseDTO> clients = clientRepository.findAll()
                 .stream()
@@ -87,6 +90,8 @@ public class UserService {
             }
 
             Client updated = clientRepository.save(client);
+            // Mantém o diretório de contas em dia; troca de email/senha invalida os tokens emitidos
+            accountDirectory.save("CLIENT", id, updated.getEmail(), updated.getPassword());
             // Recarregar para garantir que o phone atualizado seja retornado
             if (dto.getPhone() != null) {
                 updated = clientRepository.findById(id)
@@ -115,6 +120,7 @@ public class UserService {
             }
 
             Barber updated = barberRepository.save(barber);
+            accountDirectory.save("BARBER", id, updated.getEmail(), updated.getPassword());
             return mapBarberToUserResponseDTO(updated);
 
         } else {
@@ -122,12 +128,14 @@ public class UserService {
         }
     }
 
+    @Transactional
     public void deleteUser(Long id, String userType) {
         if ("CLIENT".equalsIgnoreCase(userType)) {
             if (!clientRepository.existsById(id)) {
                 throw new RuntimeException("Cliente não encontrado com ID: " + id);
             }
             clientRepository.deleteById(id);
+            accountDirectory.delete("CLIENT", id);
 
         } else if ("BARBER".equalsIgnoreCase(userType)) {
             if (!barberRepository.existsById(id)) {
@@ -140,6 +148,7 @@ public class UserService {
             }
 
             barberRepository.deleteById(id);
+            accountDirectory.delete("BARBER", id);
 
         } else {
             throw new RuntimeException("Tipo de usuário inválido: " + userType);
@@ -0,0 +1,16 @@
+package br.com.barbershop.api.service;
+
+import java.time.Instant;
+
+/**
+ * Claims de um JWT cuja assinatura e validade já foram verificadas (JwtService.verify).
+ * userId e tokenVersion são nulos em tokens emitidos antes do modo stateless.
+ */
+public record VerifiedToken(
+        String subject,
+        String userType,
+        Long userId,
+        Integer tokenVersion,
+        Instant expiresAt
+) {
+}
@@ -54,3 +54,106 @@ INSERT INTO barbershops (name, address, cep, phone, hours, rating, reviews, lati
      -16.67450,   -- latitude
      -49.25400)   -- longitude
     ON CONFLICT (name) DO NOTHING;
+
+-- Impede, no próprio banco, dois agendamentos ativos sobrepostos para o mesmo barbeiro (PostgreSQL).
+-- time_range é [start_time, end_time) e a constraint só vale para PENDING/CONFIRMED,
+-- então agendamentos cancelados ou concluídos liberam o horário.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE appointments
+    ADD COLUMN IF NOT EXISTS time_range TSRANGE
+        GENERATED ALWAYS AS (tsrange(start_time, end_time, '[)')) STORED;
+
+-- Criada só uma vez (o script roda a cada inicialização): sem recriar o índice GiST nem deixar a
+-- tabela sem proteção enquanto outro nó reinicia. Se já houver sobreposições a criação falha e a
+-- aplicação não sobe: o book() e a tradução do conflito para 409 dependem da constraint, então ela
+-- nunca pode faltar em silêncio. O corpo do DO fica entre aspas simples (e não $$)
+-- porque o separador de comandos do spring.sql.init não reconhece dollar quoting.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''appointments_no_overlap'') THEN
+        ALTER TABLE appointments
+            ADD CONSTRAINT appointments_no_overlap
+                EXCLUDE USING gist (barber_id WITH =, time_range WITH &&)
+                WHERE (status IN (''PENDING'', ''CONFIRMED''));
+    END IF;
+EXCEPTION
+    WHEN exclusion_violation THEN
+        RAISE EXCEPTION ''appointments_no_overlap não pôde ser criada: existem agendamentos ativos sobrepostos''
+            USING HINT = ''Cancele os agendamentos PENDING/CONFIRMED sobrepostos do mesmo barbeiro e reinicie a aplicação'';
+END
+';
+
+-- Substituído por idx_appointments_barbershop_start_id (barbershop_id, start_time, id)
+DROP INDEX IF EXISTS idx_appointments_barbershop_start;
+
+-- Índices parciais usados pela manutenção automática (AppointmentMaintenanceJob)
+CREATE INDEX IF NOT EXISTS idx_appointments_pending_created
+    ON appointments (created_at) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_appointments_confirmed_end
+    ON appointments (end_time) WHERE status = 'CONFIRMED';
+
+-- Busca de serviço por nome sem diferenciar maiúsculas (procura do horário mais cedo)
+CREATE INDEX IF NOT EXISTS idx_services_lower_name ON services (LOWER(name));
+
+-- Preenchimento único dos agregados de preço das barbearias (Barbershop.serviceCount, priceSum,
+-- minPrice, maxPrice, avgPrice); depois disso, cada serviço adicionado atualiza os agregados
+UPDATE barbershops b
+SET service_count = agg.service_count,
+    price_sum     = agg.price_sum,
+    min_price     = agg.min_price,
+    max_price     = agg.max_price,
+    avg_price     = ROUND(agg.price_sum / agg.service_count, 2)
+FROM (SELECT barbershop_id,
+             COUNT(*)   AS service_count,
+             SUM(price) AS price_sum,
+             MIN(price) AS min_price,
+             MAX(price) AS max_price
+      FROM services
+      GROUP BY barbershop_id) agg
+WHERE b.id = agg.barbershop_id
+  AND b.service_count IS NULL;
+
+UPDATE barbershops SET service_count = 0, price_sum = 0 WHERE service_count IS NULL;
+
+-- Soma das notas das barbearias semeadas só com rating/reviews (usada pela atualização O(1) da nota)
+UPDATE barbershops SET rating_sum = ROUND(COALESCE(rating, 0) * COALESCE(reviews, 0)) WHERE rating_sum IS NULL;
+
+-- Diretório de contas (Account): preenchimento único a partir dos clientes e barbeiros existentes.
+-- O email é único em accounts: um usuário cujo email (normalizado) já pertence a outra conta fica de
+-- fora aqui e é apontado pela verificação abaixo
+INSERT INTO accounts (email, user_type, user_id, password, token_version)
+SELECT LOWER(TRIM(c.email)), 'CLIENT', c.id, c.password, 0
+FROM clients c
+WHERE NOT EXISTS (SELECT 1 FROM accounts a WHERE a.user_type = 'CLIENT' AND a.user_id = c.id)
+ON CONFLICT DO NOTHING;
+
+INSERT INTO accounts (email, user_type, user_id, password, token_version)
+SELECT LOWER(TRIM(b.email)), 'BARBER', b.id, b.password, 0
+FROM barbers b
+WHERE NOT EXISTS (SELECT 1 FROM accounts a WHERE a.user_type = 'BARBER' AND a.user_id = b.id)
+ON CONFLICT DO NOTHING;
+
+-- Nenhum cliente ou barbeiro pode ficar sem conta: o login e os tokens só consultam accounts, então
+-- quem ficasse de fora não conseguiria mais entrar. Se houver algum (email repetido entre clientes e
+-- barbeiros, ou entre dois usuários que só diferem em maiúsculas/espaços), a aplicação não sobe e
+-- a mensagem lista quem precisa de outro email.
+DO '
+DECLARE
+    missing TEXT;
+BEGIN
+    SELECT string_agg(m.kind || '' '' || m.id || '' <'' || COALESCE(m.email, '''') || ''>'', '', '' ORDER BY m.kind, m.id)
+    INTO missing
+    FROM (SELECT ''cliente'' AS kind, c.id, c.email
+          FROM clients c
+          WHERE NOT EXISTS (SELECT 1 FROM accounts a WHERE a.user_type = ''CLIENT'' AND a.user_id = c.id)
+          UNION ALL
+          SELECT ''barbeiro'', b.id, b.email
+          FROM barbers b
+          WHERE NOT EXISTS (SELECT 1 FROM accounts a WHERE a.user_type = ''BARBER'' AND a.user_id = b.id)) m;
+    IF missing IS NOT NULL THEN
+        RAISE EXCEPTION ''Usuários sem conta em accounts (email já usado por outra conta): %'', missing
+            USING HINT = ''Altere o email desses usuários em clients/barbers e reinicie a aplicação'';
+    END IF;
+END
+';
@@ -0,0 +1,120 @@
+package br.com.barbershop.api.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthRateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuthRateLimitFilter filter = new AuthRateLimitFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "ipCapacity", 3);
+        ReflectionTestUtils.setField(filter, "emailCapacity", 2);
+        filter.init();
+    }
+
+    @Test
+    void loginAttemptsAgainstTheSameEmailAreLimitedAcrossIps() throws Exception {
+        assertThat(login("10.0.0.1", "Joao@Email.com").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.2", "joao@email.com").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = login("10.0.0.3", "joao@email.com");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("60");
+        assertThat(login("10.0.0.3", "maria@email.com").getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("auth.ratelimit.requests").tags("limit", "email", "outcome", "rejected")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void validationEndpointsAreLimitedPerIpAndOtherPathsAreNot() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(perform(request("/api/validation/email", "10.0.0.1", "{}")).getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse rejected = perform(request("/api/validation/email", "10.0.0.1", "{}"));
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("3");
+        assertThat(perform(request("/api/barbershops", "10.0.0.1", "")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void controllerStillReceivesTheLoginBody() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        String body = "{\"email\":\"joao@email.com\",\"password\":\"senha123\"}";
+
+        filter.doFilter(request("/api/auth/login", "10.0.0.1", body), new MockHttpServletResponse(), chain);
+
+        assertThat(new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    void loginWithContentLengthAboveTheLimitIsRejectedWithoutReadingTheBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login") {
+            @Override
+            public long getContentLengthLong() {
+                return 64 * 1024;
+            }
+        };
+        request.setRemoteAddr("10.0.0.1");
+        request.setContent("{\"email\":\"joao@email.com\"}".getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void oversizedLoginWithoutContentLengthIsRejected() throws Exception {
+        String body = "{\"email\":\"joao@email.com\",\"password\":\"x\"" + " ".repeat(20 * 1024) + "}";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setRemoteAddr("10.0.0.1");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    private MockHttpServletResponse login(String ip, String email) throws Exception {
+        return perform(request("/api/auth/login", ip, "{\"email\":\"" + email + "\",\"password\":\"x\"}"));
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String ip, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.barbershop.api.config;
+
+import br.com.barbershop.api.service.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    void hashesOnThePoolAndDetectsLowerCostHashes() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 4, meterRegistry);
+
+        String hash = encoder.encode("senha123");
+
+        assertThat(encoder.matches("senha123", hash)).isTrue();
+        assertThat(encoder.matches("outra", hash)).isFalse();
+        assertThat(meterRegistry.get("auth.password.hashing").tag("operation", "matches").timer().count()).isEqualTo(2);
+        // Hash com custo 4 < 5 configurado: será refeito no próximo login
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("senha123"))).isTrue();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void rejectsImmediatelyWhenThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitUntilQueued(1);
+
+        assertThatThrownBy(() -> encoder.encode("c"))
+                .isInstanceOf(PasswordHashingBusyException.class)
+                .extracting("retryAfterSeconds").isEqualTo(1L);
+        assertThat(meterRegistry.get("auth.password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash-a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash-b");
+    }
+
+    private void waitUntilQueued(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("auth.password.hashing.queue").gauge().value() < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(meterRegistry.get("auth.password.hashing.queue").gauge().value()).isEqualTo(expected);
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash-" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+    }
+}
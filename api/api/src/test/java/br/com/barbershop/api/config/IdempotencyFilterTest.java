@@ -0,0 +1,180 @@
+package br.com.barbershop.api.config;
+
+import br.com.barbershop.api.model.IdempotencyRecord;
+import br.com.barbershop.api.repository.IdempotencyRecordRepository;
+import br.com.barbershop.api.service.IdempotencyStore;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Spy
+    @InjectMocks
+    private IdempotencyStore idempotencyStore;
+
+    private final IdempotencyFilter idempotencyFilter = new IdempotencyFilter();
+    private final AtomicInteger controllerCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotencyFilter, "idempotencyStore", idempotencyStore);
+        lenient().when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        lenient().when(idempotencyRecordRepository.reserve(anyString(), anyString(), any(), any())).thenReturn(1);
+        authenticateAs("joao@email.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void retryReturnsStoredResponseWithoutReachingTheController() throws Exception {
+        MockHttpServletResponse first = perform(createRequest("key-1", "{\"clientId\":1}"));
+        MockHttpServletResponse retry = perform(createRequest("key-1", "{\"clientId\":1}"));
+
+        assertThat(controllerCalls.get()).isEqualTo(1);
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentAsString()).isEqualTo("{\"id\":99,\"body\":{\"clientId\":1}}");
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() throws Exception {
+        perform(createRequest("key-1", "{\"clientId\":1}"));
+        MockHttpServletResponse reuse = perform(createRequest("key-1", "{\"clientId\":2}"));
+
+        assertThat(controllerCalls.get()).isEqualTo(1);
+        assertThat(reuse.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void keysAreScopedByUserAndEndpoint() throws Exception {
+        perform(createRequest("key-1", "{\"clientId\":1}"));
+
+        authenticateAs("maria@email.com");
+        perform(createRequest("key-1", "{\"clientId\":1}"));
+
+        MockHttpServletRequest confirm = new MockHttpServletRequest("PUT", "/api/appointments/10/confirm");
+        confirm.addHeader(IdempotencyFilter.HEADER, "key-1");
+        perform(confirm);
+        perform(confirm);
+
+        assertThat(controllerCalls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void requestsWithoutKeyOrOutsideTheCoveredEndpointsAreNotStored() throws Exception {
+        perform(createRequest(null, "{\"clientId\":1}"));
+        perform(createRequest(null, "{\"clientId\":1}"));
+
+        MockHttpServletRequest reschedule = new MockHttpServletRequest("PUT", "/api/appointments/10/reschedule");
+        reschedule.addHeader(IdempotencyFilter.HEADER, "key-1");
+        perform(reschedule);
+        perform(reschedule);
+
+        assertThat(controllerCalls.get()).isEqualTo(4);
+    }
+
+    @Test
+    void keyReservedByAnotherInstanceIsRejectedUntilItCompletes() throws Exception {
+        String requestHash = sha256("{\"clientId\":1}");
+        IdempotencyRecord pending = new IdempotencyRecord(
+                "id", requestHash, 0, null, null, LocalDateTime.now().plusMinutes(2));
+        when(idempotencyRecordRepository.reserve(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(idempotencyRecordRepository.findById(anyString()))
+                .thenReturn(Optional.empty(), Optional.empty(), Optional.of(pending));
+
+        MockHttpServletResponse inProgress = perform(createRequest("key-1", "{\"clientId\":1}"));
+
+        assertThat(inProgress.getStatus()).isEqualTo(409);
+        assertThat(controllerCalls.get()).isZero();
+
+        // A outra instância terminou: a repetição recebe a resposta que ela gravou
+        IdempotencyRecord completed = new IdempotencyRecord(
+                "id", requestHash, 201, "application/json", "{\"id\":42}", LocalDateTime.now().plusDays(1));
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.of(completed));
+
+        MockHttpServletResponse retry = perform(createRequest("key-1", "{\"clientId\":1}"));
+
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentAsString()).isEqualTo("{\"id\":42}");
+        assertThat(controllerCalls.get()).isZero();
+    }
+
+    @Test
+    void serverErrorReleasesTheReservation() throws Exception {
+        MockHttpServletRequest request = createRequest("key-1", "{\"clientId\":1}");
+        idempotencyFilter.doFilter(request, new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> ((HttpServletResponse) servletResponse).setStatus(503));
+
+        verify(idempotencyRecordRepository).deletePending(anyString());
+        verify(idempotencyRecordRepository, never()).save(any());
+    }
+
+    private static String sha256(String value) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private MockHttpServletRequest createRequest(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/appointments");
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    // Simula o controller: devolve 201 ecoando o corpo recebido
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        idempotencyFilter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            controllerCalls.incrementAndGet();
+            String body = new String(servletRequest.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            HttpServletResponse httpResponse = (HttpServletResponse) servletResponse;
+            httpResponse.setStatus(201);
+            httpResponse.setContentType("application/json");
+            httpResponse.getWriter().write("{\"id\":99,\"body\":" + (body.isEmpty() ? "null" : body) + "}");
+        });
+        return response;
+    }
+
+    private void authenticateAs(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, null, List.of(new SimpleGrantedAuthority("ROLE_CLIENT"))));
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.barbershop.api.config;
+
+import br.com.barbershop.api.service.JwtService;
+import br.com.barbershop.api.service.TokenVersionCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthFilterTest {
+
+    private static final String SECRET = "SuaChaveSecretaSuperLongaEComplexaParaAssinarTokensJWT";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
+    private final JwtService jwtService = new JwtService();
+    private final JwtAuthFilter jwtAuthFilter = new JwtAuthFilter();
+    private final UserDetails joao = new User("joao@email.com", "hash", List.of());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtAuthFilter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(jwtAuthFilter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(jwtAuthFilter, "tokenVersionCache", tokenVersionCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenWithCurrentVersionAuthenticatesFromClaimsWithoutLoadingTheAccount() throws Exception {
+        when(tokenVersionCache.isCurrent("CLIENT", 7L, 2)).thenReturn(true);
+
+        perform(jwtService.generateToken(joao, "CLIENT", 7L, 2));
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getPrincipal()).isEqualTo(new AuthenticatedUser(7L, "joao@email.com", "CLIENT"));
+        assertThat(authentication.getName()).isEqualTo("joao@email.com");
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_CLIENT");
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void tokenWithStaleVersionIsNotAuthenticated() throws Exception {
+        when(tokenVersionCache.isCurrent("CLIENT", 7L, 1)).thenReturn(false);
+
+        perform(jwtService.generateToken(joao, "CLIENT", 7L, 1));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void legacyTokenWithoutVersionFallsBackToTheDatabaseLookup() throws Exception {
+        when(userDetailsService.loadUserByUsername("joao@email.com")).thenReturn(joao);
+
+        perform(jwtService.generateToken(joao, "BARBER"));
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getPrincipal()).isSameAs(joao);
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_BARBER");
+    }
+
+    private void perform(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/appointments");
+        request.addHeader("Authorization", "Bearer " + token);
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
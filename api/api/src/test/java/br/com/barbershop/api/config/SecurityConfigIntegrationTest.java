@@ -1,6 +1,7 @@
 package br.com.barbershop.api.config;
 
 import br.com.barbershop.api.dto.AppointmentDTO;
+import br.com.barbershop.api.dto.AppointmentPageDTO;
 import br.com.barbershop.api.dto.BarbershopListDTO;
 import br.com.barbershop.api.dto.UserResponseDTO;
 import br.com.barbershop.api.model.AppointmentStatus;
@@ -81,7 +82,7 @@ class SecurityConfigIntegrationTest {
         appointment.setPrice(new BigDecimal("45.00"));
         appointment.setStatus(AppointmentStatus.CONFIRMED);
 
-        when(appointmentService.findByClientId(1L)).thenReturn(List.of(appointment));
+        when(appointmentService.findByClientId(1L, null, null)).thenReturn(new AppointmentPageDTO(List.of(appointment), null));
 
         mockMvc.perform(get("/api/appointments/client/1"))
                 .andExpect(status().isOk())
@@ -1,12 +1,23 @@
 package br.com.barbershop.api.controller;
 
+import br.com.barbershop.api.config.AuthRateLimitFilter;
+import br.com.barbershop.api.config.IdempotencyFilter;
 import br.com.barbershop.api.config.JwtAuthFilter;
 import br.com.barbershop.api.dto.AppointmentDTO;
+import br.com.barbershop.api.dto.AppointmentPageDTO;
+import br.com.barbershop.api.dto.AvailabilityDTO;
+import br.com.barbershop.api.dto.BarberAvailabilityDTO;
 import br.com.barbershop.api.dto.AvailableSlotsDTO;
+import br.com.barbershop.api.dto.BulkStatusItemDTO;
+import br.com.barbershop.api.dto.BulkStatusResultDTO;
+import br.com.barbershop.api.dto.BulkStatusUpdateDTO;
 import br.com.barbershop.api.dto.CreateAppointmentDTO;
 import br.com.barbershop.api.dto.RescheduleDTO;
+import br.com.barbershop.api.dto.SlotAlternativesDTO;
 import br.com.barbershop.api.model.AppointmentStatus;
+import br.com.barbershop.api.repository.AppointmentFilter;
 import br.com.barbershop.api.service.AppointmentService;
+import br.com.barbershop.api.service.SlotUnavailableException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,24 +28,30 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(
         controllers = AppointmentController.class,
         excludeFilters = {
-                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = JwtAuthFilter.class)
+                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {JwtAuthFilter.class, IdempotencyFilter.class, AuthRateLimitFilter.class})
         }
 )
 @AutoConfigureMockMvc(addFilters = false)
@@ -90,9 +107,58 @@ class AppointmentControllerMockMvcTest {
                 .andExpect(jsonPath("$.message").value("Horário indisponível"));
     }
 
+    @Test
+    void createAppointmentReturns409WhenSlotIsTaken() throws Exception {
+        CreateAppointmentDTO request = new CreateAppointmentDTO();
+        request.setClientId(1L);
+        request.setBarbershopId(2L);
+        request.setBarberId(3L);
+        request.setServiceId(4L);
+        request.setDate(LocalDate.of(2026, 4, 10));
+        request.setTime(LocalTime.of(14, 30));
+
+        when(appointmentService.create(any(CreateAppointmentDTO.class))).thenThrow(new SlotUnavailableException());
+
+        mockMvc.perform(post("/api/appointments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Horario indisponivel para o barbeiro selecionado"));
+    }
+
+    @Test
+    void createAppointmentConflictIncludesAlternatives() throws Exception {
+        CreateAppointmentDTO request = new CreateAppointmentDTO();
+        request.setClientId(1L);
+        request.setBarbershopId(2L);
+        request.setBarberId(3L);
+        request.setServiceId(4L);
+        request.setDate(LocalDate.of(2026, 4, 10));
+        request.setTime(LocalTime.of(14, 30));
+
+        SlotAlternativesDTO alternatives = new SlotAlternativesDTO(
+                LocalDate.of(2026, 4, 10),
+                30,
+                List.of("14:00", "15:00"),
+                List.of(new BarberAvailabilityDTO(5L, "Pedro", List.of("14:30")))
+        );
+        when(appointmentService.create(any(CreateAppointmentDTO.class)))
+                .thenThrow(new SlotUnavailableException(alternatives));
+
+        mockMvc.perform(post("/api/appointments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Horario indisponivel para o barbeiro selecionado"))
+                .andExpect(jsonPath("$.alternatives.sameBarber[0]").value("14:00"))
+                .andExpect(jsonPath("$.alternatives.otherBarbers[0].barberName").value("Pedro"))
+                .andExpect(jsonPath("$.alternatives.otherBarbers[0].availableSlots[0]").value("14:30"));
+    }
+
     @Test
     void getClientAppointmentsReturns200AndWrappedList() throws Exception {
-        when(appointmentService.findByClientId(1L)).thenReturn(List.of(buildAppointmentDTO(AppointmentStatus.CONFIRMED)));
+        when(appointmentService.findByClientId(1L, null, null))
+                .thenReturn(new AppointmentPageDTO(List.of(buildAppointmentDTO(AppointmentStatus.CONFIRMED)), null));
 
         mockMvc.perform(get("/api/appointments/client/1"))
                 .andExpect(status().isOk())
@@ -103,13 +169,77 @@ class AppointmentControllerMockMvcTest {
 
     @Test
     void getBarbershopAppointmentsReturns200AndWrappedList() throws Exception {
-        when(appointmentService.findByBarbershopId(2L)).thenReturn(List.of(buildAppointmentDTO(AppointmentStatus.PENDING)));
+        when(appointmentService.findByBarbershopId(2L, "abc", 20))
+                .thenReturn(new AppointmentPageDTO(List.of(buildAppointmentDTO(AppointmentStatus.PENDING)), "next"));
 
-        mockMvc.perform(get("/api/appointments/barbershop/2"))
+        mockMvc.perform(get("/api/appointments/barbershop/2")
+                        .param("cursor", "abc")
+                        .param("limit", "20"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.appointments.length()").value(1))
                 .andExpect(jsonPath("$.appointments[0].barbershopId").value(2))
-                .andExpect(jsonPath("$.appointments[0].status").value("PENDING"));
+                .andExpect(jsonPath("$.appointments[0].status").value("PENDING"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void updateStatusesReturns200WithPerItemResults() throws Exception {
+        BulkStatusUpdateDTO request = new BulkStatusUpdateDTO();
+        request.setStatus(AppointmentStatus.COMPLETED);
+        request.setIds(List.of(30L, 31L));
+
+        when(appointmentService.updateStatuses(any(BulkStatusUpdateDTO.class), any())).thenReturn(new BulkStatusResultDTO(1, 1, List.of(
+                new BulkStatusItemDTO(30L, true, AppointmentStatus.CONFIRMED, AppointmentStatus.COMPLETED, null),
+                new BulkStatusItemDTO(31L, false, AppointmentStatus.PENDING, AppointmentStatus.PENDING,
+                        "Transição não permitida: PENDING -> COMPLETED")
+        )));
+
+        mockMvc.perform(put("/api/appointments/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$.results[1].updated").value(false));
+    }
+
+    @Test
+    void searchAppointmentsBuildsFilterFromQueryParams() throws Exception {
+        when(appointmentService.search(
+                new AppointmentFilter(
+                        2L,
+                        null,
+                        3L,
+                        List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED),
+                        LocalDate.of(2026, 4, 1).atStartOfDay(),
+                        LocalDate.of(2026, 5, 1).atStartOfDay()
+                ),
+                null,
+                10
+        )).thenReturn(new AppointmentPageDTO(List.of(buildAppointmentDTO(AppointmentStatus.CONFIRMED)), null));
+
+        mockMvc.perform(get("/api/appointments/search")
+                        .param("barbershopId", "2")
+                        .param("barberId", "3")
+                        .param("status", "PENDING", "CONFIRMED")
+                        .param("from", "2026-04-01")
+                        .param("to", "2026-04-30")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.appointments.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void searchAppointmentsReturns400ForInvalidCursor() throws Exception {
+        when(appointmentService.search(any(AppointmentFilter.class), eq("???"), isNull()))
+                .thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        mockMvc.perform(get("/api/appointments/search")
+                        .param("clientId", "1")
+                        .param("cursor", "???"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido"));
     }
 
     @Test
@@ -147,18 +277,18 @@ class AppointmentControllerMockMvcTest {
     }
 
     @Test
-    void rescheduleAppointmentReturns400WhenRequestedSlotConflicts() throws Exception {
+    void rescheduleAppointmentReturns409WhenRequestedSlotConflicts() throws Exception {
         RescheduleDTO request = new RescheduleDTO();
         request.setDate(LocalDate.of(2026, 4, 12));
         request.setTime(LocalTime.of(16, 0));
 
         when(appointmentService.reschedule(any(Long.class), any(RescheduleDTO.class)))
-                .thenThrow(new IllegalStateException("Horario indisponivel para o barbeiro selecionado"));
+                .thenThrow(new SlotUnavailableException());
 
         mockMvc.perform(put("/api/appointments/99/reschedule")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isBadRequest())
+                .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.message").value("Horario indisponivel para o barbeiro selecionado"));
     }
 
@@ -214,6 +344,86 @@ class AppointmentControllerMockMvcTest {
                 .andExpect(jsonPath("$.availableSlots[2]").value("10:30"));
     }
 
+    @Test
+    void getAvailabilityReturns200WithSlotsPerBarber() throws Exception {
+        AvailabilityDTO availability = new AvailabilityDTO(
+                2L,
+                4L,
+                60,
+                LocalDate.of(2026, 4, 15),
+                List.of(
+                        new BarberAvailabilityDTO(3L, "Carlos", List.of("08:00", "09:00")),
+                        new BarberAvailabilityDTO(5L, "Pedro", List.of("10:30"))
+                )
+        );
+
+        when(appointmentService.findAvailability(2L, null, 4L, LocalDate.of(2026, 4, 15))).thenReturn(availability);
+
+        mockMvc.perform(get("/api/appointments/availability")
+                        .param("barbershopId", "2")
+                        .param("serviceId", "4")
+                        .param("date", "2026-04-15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duration").value(60))
+                .andExpect(jsonPath("$.barbers.length()").value(2))
+                .andExpect(jsonPath("$.barbers[0].barberName").value("Carlos"))
+                .andExpect(jsonPath("$.barbers[0].availableSlots[1]").value("09:00"))
+                .andExpect(jsonPath("$.barbers[1].availableSlots[0]").value("10:30"));
+    }
+
+    @Test
+    void getAvailabilityReturns404WhenBarbershopDoesNotExist() throws Exception {
+        when(appointmentService.findAvailability(999L, null, null, LocalDate.of(2026, 4, 15)))
+                .thenThrow(new RuntimeException("Barbearia não encontrada com o ID: 999"));
+
+        mockMvc.perform(get("/api/appointments/availability")
+                        .param("barbershopId", "999")
+                        .param("date", "2026-04-15"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Barbearia não encontrada com o ID: 999"));
+    }
+
+    @Test
+    void getAvailabilityRangeStreamsOneEntryPerDay() throws Exception {
+        AvailabilityDTO first = new AvailabilityDTO(2L, null, 30, LocalDate.of(2026, 4, 15),
+                List.of(new BarberAvailabilityDTO(3L, "Carlos", List.of("08:00"))));
+        AvailabilityDTO second = new AvailabilityDTO(2L, null, 30, LocalDate.of(2026, 4, 16),
+                List.of(new BarberAvailabilityDTO(3L, "Carlos", List.of("09:30", "10:00"))));
+
+        when(appointmentService.findAvailabilityRange(2L, null, null, LocalDate.of(2026, 4, 15), LocalDate.of(2026, 4, 16)))
+                .thenReturn(Stream.of(first, second));
+
+        MvcResult result = mockMvc.perform(get("/api/appointments/availability/range")
+                        .param("barbershopId", "2")
+                        .param("from", "2026-04-15")
+                        .param("to", "2026-04-16"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days.length()").value(2))
+                .andExpect(jsonPath("$.days[0].date[2]").value(15))
+                .andExpect(jsonPath("$.days[1].barbers[0].availableSlots[1]").value("10:00"));
+    }
+
+    @Test
+    void getAvailabilityRangeReturns400WhenRangeIsInvalid() throws Exception {
+        when(appointmentService.findAvailabilityRange(2L, null, null, LocalDate.of(2026, 4, 16), LocalDate.of(2026, 4, 15)))
+                .thenThrow(new IllegalArgumentException("A data final deve ser igual ou posterior à data inicial"));
+
+        MvcResult result = mockMvc.perform(get("/api/appointments/availability/range")
+                        .param("barbershopId", "2")
+                        .param("from", "2026-04-16")
+                        .param("to", "2026-04-15"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("A data final deve ser igual ou posterior à data inicial"));
+    }
+
     private AppointmentDTO buildAppointmentDTO(AppointmentStatus status) {
         AppointmentDTO dto = new AppointmentDTO();
         dto.setId(99L);
@@ -1,17 +1,24 @@
 package br.com.barbershop.api.controller;
 
+import br.com.barbershop.api.config.AuthRateLimitFilter;
+import br.com.barbershop.api.config.IdempotencyFilter;
 import br.com.barbershop.api.config.JwtAuthFilter;
 import br.com.barbershop.api.dto.AuthResponseDTO;
 import br.com.barbershop.api.dto.BarberRegistrationDTO;
 import br.com.barbershop.api.dto.BarberResponseDTO;
 import br.com.barbershop.api.dto.BarbershopListDTO;
+import br.com.barbershop.api.dto.BarbershopPageDTO;
+import br.com.barbershop.api.dto.BarbershopSearchPageDTO;
 import br.com.barbershop.api.dto.ClientRegistrationDTO;
 import br.com.barbershop.api.dto.ClientResponseDTO;
 import br.com.barbershop.api.dto.LoginRequest;
 import br.com.barbershop.api.service.AuthService;
 import br.com.barbershop.api.service.BarberService;
+import br.com.barbershop.api.service.BarbershopCatalogCache;
+import br.com.barbershop.api.service.BarbershopListingFilter;
 import br.com.barbershop.api.service.BarbershopService;
 import br.com.barbershop.api.service.ClientService;
+import br.com.barbershop.api.service.PasswordHashingBusyException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,14 +30,18 @@ import org.springframework.context.annotation.FilterType;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -42,7 +53,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
                 BarbershopController.class
         },
         excludeFilters = {
-                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = JwtAuthFilter.class)
+                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {JwtAuthFilter.class, IdempotencyFilter.class, AuthRateLimitFilter.class})
         }
 )
 @AutoConfigureMockMvc(addFilters = false)
@@ -111,6 +122,21 @@ class PublicEndpointsMockMvcTest {
                 .andExpect(jsonPath("$.message").value("Credenciais inválidas"));
     }
 
+    @Test
+    void loginReturns503WithRetryAfterWhenPasswordHashingIsSaturated() throws Exception {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("joao@email.com");
+        request.setPassword("senha123");
+
+        when(authService.login(any(LoginRequest.class))).thenThrow(new PasswordHashingBusyException(1));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     void registerClientReturns201WhenPayloadIsValid() throws Exception {
         ClientRegistrationDTO request = new ClientRegistrationDTO();
@@ -234,7 +260,7 @@ class PublicEndpointsMockMvcTest {
         second.setLatitude(-16.7040);
         second.setLongitude(-49.2620);
 
-        when(barbershopService.findAll()).thenReturn(List.of(first, second));
+        when(barbershopService.catalog()).thenReturn(BarbershopCatalogCache.Snapshot.of(1, List.of(first, second)));
 
         mockMvc.perform(get("/api/barbershops"))
                 .andExpect(status().isOk())
@@ -244,4 +270,101 @@ class PublicEndpointsMockMvcTest {
                 .andExpect(jsonPath("$.barbershops[1].id").value(2))
                 .andExpect(jsonPath("$.barbershops[1].name").value("Goiânia Barber Club"));
     }
+
+    @Test
+    void getAllBarbershopsHonorsIfNoneMatchAndGzip() throws Exception {
+        BarbershopListDTO only = new BarbershopListDTO();
+        only.setId(1L);
+        only.setName("Navalha de Ouro");
+        BarbershopCatalogCache.Snapshot catalog = BarbershopCatalogCache.Snapshot.of(3, List.of(only));
+        when(barbershopService.catalog()).thenReturn(catalog);
+
+        mockMvc.perform(get("/api/barbershops").header("If-None-Match", catalog.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", catalog.etag()));
+
+        byte[] body = mockMvc.perform(get("/api/barbershops").header("Accept-Encoding", "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", catalog.gzipEtag()))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(in.readAllBytes()).isEqualTo(catalog.json());
+        }
+    }
+
+    @Test
+    void getNearbyBarbershopsReturnsClosestFirstWithDistance() throws Exception {
+        BarbershopListDTO nearest = new BarbershopListDTO();
+        nearest.setId(2L);
+        nearest.setName("Goiânia Barber Club");
+        nearest.setDistanceKm(0.12);
+
+        when(barbershopService.findNearby(-16.7042, -49.2719, 3.0, 4.5, new BigDecimal("70"), null))
+                .thenReturn(List.of(nearest));
+
+        mockMvc.perform(get("/api/barbershops/nearby")
+                        .param("lat", "-16.7042")
+                        .param("lng", "-49.2719")
+                        .param("radiusKm", "3")
+                        .param("minRating", "4.5")
+                        .param("maxPrice", "70"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.barbershops.length()").value(1))
+                .andExpect(jsonPath("$.barbershops[0].id").value(2))
+                .andExpect(jsonPath("$.barbershops[0].distanceKm").value(0.12));
+    }
+
+    @Test
+    void getNearbyBarbershopsReturns400WhenCoordinatesAreMissing() throws Exception {
+        when(barbershopService.findNearby(null, null, null, null, null, null))
+                .thenThrow(new IllegalArgumentException("Informe lat e lng válidos"));
+
+        mockMvc.perform(get("/api/barbershops/nearby"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Informe lat e lng válidos"));
+    }
+
+    @Test
+    void searchBarbershopsReturnsPageWithCursor() throws Exception {
+        BarbershopListDTO match = new BarbershopListDTO();
+        match.setId(1L);
+        match.setName("Navalha de Ouro");
+
+        when(barbershopService.search("navalha", null, 1))
+                .thenReturn(new BarbershopSearchPageDTO(List.of(match), 3, "MS4wfDE"));
+
+        mockMvc.perform(get("/api/barbershops/search")
+                        .param("q", "navalha")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.barbershops[0].name").value("Navalha de Ouro"))
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.nextCursor").value("MS4wfDE"));
+    }
+
+    @Test
+    void listBarbershopsWithFiltersReturnsPage() throws Exception {
+        BarbershopListDTO cheapest = new BarbershopListDTO();
+        cheapest.setId(4L);
+        cheapest.setName("Barbearia do Zé");
+        cheapest.setDistanceKm(1.3);
+
+        BarbershopListingFilter filter = new BarbershopListingFilter(
+                null, new BigDecimal("60"), 4.0, "barba", false, "price", -16.7, -49.27);
+        when(barbershopService.list(filter, null, 10)).thenReturn(new BarbershopPageDTO(List.of(cheapest), "cHJpY2V8MzAuMHw0"));
+
+        mockMvc.perform(get("/api/barbershops")
+                        .param("maxPrice", "60")
+                        .param("minRating", "4.0")
+                        .param("service", "barba")
+                        .param("sort", "price")
+                        .param("lat", "-16.7")
+                        .param("lng", "-49.27")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.barbershops[0].id").value(4))
+                .andExpect(jsonPath("$.barbershops[0].distanceKm").value(1.3))
+                .andExpect(jsonPath("$.nextCursor").value("cHJpY2V8MzAuMHw0"));
+    }
 }
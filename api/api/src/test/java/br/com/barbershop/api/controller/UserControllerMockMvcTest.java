@@ -1,5 +1,7 @@
 package br.com.barbershop.api.controller;
 
+import br.com.barbershop.api.config.AuthRateLimitFilter;
+import br.com.barbershop.api.config.IdempotencyFilter;
 import br.com.barbershop.api.config.JwtAuthFilter;
 import br.com.barbershop.api.dto.UserResponseDTO;
 import br.com.barbershop.api.dto.UserUpdateDTO;
@@ -35,7 +37,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(
         controllers = UserController.class,
         excludeFilters = {
-                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = JwtAuthFilter.class)
+                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {JwtAuthFilter.class, IdempotencyFilter.class, AuthRateLimitFilter.class})
         }
 )
 @AutoConfigureMockMvc(addFilters = false)
@@ -0,0 +1,174 @@
+package br.com.barbershop.api.repository;
+
+import br.com.barbershop.api.model.Appointment;
+import br.com.barbershop.api.model.AppointmentStatus;
+import br.com.barbershop.api.model.Barber;
+import br.com.barbershop.api.model.Barbershop;
+import br.com.barbershop.api.model.Client;
+import br.com.barbershop.api.model.Service;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Roda em H2: data.sql (específico do PostgreSQL) fica desligado
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class AppointmentRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void barbershopListingUsesOneStatementRegardlessOfSize() {
+        Barbershop small = persistBarbershopWithAppointments("Barber Hub", 1);
+        Barbershop large = persistBarbershopWithAppointments("Navalha de Ouro", 25);
+
+        assertThat(statementsToList(() -> searchByBarbershop(small.getId(), null, null, 100))).isEqualTo(1);
+        assertThat(statementsToList(() -> searchByBarbershop(large.getId(), null, null, 100))).isEqualTo(1);
+    }
+
+    @Test
+    void clientListingUsesOneStatementAndFillsEveryField() {
+        Barbershop shop = persistBarbershopWithAppointments("Barber Hub", 10);
+        Long clientId = searchByBarbershop(shop.getId(), null, null, 1).get(0).getClientId();
+        AppointmentFilter byClient = new AppointmentFilter(null, clientId, null, null, null, null);
+
+        assertThat(statementsToList(() -> appointmentRepository.search(byClient, null, null, 100))).isEqualTo(1);
+
+        List<AppointmentView> views = appointmentRepository.search(byClient, null, null, 100);
+        assertThat(views).hasSize(10);
+        assertThat(views).extracting(AppointmentView::getStartTime).isSorted();
+
+        AppointmentView first = views.get(0);
+        assertThat(first.getClientName()).isEqualTo("Joao");
+        assertThat(first.getBarbershopName()).isEqualTo("Barber Hub");
+        assertThat(first.getBarbershopAddress()).isEqualTo("Rua A");
+        assertThat(first.getBarberName()).isEqualTo("Carlos");
+        assertThat(first.getServiceName()).isEqualTo("Corte");
+        assertThat(first.getDuration()).isEqualTo(30);
+        assertThat(first.getPrice()).isEqualByComparingTo("45.00");
+        assertThat(first.getStatus()).isEqualTo(AppointmentStatus.PENDING);
+    }
+
+    @Test
+    void searchContinuesAfterTheKeysetPositionAndAppliesFilters() {
+        Barbershop shop = persistBarbershopWithAppointments("Barber Hub", 6);
+
+        List<AppointmentView> firstPage = searchByBarbershop(shop.getId(), null, null, 4);
+        AppointmentView last = firstPage.get(3);
+        List<AppointmentView> secondPage = searchByBarbershop(shop.getId(), last.getStartTime(), last.getId(), 4);
+
+        assertThat(firstPage).hasSize(4);
+        assertThat(secondPage).hasSize(2);
+        assertThat(secondPage.get(0).getStartTime()).isAfter(last.getStartTime());
+
+        AppointmentFilter window = new AppointmentFilter(
+                shop.getId(),
+                null,
+                null,
+                List.of(AppointmentStatus.PENDING),
+                LocalDateTime.of(2026, 4, 11, 0, 0),
+                LocalDateTime.of(2026, 4, 13, 0, 0)
+        );
+        assertThat(appointmentRepository.search(window, null, null, 10))
+                .extracting(view -> view.getStartTime().toLocalDate())
+                .containsExactly(LocalDate.of(2026, 4, 11), LocalDate.of(2026, 4, 12));
+
+        AppointmentFilter cancelledOnly = new AppointmentFilter(
+                shop.getId(), null, null, List.of(AppointmentStatus.CANCELLED), null, null);
+        assertThat(appointmentRepository.search(cancelledOnly, null, null, 10)).isEmpty();
+    }
+
+    private List<AppointmentView> searchByBarbershop(Long barbershopId, LocalDateTime afterStartTime, Long afterId, int limit) {
+        AppointmentFilter filter = new AppointmentFilter(barbershopId, null, null, null, null, null);
+        return appointmentRepository.search(filter, afterStartTime, afterId, limit);
+    }
+
+    // Executa a listagem com o contexto de persistência vazio e lê todos os campos de cada linha
+    private long statementsToList(Supplier<List<AppointmentView>> listing) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        for (AppointmentView view : listing.get()) {
+            assertThat(view.getClientName()).isNotNull();
+            assertThat(view.getBarbershopName()).isNotNull();
+            assertThat(view.getBarberName()).isNotNull();
+            assertThat(view.getServiceName()).isNotNull();
+        }
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Barbershop persistBarbershopWithAppointments(String name, int appointments) {
+        Barbershop shop = new Barbershop();
+        shop.setName(name);
+        shop.setAddress("Rua A");
+        shop.setCep("00000-000");
+        shop.setPhone("11999999999");
+        entityManager.persist(shop);
+
+        Client client = new Client();
+        client.setName("Joao");
+        client.setEmail(name.replace(' ', '.') + "@email.com");
+        client.setPassword("senha");
+        entityManager.persist(client);
+
+        Barber barber = new Barber();
+        barber.setName("Carlos");
+        barber.setCpf(String.valueOf(Math.abs(name.hashCode())));
+        barber.setBirthDate(LocalDate.of(1990, 5, 15));
+        barber.setEmail("carlos." + name.replace(' ', '.') + "@email.com");
+        barber.setPassword("senha");
+        barber.setBarbershop(shop);
+        entityManager.persist(barber);
+
+        Service service = new Service();
+        service.setName("Corte");
+        service.setDuration(30);
+        service.setPrice(new BigDecimal("45.00"));
+        service.setBarbershop(shop);
+        entityManager.persist(service);
+
+        LocalDateTime start = LocalDateTime.of(2026, 4, 10, 9, 0);
+        for (int i = 0; i < appointments; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setClient(client);
+            appointment.setBarber(barber);
+            appointment.setBarbershop(shop);
+            appointment.setService(service);
+            appointment.setStartTime(start.plusDays(i));
+            appointment.setEndTime(start.plusDays(i).plusMinutes(30));
+            appointment.setStatus(AppointmentStatus.PENDING);
+            appointment.setPrice(service.getPrice());
+            entityManager.persist(appointment);
+        }
+        return shop;
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.barbershop.api.repository;
+
+import br.com.barbershop.api.model.Barbershop;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Roda em H2: data.sql (específico do PostgreSQL) fica desligado
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class BarbershopRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BarbershopRepository barbershopRepository;
+
+    @Test
+    void addServicePriceMaintainsCountSumMinMaxAndAverage() {
+        Barbershop shop = new Barbershop();
+        shop.setName("Barber Hub");
+        shop.setAddress("Rua A");
+        shop.setCep("74000-000");
+        Long id = entityManager.persistAndFlush(shop).getId();
+
+        barbershopRepository.addServicePrice(id, new BigDecimal("40.00"));
+        barbershopRepository.addServicePrice(id, new BigDecimal("25.00"));
+        barbershopRepository.addServicePrice(id, new BigDecimal("60.00"));
+
+        Barbershop updated = barbershopRepository.findById(id).orElseThrow();
+        assertThat(updated.getServiceCount()).isEqualTo(3);
+        assertThat(updated.getPriceSum()).isEqualByComparingTo("125.00");
+        assertThat(updated.getMinPrice()).isEqualByComparingTo("25.00");
+        assertThat(updated.getMaxPrice()).isEqualByComparingTo("60.00");
+        assertThat(updated.getAvgPrice()).isEqualByComparingTo("41.67");
+    }
+
+    @Test
+    void addRatingUpdatesRunningAverageFromStoredSum() {
+        Barbershop shop = new Barbershop();
+        shop.setName("Navalha de Ouro");
+        shop.setAddress("Rua B");
+        shop.setCep("74000-001");
+        shop.setRating(4.5);
+        shop.setReviews(2);
+        shop.setRatingSum(9L);
+        Long id = entityManager.persistAndFlush(shop).getId();
+
+        barbershopRepository.addRating(id, 3);
+
+        Barbershop updated = barbershopRepository.findById(id).orElseThrow();
+        assertThat(updated.getReviews()).isEqualTo(3);
+        assertThat(updated.getRatingSum()).isEqualTo(12L);
+        assertThat(updated.getRating()).isEqualTo(4.0);
+    }
+}
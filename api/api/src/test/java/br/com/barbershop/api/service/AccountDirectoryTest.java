@@ -0,0 +1,72 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.model.Account;
+import br.com.barbershop.api.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountDirectoryTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
+    @InjectMocks
+    private AccountDirectory accountDirectory;
+
+    @Test
+    void lookupsUseTheNormalizedEmail() {
+        when(accountRepository.existsByEmail("joao@email.com")).thenReturn(true);
+
+        assertThat(accountDirectory.isEmailTaken("  Joao@Email.COM ")).isTrue();
+        assertThat(accountDirectory.isEmailTaken(" ")).isFalse();
+    }
+
+    @Test
+    void newAccountStartsAtVersionZeroAndCredentialChangeBumpsIt() {
+        when(accountRepository.findByUserTypeAndUserId("CLIENT", 1L)).thenReturn(Optional.empty());
+        when(accountRepository.saveAndFlush(any(Account.class))).thenAnswer(invocation -> {
+            Account saved = invocation.getArgument(0);
+            saved.setId(5L);
+            return saved;
+        });
+
+        Account created = accountDirectory.save("CLIENT", 1L, "Joao@Email.com", "hash-1");
+        assertThat(created.getEmail()).isEqualTo("joao@email.com");
+        assertThat(created.getTokenVersion()).isZero();
+        verify(tokenVersionCache, never()).invalidate("CLIENT", 1L);
+
+        // Só o nome mudou: a versão do token é mantida
+        when(accountRepository.findByUserTypeAndUserId("CLIENT", 1L)).thenReturn(Optional.of(created));
+        assertThat(accountDirectory.save("CLIENT", 1L, "joao@email.com", "hash-1").getTokenVersion()).isZero();
+
+        // Nova senha: tokens emitidos antes deixam de valer
+        assertThat(accountDirectory.save("CLIENT", 1L, "joao@email.com", "hash-2").getTokenVersion()).isEqualTo(1);
+        verify(tokenVersionCache).invalidate("CLIENT", 1L);
+    }
+
+    @Test
+    void emailOwnedByAnotherAccountIsRejected() {
+        when(accountRepository.findByUserTypeAndUserId("BARBER", 2L)).thenReturn(Optional.empty());
+        when(accountRepository.saveAndFlush(any(Account.class))).thenThrow(new DataIntegrityViolationException("uk_accounts_email"));
+
+        assertThatThrownBy(() -> accountDirectory.save("BARBER", 2L, "joao@email.com", "hash"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Email já cadastrado");
+    }
+}
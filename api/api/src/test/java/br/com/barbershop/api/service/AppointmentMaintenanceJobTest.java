@@ -0,0 +1,112 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.model.Appointment;
+import br.com.barbershop.api.model.AppointmentStatus;
+import br.com.barbershop.api.model.Barber;
+import br.com.barbershop.api.model.Barbershop;
+import br.com.barbershop.api.repository.AppointmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentMaintenanceJobTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 4, 10, 20, 0);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Spy
+    private ScheduleIndex scheduleIndex = new ScheduleIndex();
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private AppointmentMaintenanceJob maintenanceJob;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(maintenanceJob, "batchSize", 2);
+        ReflectionTestUtils.setField(maintenanceJob, "maxBatchesPerRun", 3);
+        ReflectionTestUtils.setField(maintenanceJob, "defaultPendingTtlMinutes", 1440);
+        ReflectionTestUtils.setField(maintenanceJob, "defaultAutoCompleteAfterMinutes", 60);
+    }
+
+    @Test
+    void expireStalePendingRunsBatchesUntilOneComesBackPartial() {
+        when(appointmentRepository.expireStalePending(NOW, 1440, 2))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+
+        int expired = maintenanceJob.expireStalePending(NOW);
+
+        assertThat(expired).isEqualTo(3);
+        verify(appointmentRepository, times(2)).expireStalePending(NOW, 1440, 2);
+        verify(scheduleIndex).unregister(3L);
+        assertThat(meterRegistry.counter("appointments.maintenance.rows", "action", "expired").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void pendingExpiredByThisNodeIsFreedOnOtherNodesAfterTheDayReloads() {
+        LocalDate date = LocalDate.now().plusDays(3);
+        Instant loadedAt = Instant.parse("2026-04-10T12:00:00Z");
+        ScheduleIndex otherNode = new ScheduleIndex();
+        ReflectionTestUtils.setField(otherNode, "clock", Clock.fixed(loadedAt, ZoneOffset.UTC));
+        otherNode.day(3L, date, () -> List.of(pending(1L, date)));
+        when(appointmentRepository.expireStalePending(NOW, 1440, 2)).thenReturn(List.of(1L));
+
+        maintenanceJob.expireStalePending(NOW);
+
+        verify(scheduleIndex).unregister(1L);
+        assertThat(otherNode.day(3L, date, List::of).hasConflict(2L, 600, 630, null)).isTrue();
+        ReflectionTestUtils.setField(otherNode, "clock", Clock.fixed(loadedAt.plusSeconds(60), ZoneOffset.UTC));
+        assertThat(otherNode.day(3L, date, List::of).hasConflict(2L, 600, 630, null)).isFalse();
+    }
+
+    @Test
+    void completePastConfirmedStopsAtTheBatchLimitPerRun() {
+        when(appointmentRepository.completePastConfirmed(NOW, 60, 2)).thenReturn(List.of(10L, 11L));
+
+        int completed = maintenanceJob.completePastConfirmed(NOW);
+
+        // O restante fica para a próxima execução
+        assertThat(completed).isEqualTo(6);
+        verify(appointmentRepository, times(3)).completePastConfirmed(NOW, 60, 2);
+        assertThat(meterRegistry.counter("appointments.maintenance.rows", "action", "completed").count()).isEqualTo(6.0);
+    }
+
+    private static Appointment pending(Long id, LocalDate date) {
+        Barbershop shop = new Barbershop();
+        shop.setId(3L);
+        Barber barber = new Barber();
+        barber.setId(2L);
+
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setBarbershop(shop);
+        appointment.setBarber(barber);
+        appointment.setStatus(AppointmentStatus.PENDING);
+        appointment.setStartTime(date.atTime(10, 0));
+        appointment.setEndTime(date.atTime(10, 30));
+        return appointment;
+    }
+}
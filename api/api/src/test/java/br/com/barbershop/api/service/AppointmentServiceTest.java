@@ -1,38 +1,58 @@
 package br.com.barbershop.api.service;
 
 import br.com.barbershop.api.dto.AppointmentDTO;
+import br.com.barbershop.api.dto.AppointmentPageDTO;
+import br.com.barbershop.api.dto.AvailabilityDTO;
 import br.com.barbershop.api.dto.AvailableSlotsDTO;
+import br.com.barbershop.api.dto.BulkStatusResultDTO;
+import br.com.barbershop.api.dto.BulkStatusUpdateDTO;
 import br.com.barbershop.api.dto.CreateAppointmentDTO;
+import br.com.barbershop.api.dto.EarliestSlotDTO;
+import br.com.barbershop.api.dto.HoldDTO;
+import br.com.barbershop.api.dto.HoldRequestDTO;
 import br.com.barbershop.api.dto.RescheduleDTO;
+import br.com.barbershop.api.dto.SlotAlternativesDTO;
 import br.com.barbershop.api.model.Appointment;
 import br.com.barbershop.api.model.AppointmentStatus;
 import br.com.barbershop.api.model.Barber;
 import br.com.barbershop.api.model.Barbershop;
 import br.com.barbershop.api.model.Client;
+import br.com.barbershop.api.repository.AppointmentFilter;
 import br.com.barbershop.api.repository.AppointmentRepository;
+import br.com.barbershop.api.repository.AppointmentView;
 import br.com.barbershop.api.repository.BarberRepository;
 import br.com.barbershop.api.repository.BarbershopRepository;
 import br.com.barbershop.api.repository.ClientRepository;
 import br.com.barbershop.api.repository.ServiceRepository;
+import br.com.barbershop.api.repository.StatusTransitionView;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.security.access.AccessDeniedException;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -49,12 +69,18 @@ class AppointmentServiceTest {
     private BarbershopRepository barbershopRepository;
     @Mock
     private ServiceRepository serviceRepository;
+    @Spy
+    private ScheduleIndex scheduleIndex = new ScheduleIndex();
+    @Spy
+    private OpeningHoursCache openingHoursCache = new OpeningHoursCache();
+    @Spy
+    private SlotHoldService slotHoldService = new SlotHoldService();
 
     @InjectMocks
     private AppointmentService appointmentService;
 
     @Test
-    void createBuildsPendingAppointmentWithCalculatedEndTime() {
+    void createBooksPendingAppointmentWithSingleStatement() {
         CreateAppointmentDTO dto = new CreateAppointmentDTO();
         dto.setClientId(1L);
         dto.setBarberId(2L);
@@ -63,53 +89,28 @@ class AppointmentServiceTest {
         dto.setDate(LocalDate.of(2026, 4, 10));
         dto.setTime(LocalTime.of(14, 30));
 
-        Client client = new Client();
-        client.setId(1L);
-        client.setName("Joao");
-
-        Barber barber = new Barber();
-        barber.setId(2L);
-        barber.setName("Carlos");
-
-        Barbershop shop = new Barbershop();
-        shop.setId(3L);
-        shop.setName("Barber Hub");
-        shop.setAddress("Rua A");
-        shop.setPhone("11999999999");
-
-        br.com.barbershop.api.model.Service service = new br.com.barbershop.api.model.Service();
-        service.setId(4L);
-        service.setName("Corte");
-        service.setDuration(30);
-        service.setPrice(new BigDecimal("45.00"));
-
-        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(barberRepository.findById(2L)).thenReturn(Optional.of(barber));
-        when(barbershopRepository.findById(3L)).thenReturn(Optional.of(shop));
-        when(serviceRepository.findById(4L)).thenReturn(Optional.of(service));
-        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> {
-            Appointment saved = invocation.getArgument(0);
-            saved.setId(99L);
-            return saved;
-        });
+        Appointment booked = buildAppointment();
+        booked.setId(99L);
+        when(appointmentRepository.book(1L, 2L, 3L, 4L, LocalDateTime.of(2026, 4, 10, 14, 30)))
+                .thenReturn(Optional.of(viewOf(booked)));
 
         AppointmentDTO response = appointmentService.create(dto);
 
-        ArgumentCaptor<Appointment> appointmentCaptor = ArgumentCaptor.forClass(Appointment.class);
-        verify(appointmentRepository).save(appointmentCaptor.capture());
-
-        Appointment savedAppointment = appointmentCaptor.getValue();
-        assertThat(savedAppointment.getStatus()).isEqualTo(AppointmentStatus.PENDING);
-        assertThat(savedAppointment.getStartTime()).isEqualTo(LocalDateTime.of(2026, 4, 10, 14, 30));
-        assertThat(savedAppointment.getEndTime()).isEqualTo(LocalDateTime.of(2026, 4, 10, 15, 0));
-        assertThat(savedAppointment.getPrice()).isEqualByComparingTo("45.00");
-
         assertThat(response.getId()).isEqualTo(99L);
         assertThat(response.getClientId()).isEqualTo(1L);
+        assertThat(response.getClientName()).isEqualTo("Joao");
         assertThat(response.getBarberId()).isEqualTo(2L);
         assertThat(response.getBarbershopId()).isEqualTo(3L);
         assertThat(response.getServiceId()).isEqualTo(4L);
+        assertThat(response.getService()).isEqualTo("Corte");
+        assertThat(response.getTime()).isEqualTo(LocalTime.of(14, 30));
+        assertThat(response.getPrice()).isEqualByComparingTo("45.00");
         assertThat(response.getStatus()).isEqualTo(AppointmentStatus.PENDING);
+
+        // Nenhuma consulta extra no caminho de sucesso
+        verify(clientRepository, never()).findById(any());
+        verify(serviceRepository, never()).existsById(any());
+        verify(appointmentRepository, never()).save(any(Appointment.class));
     }
 
     @Test
@@ -122,35 +123,183 @@ class AppointmentServiceTest {
         dto.setDate(LocalDate.of(2026, 4, 10));
         dto.setTime(LocalTime.of(14, 30));
 
-        Client client = new Client();
-        client.setId(1L);
+        when(appointmentRepository.book(1L, 2L, 3L, 4L, LocalDateTime.of(2026, 4, 10, 14, 30)))
+                .thenReturn(Optional.empty());
+        when(clientRepository.existsById(1L)).thenReturn(true);
+        when(barberRepository.existsById(2L)).thenReturn(true);
+        when(barbershopRepository.existsById(3L)).thenReturn(true);
+        when(serviceRepository.existsById(4L)).thenReturn(true);
 
-        Barber barber = new Barber();
-        barber.setId(2L);
+        assertThatThrownBy(() -> appointmentService.create(dto))
+                .isInstanceOf(SlotUnavailableException.class)
+                .hasMessage("Horario indisponivel para o barbeiro selecionado");
+    }
 
-        Barbershop shop = new Barbershop();
-        shop.setId(3L);
+    @Test
+    void createReportsWhichReferenceIsMissingWhenNothingIsBooked() {
+        CreateAppointmentDTO dto = new CreateAppointmentDTO();
+        dto.setClientId(1L);
+        dto.setBarberId(2L);
+        dto.setBarbershopId(3L);
+        dto.setServiceId(4L);
+        dto.setDate(LocalDate.of(2026, 4, 10));
+        dto.setTime(LocalTime.of(14, 30));
 
-        br.com.barbershop.api.model.Service service = new br.com.barbershop.api.model.Service();
-        service.setId(4L);
-        service.setDuration(30);
+        when(appointmentRepository.book(1L, 2L, 3L, 4L, LocalDateTime.of(2026, 4, 10, 14, 30)))
+                .thenReturn(Optional.empty());
+        when(clientRepository.existsById(1L)).thenReturn(true);
+        when(barberRepository.existsById(2L)).thenReturn(false);
 
-        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(barberRepository.findById(2L)).thenReturn(Optional.of(barber));
-        when(barbershopRepository.findById(3L)).thenReturn(Optional.of(shop));
-        when(serviceRepository.findById(4L)).thenReturn(Optional.of(service));
-        when(appointmentRepository.existsByBarberIdAndStatusInAndStartTimeLessThanAndEndTimeGreaterThan(
-                eq(2L),
-                eq(List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED)),
-                eq(LocalDateTime.of(2026, 4, 10, 15, 0)),
-                eq(LocalDateTime.of(2026, 4, 10, 14, 30))
-        )).thenReturn(true);
+        assertThatThrownBy(() -> appointmentService.create(dto))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Barbeiro não encontrado");
+    }
+
+    @Test
+    void createTranslatesOverlapConstraintViolationIntoSlotUnavailable() {
+        CreateAppointmentDTO dto = new CreateAppointmentDTO();
+        dto.setClientId(1L);
+        dto.setBarberId(2L);
+        dto.setBarbershopId(3L);
+        dto.setServiceId(4L);
+        dto.setDate(LocalDate.of(2026, 4, 10));
+        dto.setTime(LocalTime.of(14, 30));
+
+        when(barbershopRepository.findById(3L)).thenReturn(Optional.of(buildAppointment().getBarbershop()));
+        when(appointmentRepository.book(1L, 2L, 3L, 4L, LocalDateTime.of(2026, 4, 10, 14, 30))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("ERROR: conflicting key value violates exclusion constraint \"appointments_no_overlap\"")
+        ));
+
+        appointmentService.findAvailableSlots(3L, LocalDate.of(2026, 4, 10));
 
         assertThatThrownBy(() -> appointmentService.create(dto))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessage("Horario indisponivel para o barbeiro selecionado");
+                .isInstanceOf(SlotUnavailableException.class);
 
-        verify(appointmentRepository, never()).save(any(Appointment.class));
+        // A agenda do dia, já em memória, é descartada e recarregada do banco na próxima consulta
+        appointmentService.findAvailableSlots(3L, LocalDate.of(2026, 4, 10));
+        verify(appointmentRepository, times(2)).findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                eq(3L),
+                any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                eq(List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED))
+        );
+    }
+
+    @Test
+    void searchReturnsCursorOnlyWhenThereIsAnotherPage() {
+        AppointmentFilter filter = new AppointmentFilter(3L, null, null, null, null, null);
+
+        Appointment first = buildAppointment();
+        first.setId(20L);
+        Appointment second = buildAppointment();
+        second.setId(21L);
+        second.setStartTime(LocalDateTime.of(2026, 4, 10, 15, 0));
+        Appointment third = buildAppointment();
+        third.setId(22L);
+        third.setStartTime(LocalDateTime.of(2026, 4, 10, 15, 30));
+
+        when(appointmentRepository.search(filter, null, null, 3))
+                .thenReturn(List.of(viewOf(first), viewOf(second), viewOf(third)));
+
+        AppointmentPageDTO page = appointmentService.search(filter, null, 2);
+
+        assertThat(page.getAppointments()).extracting(AppointmentDTO::getId).containsExactly(20L, 21L);
+        assertThat(page.getNextCursor()).isNotNull();
+
+        when(appointmentRepository.search(filter, LocalDateTime.of(2026, 4, 10, 15, 0), 21L, 3))
+                .thenReturn(List.of(viewOf(third)));
+
+        AppointmentPageDTO next = appointmentService.search(filter, page.getNextCursor(), 2);
+
+        assertThat(next.getAppointments()).extracting(AppointmentDTO::getId).containsExactly(22L);
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    void searchRejectsInvalidCursorAndUnboundedQueries() {
+        AppointmentFilter byShop = new AppointmentFilter(3L, null, null, null, null, null);
+
+        assertThatThrownBy(() -> appointmentService.search(byShop, "nao-e-um-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor inválido");
+        assertThatThrownBy(() -> appointmentService.search(byShop, null, 500))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> appointmentService.search(
+                new AppointmentFilter(null, null, null, List.of(AppointmentStatus.PENDING), null, null), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void updateStatusesReportsResultPerRequestedId() {
+        BulkStatusUpdateDTO dto = new BulkStatusUpdateDTO();
+        dto.setStatus(AppointmentStatus.COMPLETED);
+        dto.setIds(List.of(30L, 31L, 32L));
+
+        when(appointmentRepository.transitionStatus(List.of(30L, 31L, 32L), "COMPLETED", List.of("CONFIRMED")))
+                .thenReturn(List.of(
+                        transitionRow(30L, "CONFIRMED", true),
+                        transitionRow(31L, "PENDING", false),
+                        transitionRow(32L, null, false)
+                ));
+
+        BulkStatusResultDTO result = appointmentService.updateStatuses(dto, "carlos@email.com");
+
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getResults().get(0).getStatus()).isEqualTo(AppointmentStatus.COMPLETED);
+        assertThat(result.getResults().get(1).getStatus()).isEqualTo(AppointmentStatus.PENDING);
+        assertThat(result.getResults().get(1).getMessage()).isEqualTo("Transição não permitida: PENDING -> COMPLETED");
+        assertThat(result.getResults().get(2).getMessage()).isEqualTo("Agendamento não encontrado");
+        verify(scheduleIndex).unregister(30L);
+        verify(scheduleIndex, never()).unregister(31L);
+    }
+
+    @Test
+    void updateStatusesByFilterOnlyAcceptsAllowedSourceStatuses() {
+        BulkStatusUpdateDTO dto = new BulkStatusUpdateDTO();
+        dto.setStatus(AppointmentStatus.COMPLETED);
+        dto.setBarberId(2L);
+        dto.setBefore(LocalDateTime.of(2026, 4, 10, 18, 0));
+
+        when(barberRepository.findByEmail("carlos@email.com")).thenReturn(Optional.of(barber(2L, 3L)));
+        when(appointmentRepository.transitionStatusWhere(
+                null, 2L, List.of("CONFIRMED"), LocalDateTime.of(2026, 4, 10, 18, 0), "COMPLETED"))
+                .thenReturn(List.of(transitionRow(40L, "CONFIRMED", true), transitionRow(41L, "CONFIRMED", true)));
+
+        assertThat(appointmentService.updateStatuses(dto, "carlos@email.com").getUpdated()).isEqualTo(2);
+
+        dto.setFromStatus(List.of(AppointmentStatus.CANCELLED));
+        assertThatThrownBy(() -> appointmentService.updateStatuses(dto, "carlos@email.com"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Transição não permitida: CANCELLED -> COMPLETED");
+
+        dto.setStatus(AppointmentStatus.PENDING);
+        assertThatThrownBy(() -> appointmentService.updateStatuses(dto, "carlos@email.com"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void updateStatusesByFilterIsLimitedToTheCallersOwnShopAndSchedule() {
+        BulkStatusUpdateDTO dto = new BulkStatusUpdateDTO();
+        dto.setStatus(AppointmentStatus.CANCELLED);
+        dto.setBarbershopId(3L);
+        when(barberRepository.findByEmail("carlos@email.com")).thenReturn(Optional.of(barber(2L, 4L)));
+        when(barberRepository.findByEmail("ana@email.com")).thenReturn(Optional.empty());
+
+        // Cliente ou usuário sem barbeiro associado
+        assertThatThrownBy(() -> appointmentService.updateStatuses(dto, "ana@email.com"))
+                .isInstanceOf(AccessDeniedException.class);
+        // Barbeiro de outra barbearia
+        assertThatThrownBy(() -> appointmentService.updateStatuses(dto, "carlos@email.com"))
+                .isInstanceOf(AccessDeniedException.class);
+        // Agenda de outro barbeiro
+        dto.setBarbershopId(null);
+        dto.setBarberId(5L);
+        assertThatThrownBy(() -> appointmentService.updateStatuses(dto, "carlos@email.com"))
+                .isInstanceOf(AccessDeniedException.class);
+
+        verify(appointmentRepository, never()).transitionStatusWhere(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -182,22 +331,106 @@ class AppointmentServiceTest {
         dto.setDate(LocalDate.of(2026, 4, 12));
         dto.setTime(LocalTime.of(16, 0));
 
+        Appointment existing = buildAppointment();
+        existing.setId(50L);
+        existing.setStartTime(LocalDateTime.of(2026, 4, 12, 16, 15));
+        existing.setEndTime(LocalDateTime.of(2026, 4, 12, 16, 45));
+
         when(appointmentRepository.findById(7L)).thenReturn(Optional.of(appointment));
-        when(appointmentRepository.existsByBarberIdAndIdNotAndStatusInAndStartTimeLessThanAndEndTimeGreaterThan(
-                eq(2L),
-                eq(7L),
-                eq(List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED)),
-                eq(LocalDateTime.of(2026, 4, 12, 16, 30)),
-                eq(LocalDateTime.of(2026, 4, 12, 16, 0))
-        )).thenReturn(true);
+        when(appointmentRepository.findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                eq(3L),
+                any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                eq(List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED))
+        )).thenReturn(List.of(existing));
 
         assertThatThrownBy(() -> appointmentService.reschedule(7L, dto))
-                .isInstanceOf(IllegalStateException.class)
+                .isInstanceOf(SlotUnavailableException.class)
                 .hasMessage("Horario indisponivel para o barbeiro selecionado");
 
         verify(appointmentRepository, never()).save(any(Appointment.class));
     }
 
+    @Test
+    void rescheduleRechecksTheDatabaseBeforeRejectingAConflictSeenInTheIndex() {
+        Appointment appointment = buildAppointment();
+        appointment.setId(7L);
+
+        RescheduleDTO dto = new RescheduleDTO();
+        dto.setDate(LocalDate.of(2026, 4, 12));
+        dto.setTime(LocalTime.of(16, 0));
+
+        Appointment cancelledElsewhere = buildAppointment();
+        cancelledElsewhere.setId(50L);
+        cancelledElsewhere.setStartTime(LocalDateTime.of(2026, 4, 12, 16, 0));
+        cancelledElsewhere.setEndTime(LocalDateTime.of(2026, 4, 12, 16, 30));
+
+        when(appointmentRepository.findById(7L)).thenReturn(Optional.of(appointment));
+        // O índice ainda tem o agendamento; o banco já não tem (cancelado por outro nó)
+        when(appointmentRepository.findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                eq(3L),
+                any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                eq(List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED))
+        )).thenReturn(List.of(cancelledElsewhere), List.of());
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AppointmentDTO response = appointmentService.reschedule(7L, dto);
+
+        assertThat(response.getTime()).isEqualTo(LocalTime.of(16, 0));
+        verify(appointmentRepository).save(appointment);
+    }
+
+    @Test
+    void rescheduleConflictSuggestsNearestFreeSlotsForEachBarber() {
+        LocalDate date = LocalDate.now().plusDays(5);
+
+        // O próprio agendamento (15:30) não conta como ocupado ao sugerir alternativas
+        Appointment appointment = buildAppointment();
+        appointment.setId(7L);
+        appointment.setStartTime(LocalDateTime.of(date, LocalTime.of(15, 30)));
+        appointment.setEndTime(LocalDateTime.of(date, LocalTime.of(16, 0)));
+
+        Appointment existing = buildAppointment();
+        existing.setId(50L);
+        existing.setStartTime(LocalDateTime.of(date, LocalTime.of(16, 0)));
+        existing.setEndTime(LocalDateTime.of(date, LocalTime.of(16, 30)));
+
+        Barber pedro = new Barber();
+        pedro.setId(5L);
+        pedro.setName("Pedro");
+
+        RescheduleDTO dto = new RescheduleDTO();
+        dto.setDate(date);
+        dto.setTime(LocalTime.of(16, 0));
+
+        when(appointmentRepository.findById(7L)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                eq(3L),
+                any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                eq(List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED))
+        )).thenReturn(List.of(appointment, existing));
+        when(barberRepository.findByBarbershopId(3L)).thenReturn(List.of(appointment.getBarber(), pedro));
+
+        assertThatThrownBy(() -> appointmentService.reschedule(7L, dto))
+                .isInstanceOfSatisfying(SlotUnavailableException.class, e -> {
+                    SlotAlternativesDTO alternatives = e.getAlternatives();
+                    assertThat(alternatives.getDate()).isEqualTo(date);
+                    assertThat(alternatives.getDuration()).isEqualTo(30);
+                    assertThat(alternatives.getSameBarber()).containsExactly("15:30", "16:30", "15:00");
+                    assertThat(alternatives.getOtherBarbers()).hasSize(1);
+                    assertThat(alternatives.getOtherBarbers().get(0).getBarberName()).isEqualTo("Pedro");
+                    assertThat(alternatives.getOtherBarbers().get(0).getAvailableSlots())
+                            .containsExactly("16:00", "15:30", "16:30");
+                });
+
+        // O conflito visto no índice é confirmado relendo o dia do banco; as alternativas usam essa
+        // mesma agenda, sem outra consulta
+        verify(appointmentRepository, times(2)).findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                eq(3L), any(LocalDateTime.class), any(LocalDateTime.class), any());
+    }
+
     @Test
     void cancelConfirmAndCompleteUpdateAppointmentStatus() {
         Appointment appointment = buildAppointment();
@@ -206,14 +439,29 @@ class AppointmentServiceTest {
         when(appointmentRepository.findById(8L)).thenReturn(Optional.of(appointment));
         when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        AppointmentDTO cancelled = appointmentService.cancel(8L);
-        assertThat(cancelled.getStatus()).isEqualTo(AppointmentStatus.CANCELLED);
-
         AppointmentDTO confirmed = appointmentService.confirm(8L);
         assertThat(confirmed.getStatus()).isEqualTo(AppointmentStatus.CONFIRMED);
 
         AppointmentDTO completed = appointmentService.complete(8L);
         assertThat(completed.getStatus()).isEqualTo(AppointmentStatus.COMPLETED);
+
+        AppointmentDTO cancelled = appointmentService.cancel(8L);
+        assertThat(cancelled.getStatus()).isEqualTo(AppointmentStatus.CANCELLED);
+    }
+
+    @Test
+    void confirmOnlyAcceptsPendingAppointments() {
+        Appointment appointment = buildAppointment();
+        appointment.setId(8L);
+        appointment.setStatus(AppointmentStatus.CANCELLED);
+        when(appointmentRepository.findById(8L)).thenReturn(Optional.of(appointment));
+
+        assertThatThrownBy(() -> appointmentService.confirm(8L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Transição não permitida: CANCELLED -> CONFIRMED");
+
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verify(scheduleIndex, never()).register(any(Appointment.class));
     }
 
     @Test
@@ -221,11 +469,13 @@ class AppointmentServiceTest {
         LocalDate date = LocalDate.of(2026, 4, 15);
 
         Appointment pendingAtNine = buildAppointment();
+        pendingAtNine.setId(11L);
         pendingAtNine.setStartTime(LocalDateTime.of(date, LocalTime.of(9, 0)));
         pendingAtNine.setEndTime(LocalDateTime.of(date, LocalTime.of(9, 30)));
         pendingAtNine.setStatus(AppointmentStatus.PENDING);
 
         Appointment confirmedAtTenThirty = buildAppointment();
+        confirmedAtTenThirty.setId(12L);
         confirmedAtTenThirty.setStartTime(LocalDateTime.of(date, LocalTime.of(10, 30)));
         confirmedAtTenThirty.setEndTime(LocalDateTime.of(date, LocalTime.of(11, 0)));
         confirmedAtTenThirty.setStatus(AppointmentStatus.CONFIRMED);
@@ -235,7 +485,7 @@ class AppointmentServiceTest {
         shop.setName("Barber Hub");
 
         when(barbershopRepository.findById(3L)).thenReturn(Optional.of(shop));
-        when(appointmentRepository.findByBarbershopIdAndStartTimeBetweenAndStatusIn(
+        when(appointmentRepository.findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
                 eq(3L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
@@ -254,6 +504,7 @@ class AppointmentServiceTest {
         LocalDate date = LocalDate.of(2026, 4, 15);
 
         Appointment oneHourAppointment = buildAppointment();
+        oneHourAppointment.setId(13L);
         oneHourAppointment.setStartTime(LocalDateTime.of(date, LocalTime.of(9, 0)));
         oneHourAppointment.setEndTime(LocalDateTime.of(date, LocalTime.of(10, 0)));
         oneHourAppointment.setStatus(AppointmentStatus.CONFIRMED);
@@ -263,7 +514,7 @@ class AppointmentServiceTest {
         shop.setName("Barber Hub");
 
         when(barbershopRepository.findById(3L)).thenReturn(Optional.of(shop));
-        when(appointmentRepository.findByBarbershopIdAndStartTimeBetweenAndStatusIn(
+        when(appointmentRepository.findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
                 eq(3L),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
@@ -276,6 +527,458 @@ class AppointmentServiceTest {
         assertThat(response.getAvailableSlots()).contains("08:30", "10:00", "10:30");
     }
 
+    @Test
+    void findAvailableSlotsFollowsTheShopOpeningHours() {
+        // 15/04/2026 é uma quarta-feira
+        LocalDate date = LocalDate.of(2026, 4, 15);
+
+        Barbershop shop = new Barbershop();
+        shop.setId(3L);
+        shop.setName("Barber Hub");
+
+        when(barbershopRepository.findById(3L)).thenReturn(Optional.of(shop));
+        when(barbershopRepository.findOpeningHours(3L))
+                .thenReturn(OpeningHours.parse("Seg-Sex: 9h-12h, 13h30-20h; Sáb: 9h-14h; Dom: Fechado"));
+        when(appointmentRepository.findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                eq(3L),
+                any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                eq(List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED))
+        )).thenReturn(List.of());
+
+        AvailableSlotsDTO response = appointmentService.findAvailableSlots(3L, date);
+
+        assertThat(response.getAvailableSlots()).startsWith("09:00").endsWith("19:30");
+        assertThat(response.getAvailableSlots()).contains("11:30", "13:30");
+        assertThat(response.getAvailableSlots()).doesNotContain("08:00", "12:00", "13:00", "20:00");
+
+        AvailableSlotsDTO sunday = appointmentService.findAvailableSlots(3L, LocalDate.of(2026, 4, 19));
+        assertThat(sunday.getAvailableSlots()).isEmpty();
+    }
+
+    @Test
+    void rescheduleIgnoresTheAppointmentBeingMoved() {
+        Appointment appointment = buildAppointment();
+        appointment.setId(7L);
+        appointment.setStartTime(LocalDateTime.of(2026, 4, 12, 16, 0));
+        appointment.setEndTime(LocalDateTime.of(2026, 4, 12, 16, 30));
+
+        RescheduleDTO dto = new RescheduleDTO();
+        dto.setDate(LocalDate.of(2026, 4, 12));
+        dto.setTime(LocalTime.of(16, 15));
+
+        when(appointmentRepository.findById(7L)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                eq(3L),
+                any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                eq(List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED))
+        )).thenReturn(List.of(appointment));
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AppointmentDTO response = appointmentService.reschedule(7L, dto);
+
+        assertThat(response.getTime()).isEqualTo(LocalTime.of(16, 15));
+    }
+
+    @Test
+    void findAvailableSlotsUsesScheduleIndexAfterFirstLoad() {
+        LocalDate date = LocalDate.of(2026, 4, 15);
+
+        Appointment appointment = buildAppointment();
+        appointment.setId(8L);
+        appointment.setStartTime(LocalDateTime.of(date, LocalTime.of(9, 0)));
+        appointment.setEndTime(LocalDateTime.of(date, LocalTime.of(9, 30)));
+
+        Barbershop shop = new Barbershop();
+        shop.setId(3L);
+
+        when(barbershopRepository.findById(3L)).thenReturn(Optional.of(shop));
+        when(appointmentRepository.findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                eq(3L),
+                any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                eq(List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED))
+        )).thenReturn(List.of(appointment));
+        when(appointmentRepository.findById(8L)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(appointmentService.findAvailableSlots(3L, date).getAvailableSlots()).doesNotContain("09:00");
+
+        appointmentService.cancel(8L);
+
+        assertThat(appointmentService.findAvailableSlots(3L, date).getAvailableSlots()).contains("09:00");
+        verify(appointmentRepository, times(1)).findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                eq(3L),
+                any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                any()
+        );
+    }
+
+    @Test
+    void findAvailabilityComputesSlotsPerBarberUsingServiceDuration() {
+        LocalDate date = LocalDate.of(2026, 4, 15);
+
+        Barbershop shop = new Barbershop();
+        shop.setId(3L);
+
+        Barber carlos = new Barber();
+        carlos.setId(2L);
+        carlos.setName("Carlos");
+        carlos.setBarbershop(shop);
+
+        Barber pedro = new Barber();
+        pedro.setId(5L);
+        pedro.setName("Pedro");
+        pedro.setBarbershop(shop);
+
+        br.com.barbershop.api.model.Service beard = new br.com.barbershop.api.model.Service();
+        beard.setId(4L);
+        beard.setDuration(60);
+
+        // Carlos ocupado das 10:00 às 10:30
+        Appointment appointment = buildAppointment();
+        appointment.setId(20L);
+        appointment.setStartTime(LocalDateTime.of(date, LocalTime.of(10, 0)));
+        appointment.setEndTime(LocalDateTime.of(date, LocalTime.of(10, 30)));
+
+        when(barbershopRepository.existsById(3L)).thenReturn(true);
+        when(serviceRepository.findById(4L)).thenReturn(Optional.of(beard));
+        when(barberRepository.findByBarbershopId(3L)).thenReturn(List.of(carlos, pedro));
+        when(appointmentRepository.findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                eq(3L),
+                any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                eq(List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED))
+        )).thenReturn(List.of(appointment));
+
+        AvailabilityDTO response = appointmentService.findAvailability(3L, null, 4L, date);
+
+        assertThat(response.getDuration()).isEqualTo(60);
+        assertThat(response.getBarbers()).hasSize(2);
+
+        List<String> carlosSlots = response.getBarbers().get(0).getAvailableSlots();
+        assertThat(carlosSlots).doesNotContain("09:30", "10:00", "17:30");
+        assertThat(carlosSlots).contains("08:00", "09:00", "10:30", "17:00");
+
+        List<String> pedroSlots = response.getBarbers().get(1).getAvailableSlots();
+        assertThat(pedroSlots).contains("09:30", "10:00", "17:00");
+        assertThat(pedroSlots).doesNotContain("17:30");
+    }
+
+    @Test
+    void releaseHoldOnlyReleasesTheCallersOwnHold() {
+        SlotHoldService.Hold hold = slotHoldService
+                .tryHold(3L, 2L, 1L, LocalDate.of(2026, 4, 15), 600, 630)
+                .orElseThrow();
+        when(clientRepository.findByEmail("ana@email.com")).thenReturn(Optional.of(client(1L)));
+        when(clientRepository.findByEmail("joao@email.com")).thenReturn(Optional.of(client(9L)));
+
+        assertThatThrownBy(() -> appointmentService.releaseHold(hold.id(), null))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> appointmentService.releaseHold(hold.id(), "joao@email.com"))
+                .hasMessage("Reserva não encontrada: " + hold.id());
+        assertThat(slotHoldService.find(hold.id())).isPresent();
+
+        appointmentService.releaseHold(hold.id(), "ana@email.com");
+
+        assertThat(slotHoldService.find(hold.id())).isEmpty();
+    }
+
+    @Test
+    void holdSlotHidesTheIntervalFromAvailabilityAndFromOtherClients() {
+        LocalDate date = LocalDate.of(2026, 4, 15);
+
+        Barbershop shop = new Barbershop();
+        shop.setId(3L);
+
+        Barber carlos = new Barber();
+        carlos.setId(2L);
+        carlos.setName("Carlos");
+        carlos.setBarbershop(shop);
+
+        br.com.barbershop.api.model.Service beard = new br.com.barbershop.api.model.Service();
+        beard.setId(4L);
+        beard.setDuration(60);
+
+        when(clientRepository.findByEmail("ana@email.com")).thenReturn(Optional.of(client(1L)));
+        when(barbershopRepository.existsById(3L)).thenReturn(true);
+        when(serviceRepository.findById(4L)).thenReturn(Optional.of(beard));
+        when(barberRepository.findById(2L)).thenReturn(Optional.of(carlos));
+        when(appointmentRepository.findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                eq(3L),
+                any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                eq(List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED))
+        )).thenReturn(List.of());
+
+        HoldDTO hold = appointmentService.holdSlot(holdRequest(date, LocalTime.of(10, 0)), "ana@email.com");
+
+        assertThat(hold.getHoldId()).isNotBlank();
+        assertThat(hold.getDuration()).isEqualTo(60);
+        assertThat(hold.getExpiresAt()).isAfter(Instant.now());
+
+        // 10:00-11:00 reservado: nem 10:00 nem 10:30 aparecem como livres
+        List<String> slots = appointmentService.findAvailability(3L, 2L, null, date)
+                .getBarbers().get(0).getAvailableSlots();
+        assertThat(slots).doesNotContain("10:00", "10:30");
+        assertThat(slots).contains("09:30", "11:00");
+
+        when(clientRepository.findByEmail("joao@email.com")).thenReturn(Optional.of(client(7L)));
+        assertThatThrownBy(() -> appointmentService.holdSlot(holdRequest(date, LocalTime.of(10, 30)), "joao@email.com"))
+                .isInstanceOf(SlotUnavailableException.class);
+
+        CreateAppointmentDTO other = new CreateAppointmentDTO();
+        other.setClientId(7L);
+        other.setBarberId(2L);
+        other.setBarbershopId(3L);
+        other.setServiceId(4L);
+        other.setDate(date);
+        other.setTime(LocalTime.of(9, 30));
+
+        assertThatThrownBy(() -> appointmentService.create(other))
+                .isInstanceOf(SlotUnavailableException.class);
+        verify(appointmentRepository, never()).book(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void holdSlotRejectsTimesOutsideOpeningHours() {
+        Barbershop shop = new Barbershop();
+        shop.setId(3L);
+        Barber carlos = new Barber();
+        carlos.setId(2L);
+        carlos.setBarbershop(shop);
+        br.com.barbershop.api.model.Service beard = new br.com.barbershop.api.model.Service();
+        beard.setId(4L);
+        beard.setDuration(60);
+
+        when(clientRepository.findByEmail("ana@email.com")).thenReturn(Optional.of(client(1L)));
+        when(barbershopRepository.existsById(3L)).thenReturn(true);
+        when(serviceRepository.findById(4L)).thenReturn(Optional.of(beard));
+        when(barberRepository.findById(2L)).thenReturn(Optional.of(carlos));
+
+        assertThatThrownBy(() -> appointmentService.holdSlot(
+                holdRequest(LocalDate.of(2026, 4, 15), LocalTime.of(3, 0)), "ana@email.com"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("expediente");
+        assertThat(slotHoldService.hasHolds(3L, LocalDate.of(2026, 4, 15), 2L, null)).isFalse();
+    }
+
+    @Test
+    void holdSlotRequiresAnAuthenticatedClient() {
+        when(clientRepository.findByEmail("barbeiro@email.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> appointmentService.holdSlot(
+                holdRequest(LocalDate.of(2026, 4, 15), LocalTime.of(10, 0)), "barbeiro@email.com"))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> appointmentService.holdSlot(
+                holdRequest(LocalDate.of(2026, 4, 15), LocalTime.of(10, 0)), null))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void createConsumesTheClientsHold() {
+        LocalDate date = LocalDate.of(2026, 4, 10);
+        SlotHoldService.Hold hold = slotHoldService.tryHold(3L, 2L, 1L, date, 14 * 60 + 30, 15 * 60).orElseThrow();
+
+        CreateAppointmentDTO dto = new CreateAppointmentDTO();
+        dto.setClientId(1L);
+        dto.setBarberId(2L);
+        dto.setBarbershopId(3L);
+        dto.setServiceId(4L);
+        dto.setDate(date);
+        dto.setTime(LocalTime.of(14, 30));
+        dto.setHoldId(hold.id());
+
+        Appointment booked = buildAppointment();
+        booked.setId(99L);
+        when(appointmentRepository.book(1L, 2L, 3L, 4L, LocalDateTime.of(2026, 4, 10, 14, 30)))
+                .thenReturn(Optional.of(viewOf(booked)));
+
+        appointmentService.create(dto);
+
+        assertThat(slotHoldService.find(hold.id())).isEmpty();
+        // O próprio hold não exige buscar a duração do serviço
+        verify(serviceRepository, never()).findById(any());
+    }
+
+    @Test
+    void findEarliestSlotsMergesBarbersOfNearbyShopsInTimeOrder() {
+        LocalDate date = LocalDate.now().plusDays(10);
+
+        br.com.barbershop.api.model.Service nearCut = serviceAt(10L, "Hub Centro", -23.55, -46.62);
+        br.com.barbershop.api.model.Service farCut = serviceAt(11L, "Hub Paulista", -23.55, -46.60);
+        br.com.barbershop.api.model.Service outsideCut = serviceAt(12L, "Hub Norte", -23.40, -46.63);
+
+        Barber carlos = new Barber();
+        carlos.setId(2L);
+        carlos.setName("Carlos");
+        carlos.setBarbershop(nearCut.getBarbershop());
+
+        Barber pedro = new Barber();
+        pedro.setId(5L);
+        pedro.setName("Pedro");
+        pedro.setBarbershop(farCut.getBarbershop());
+
+        // Carlos ocupado das 08:00 às 08:30
+        Appointment appointment = buildAppointment();
+        appointment.setId(20L);
+        appointment.setBarber(carlos);
+        appointment.setBarbershop(nearCut.getBarbershop());
+        appointment.setStartTime(LocalDateTime.of(date, LocalTime.of(8, 0)));
+        appointment.setEndTime(LocalDateTime.of(date, LocalTime.of(8, 30)));
+
+        when(serviceRepository.findByNameWithin(eq("Corte"), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(List.of(nearCut, farCut, outsideCut));
+        when(barberRepository.findByBarbershopIdIn(List.of(10L, 11L))).thenReturn(List.of(carlos, pedro));
+        when(appointmentRepository.findByBarbershopIdInAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                eq(List.of(10L, 11L)),
+                any(LocalDateTime.class),
+                any(LocalDateTime.class),
+                eq(List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED))
+        )).thenReturn(List.of(appointment));
+
+        List<EarliestSlotDTO> slots = appointmentService.findEarliestSlots(
+                null, "Corte", -23.55, -46.63, 5.0, date, date.plusDays(6), 3);
+
+        assertThat(slots).extracting(EarliestSlotDTO::getBarberName).containsExactly("Pedro", "Carlos", "Pedro");
+        assertThat(slots).extracting(EarliestSlotDTO::getTime)
+                .containsExactly(LocalTime.of(8, 0), LocalTime.of(8, 30), LocalTime.of(8, 30));
+        assertThat(slots).allMatch(slot -> slot.getDate().equals(date));
+        assertThat(slots.get(1).getBarbershopName()).isEqualTo("Hub Centro");
+        assertThat(slots.get(1).getDistanceKm()).isBetween(0.9, 1.1);
+
+        // Uma consulta para a janela inteira; a segunda busca já usa o índice em memória
+        appointmentService.findEarliestSlots(null, "Corte", -23.55, -46.63, 5.0, date, date.plusDays(6), 3);
+        verify(appointmentRepository, times(1)).findByBarbershopIdInAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                any(), any(LocalDateTime.class), any(LocalDateTime.class), any());
+    }
+
+    @Test
+    void findEarliestSlotsRequiresServiceAndLocation() {
+        assertThatThrownBy(() -> appointmentService.findEarliestSlots(null, "Corte", null, null, null, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Informe serviceId ou serviceName com latitude e longitude");
+        assertThatThrownBy(() -> appointmentService.findEarliestSlots(null, "Corte", -23.55, -46.63, 500.0, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findAvailabilityRangeLoadsTheWholeWindowWithOneQuery() {
+        LocalDate from = LocalDate.of(2026, 4, 13);
+        LocalDate to = LocalDate.of(2026, 4, 26);
+
+        Barbershop shop = new Barbershop();
+        shop.setId(3L);
+
+        Barber carlos = new Barber();
+        carlos.setId(2L);
+        carlos.setName("Carlos");
+        carlos.setBarbershop(shop);
+
+        Appointment appointment = buildAppointment();
+        appointment.setId(30L);
+        appointment.setStartTime(LocalDateTime.of(2026, 4, 20, 9, 0));
+        appointment.setEndTime(LocalDateTime.of(2026, 4, 20, 9, 30));
+
+        when(barbershopRepository.existsById(3L)).thenReturn(true);
+        when(barberRepository.findByBarbershopId(3L)).thenReturn(List.of(carlos));
+        when(appointmentRepository.findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                3L,
+                to.plusDays(1).atStartOfDay(),
+                from.atStartOfDay(),
+                List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED)
+        )).thenReturn(List.of(appointment));
+
+        List<AvailabilityDTO> days = appointmentService.findAvailabilityRange(3L, null, null, from, to).toList();
+
+        assertThat(days).hasSize(14);
+        assertThat(days.get(7).getDate()).isEqualTo(LocalDate.of(2026, 4, 20));
+        assertThat(days.get(7).getBarbers().get(0).getAvailableSlots()).doesNotContain("09:00");
+        assertThat(days.get(6).getBarbers().get(0).getAvailableSlots()).contains("09:00");
+        verify(appointmentRepository, times(1)).findByBarbershopIdAndStartTimeBeforeAndEndTimeAfterAndStatusIn(
+                any(), any(), any(), any()
+        );
+    }
+
+    @Test
+    void findAvailabilityRangeRejectsWindowsLongerThanLimit() {
+        assertThatThrownBy(() -> appointmentService.findAvailabilityRange(
+                3L, null, null, LocalDate.of(2026, 4, 1), LocalDate.of(2026, 5, 15)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private br.com.barbershop.api.model.Service serviceAt(Long barbershopId, String name, double latitude, double longitude) {
+        Barbershop shop = new Barbershop();
+        shop.setId(barbershopId);
+        shop.setName(name);
+        shop.setLatitude(latitude);
+        shop.setLongitude(longitude);
+
+        br.com.barbershop.api.model.Service service = new br.com.barbershop.api.model.Service();
+        service.setId(barbershopId * 100);
+        service.setName("Corte");
+        service.setDuration(30);
+        service.setPrice(new BigDecimal("45.00"));
+        service.setBarbershop(shop);
+        return service;
+    }
+
+    private Client client(Long id) {
+        Client client = new Client();
+        client.setId(id);
+        return client;
+    }
+
+    private HoldRequestDTO holdRequest(LocalDate date, LocalTime time) {
+        HoldRequestDTO dto = new HoldRequestDTO();
+        dto.setBarbershopId(3L);
+        dto.setBarberId(2L);
+        dto.setServiceId(4L);
+        dto.setDate(date);
+        dto.setTime(time);
+        return dto;
+    }
+
+    private StatusTransitionView transitionRow(Long id, String previousStatus, boolean updated) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("previousStatus", previousStatus);
+        row.put("updated", updated);
+        return new SpelAwareProxyProjectionFactory().createProjection(StatusTransitionView.class, row);
+    }
+
+    private AppointmentView viewOf(Appointment appointment) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", appointment.getId());
+        row.put("clientId", appointment.getClient().getId());
+        row.put("clientName", appointment.getClient().getName());
+        row.put("barbershopId", appointment.getBarbershop().getId());
+        row.put("barbershopName", appointment.getBarbershop().getName());
+        row.put("barbershopAddress", appointment.getBarbershop().getAddress());
+        row.put("barbershopPhone", appointment.getBarbershop().getPhone());
+        row.put("barberId", appointment.getBarber().getId());
+        row.put("barberName", appointment.getBarber().getName());
+        row.put("serviceId", appointment.getService().getId());
+        row.put("serviceName", appointment.getService().getName());
+        row.put("duration", appointment.getService().getDuration());
+        row.put("startTime", appointment.getStartTime());
+        row.put("endTime", appointment.getEndTime());
+        row.put("price", appointment.getPrice());
+        row.put("status", appointment.getStatus());
+        return new SpelAwareProxyProjectionFactory().createProjection(AppointmentView.class, row);
+    }
+
+    private static Barber barber(Long id, Long barbershopId) {
+        Barbershop barbershop = new Barbershop();
+        barbershop.setId(barbershopId);
+        Barber barber = new Barber();
+        barber.setId(id);
+        barber.setBarbershop(barbershop);
+        return barber;
+    }
+
     private Appointment buildAppointment() {
         Client client = new Client();
         client.setId(1L);
@@ -4,6 +4,7 @@ import br.com.barbershop.api.dto.AuthResponseDTO;
 import br.com.barbershop.api.dto.BarberResponseDTO;
 import br.com.barbershop.api.dto.ClientResponseDTO;
 import br.com.barbershop.api.dto.LoginRequest;
+import br.com.barbershop.api.model.Account;
 import br.com.barbershop.api.model.Barber;
 import br.com.barbershop.api.model.Client;
 import br.com.barbershop.api.repository.BarberRepository;
@@ -37,6 +38,8 @@ class AuthServiceTest {
     private JwtService jwtService;
     @Mock
     private AuthenticationManager authenticationManager;
+    @Mock
+    private AccountDirectory accountDirectory;
 
     @InjectMocks
     private AuthService authService;
@@ -53,8 +56,12 @@ class AuthServiceTest {
         client.setEmail(request.getEmail());
         client.setPassword("hash");
 
-        when(clientRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(client));
-        when(jwtService.generateToken(any(UserDetails.class), eq("CLIENT"))).thenReturn("client-token");
+        // O principal autenticado já traz a conta do diretório: nenhuma busca por email depois do login
+        AccountUserDetails principal = new AccountUserDetails(account("CLIENT", 1L, request.getEmail()));
+        when(authenticationManager.authenticate(any())).thenReturn(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(jwtService.generateToken(any(UserDetails.class), eq("CLIENT"), eq(1L), eq(0))).thenReturn("client-token");
 
         AuthResponseDTO response = authService.login(request);
 
@@ -87,9 +94,9 @@ class AuthServiceTest {
         barber.setPhone("11999999999");
         barber.setBirthDate(LocalDate.of(1990, 1, 1));
 
-        when(clientRepository.findByEmail(request.getEmail())).thenReturn(Optional.empty());
-        when(barberRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(barber));
-        when(jwtService.generateToken(any(UserDetails.class), eq("BARBER"))).thenReturn("barber-token");
+        when(accountDirectory.findByEmail(request.getEmail())).thenReturn(Optional.of(account("BARBER", 2L, request.getEmail())));
+        when(barberRepository.findById(2L)).thenReturn(Optional.of(barber));
+        when(jwtService.generateToken(any(UserDetails.class), eq("BARBER"), eq(2L), eq(0))).thenReturn("barber-token");
 
         AuthResponseDTO response = authService.login(request);
 
@@ -103,4 +110,13 @@ class AuthServiceTest {
         assertThat(userData.getEmail()).isEqualTo(request.getEmail());
         assertThat(userData.getCpf()).isEqualTo("12345678901");
     }
+
+    private static Account account(String userType, Long userId, String email) {
+        Account account = new Account();
+        account.setUserType(userType);
+        account.setUserId(userId);
+        account.setEmail(email);
+        account.setPassword("hash");
+        return account;
+    }
 }
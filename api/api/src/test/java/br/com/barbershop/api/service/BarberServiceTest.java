@@ -6,7 +6,6 @@ import br.com.barbershop.api.model.Barber;
 import br.com.barbershop.api.model.Barbershop;
 import br.com.barbershop.api.repository.BarberRepository;
 import br.com.barbershop.api.repository.BarbershopRepository;
-import br.com.barbershop.api.repository.ClientRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -29,11 +28,11 @@ class BarberServiceTest {
     @Mock
     private BarberRepository barberRepository;
     @Mock
-    private ClientRepository clientRepository;
-    @Mock
     private BarbershopRepository barbershopRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private AccountDirectory accountDirectory;
 
     @InjectMocks
     private BarberService barberService;
@@ -55,7 +54,7 @@ class BarberServiceTest {
         shop.setAddress("Rua A");
         shop.setCep("00000-000");
 
-        when(barberRepository.existsByEmail(dto.getEmail())).thenReturn(false);
+        when(accountDirectory.isEmailTaken(dto.getEmail())).thenReturn(false);
         when(barberRepository.existsByCpf(dto.getCpf())).thenReturn(false);
         when(barbershopRepository.findById(dto.getBarbershopId())).thenReturn(Optional.of(shop));
         when(passwordEncoder.encode(dto.getPassword())).thenReturn("senha-codificada");
@@ -75,6 +74,8 @@ class BarberServiceTest {
         assertThat(savedBarber.getPassword()).isEqualTo("senha-codificada");
         assertThat(savedBarber.getCpf()).isEqualTo("12345678901");
 
+        verify(accountDirectory).save("BARBER", 20L, "carlos@email.com", "senha-codificada");
+
         assertThat(response.getId()).isEqualTo(20L);
         assertThat(response.getName()).isEqualTo("Carlos");
         assertThat(response.getEmail()).isEqualTo("carlos@email.com");
@@ -86,7 +87,7 @@ class BarberServiceTest {
         dto.setCpf("12345678901");
         dto.setEmail("carlos@email.com");
 
-        when(barberRepository.existsByEmail(dto.getEmail())).thenReturn(false);
+        when(accountDirectory.isEmailTaken(dto.getEmail())).thenReturn(false);
         when(barberRepository.existsByCpf(dto.getCpf())).thenReturn(true);
 
         assertThatThrownBy(() -> barberService.register(dto))
@@ -0,0 +1,95 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.dto.BarbershopListDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BarbershopCatalogCacheTest {
+
+    private BarbershopCatalogCache catalogCache;
+    private final List<Runnable> pending = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        catalogCache = new BarbershopCatalogCache();
+        ReflectionTestUtils.setField(catalogCache, "executor", (Executor) pending::add);
+    }
+
+    @Test
+    void currentLoadsOnceAndRefreshReplacesTheSnapshotInBackground() {
+        AtomicInteger loads = new AtomicInteger();
+        List<BarbershopListDTO> catalog = new ArrayList<>(List.of(shop(1L, "Navalha de Ouro")));
+
+        BarbershopCatalogCache.Snapshot first = catalogCache.current(() -> {
+            loads.incrementAndGet();
+            return List.copyOf(catalog);
+        });
+        assertThat(catalogCache.current(List::of)).isSameAs(first);
+        assertThat(loads).hasValue(1);
+
+        catalog.add(shop(2L, "Goiânia Barber Club"));
+        catalogCache.refreshAsync(() -> List.copyOf(catalog));
+        // Até a reconstrução terminar, a versão anterior continua valendo
+        assertThat(catalogCache.current(List::of)).isSameAs(first);
+
+        pending.forEach(Runnable::run);
+        BarbershopCatalogCache.Snapshot second = catalogCache.current(List::of);
+        assertThat(second.version()).isEqualTo(1);
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+        assertThat(first.matches("W/" + first.etag())).isTrue();
+        assertThat(second.matches(first.etag())).isFalse();
+    }
+
+    @Test
+    void queuedRefreshesAreCoalescedIntoTheLatest() {
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            catalogCache.refreshAsync(() -> {
+                loads.incrementAndGet();
+                return List.of(shop(1L, "Navalha de Ouro"));
+            });
+        }
+        pending.forEach(Runnable::run);
+
+        assertThat(loads).hasValue(1);
+        assertThat(catalogCache.current(List::of).version()).isEqualTo(3);
+    }
+
+    @Test
+    void catalogIsRebuiltOncePerReloadInterval() {
+        Instant now = Instant.parse("2026-04-14T12:00:00Z");
+        ReflectionTestUtils.setField(catalogCache, "clock", Clock.fixed(now, ZoneOffset.UTC));
+        BarbershopCatalogCache.Snapshot first = catalogCache.current(() -> List.of(shop(1L, "Navalha de Ouro")));
+
+        catalogCache.current(List::of);
+        assertThat(pending).isEmpty();
+
+        // Outro nó criou uma barbearia: depois do intervalo, um único pedido de reconstrução
+        ReflectionTestUtils.setField(catalogCache, "clock", Clock.fixed(now.plusSeconds(301), ZoneOffset.UTC));
+        List<BarbershopListDTO> catalog = List.of(shop(1L, "Navalha de Ouro"), shop(2L, "Goiânia Barber Club"));
+        assertThat(catalogCache.current(() -> catalog)).isSameAs(first);
+        catalogCache.current(() -> catalog);
+        assertThat(pending).hasSize(1);
+
+        pending.forEach(Runnable::run);
+        assertThat(catalogCache.current(List::of).etag()).isNotEqualTo(first.etag());
+    }
+
+    private static BarbershopListDTO shop(Long id, String name) {
+        BarbershopListDTO dto = new BarbershopListDTO();
+        dto.setId(id);
+        dto.setName(name);
+        return dto;
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.barbershop.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BarbershopGeoIndexTest {
+
+    private static final double LATITUDE = -16.7042;
+    private static final double LONGITUDE = -49.2719;
+
+    private BarbershopGeoIndex geoIndex;
+
+    @BeforeEach
+    void setUp() {
+        geoIndex = new BarbershopGeoIndex();
+        geoIndex.ensureLoaded(List::of);
+    }
+
+    @Test
+    void nearestReturnsClosestShopsWithinRadiusInDistanceOrder() {
+        geoIndex.put(entry(1L, -16.7040, -49.2620, 4.9, "60.00"));  // ~1 km
+        geoIndex.put(entry(2L, -16.7050, -49.2720, 4.0, "40.00"));  // ~0,1 km
+        geoIndex.put(entry(3L, -16.6000, -49.2719, 4.5, "45.00"));  // ~11,6 km
+        geoIndex.put(entry(4L, -16.7300, -49.2719, 3.0, "30.00"));  // ~2,9 km
+
+        List<BarbershopGeoIndex.Match> matches = geoIndex.nearest(LATITUDE, LONGITUDE, 5, entry -> true, 10);
+
+        assertThat(matches).extracting(match -> match.entry().barbershopId()).containsExactly(2L, 1L, 4L);
+        assertThat(matches.get(0).distanceKm()).isLessThan(0.2);
+        assertThat(geoIndex.nearest(LATITUDE, LONGITUDE, 5, entry -> true, 2))
+                .extracting(match -> match.entry().barbershopId()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void filtersAndIncrementalUpdatesAreApplied() {
+        geoIndex.put(entry(1L, -16.7040, -49.2620, 4.9, "60.00"));
+        geoIndex.put(entry(2L, -16.7050, -49.2720, 4.0, "40.00"));
+
+        Predicate<BarbershopGeoIndex.Entry> cheapAndGood =
+                entry -> entry.rating() >= 4.5 && entry.price().compareTo(new BigDecimal("70.00")) <= 0;
+        assertThat(geoIndex.nearest(LATITUDE, LONGITUDE, 5, cheapAndGood, 10))
+                .extracting(match -> match.entry().barbershopId()).containsExactly(1L);
+
+        // Barbearia mudou de lugar: sai da célula antiga
+        geoIndex.put(entry(1L, -17.5000, -49.2620, 4.9, "60.00"));
+        assertThat(geoIndex.nearest(LATITUDE, LONGITUDE, 5, cheapAndGood, 10)).isEmpty();
+
+        geoIndex.remove(2L);
+        assertThat(geoIndex.nearest(LATITUDE, LONGITUDE, 5, entry -> true, 10)).isEmpty();
+    }
+
+    @Test
+    void nearestMatchesBruteForceOnRandomShops() {
+        Random random = new Random(42);
+        List<BarbershopGeoIndex.Entry> entries = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            BarbershopGeoIndex.Entry entry = entry(id, LATITUDE + (random.nextDouble() - 0.5) * 0.6,
+                    LONGITUDE + (random.nextDouble() - 0.5) * 0.6, 5 * random.nextDouble(), "50.00");
+            entries.add(entry);
+            geoIndex.put(entry);
+        }
+
+        List<Long> expected = entries.stream()
+                .filter(entry -> entry.rating() >= 2.5)
+                .filter(entry -> distanceFromCenter(entry) <= 8)
+                .sorted(Comparator.comparingDouble(this::distanceFromCenter))
+                .limit(25)
+                .map(BarbershopGeoIndex.Entry::barbershopId)
+                .toList();
+
+        assertThat(geoIndex.nearest(LATITUDE, LONGITUDE, 8, entry -> entry.rating() >= 2.5, 25))
+                .extracting(match -> match.entry().barbershopId())
+                .containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void putDuringLoadMakesTheLoadReadTheDatabaseAgain() {
+        BarbershopGeoIndex fresh = new BarbershopGeoIndex();
+        List<BarbershopGeoIndex.Entry> database = new ArrayList<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        fresh.ensureLoaded(() -> {
+            List<BarbershopGeoIndex.Entry> read = List.copyOf(database);
+            if (loads.getAndIncrement() == 0) {
+                // Gravada e publicada depois da leitura, antes da troca do índice
+                BarbershopGeoIndex.Entry created = entry(1L, -16.7050, -49.2720, 4.0, "40.00");
+                database.add(created);
+                fresh.put(created);
+            }
+            return read;
+        });
+
+        assertThat(loads).hasValue(2);
+        assertThat(fresh.nearest(LATITUDE, LONGITUDE, 5, entry -> true, 10)).hasSize(1);
+    }
+
+    @Test
+    void indexIsReloadedAfterTheConfiguredInterval() {
+        BarbershopGeoIndex fresh = new BarbershopGeoIndex();
+        Instant now = Instant.parse("2026-04-14T12:00:00Z");
+        ReflectionTestUtils.setField(fresh, "clock", Clock.fixed(now, ZoneOffset.UTC));
+        fresh.ensureLoaded(List::of);
+
+        // Barbearia criada por outro nó: só aparece depois da recarga
+        BarbershopGeoIndex.Entry otherNode = entry(7L, -16.7050, -49.2720, 4.0, "40.00");
+        fresh.ensureLoaded(() -> List.of(otherNode));
+        assertThat(fresh.nearest(LATITUDE, LONGITUDE, 5, entry -> true, 10)).isEmpty();
+
+        ReflectionTestUtils.setField(fresh, "clock", Clock.fixed(now.plusSeconds(301), ZoneOffset.UTC));
+        fresh.ensureLoaded(() -> List.of(otherNode));
+        assertThat(fresh.nearest(LATITUDE, LONGITUDE, 5, entry -> true, 10))
+                .extracting(match -> match.entry().barbershopId()).containsExactly(7L);
+    }
+
+    private double distanceFromCenter(BarbershopGeoIndex.Entry entry) {
+        return BarbershopGeoIndex.distanceKm(LATITUDE, LONGITUDE, entry.latitude(), entry.longitude());
+    }
+
+    private static BarbershopGeoIndex.Entry entry(Long id, double latitude, double longitude, double rating, String price) {
+        return new BarbershopGeoIndex.Entry(id, latitude, longitude, rating, new BigDecimal(price));
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.dto.BarbershopListDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BarbershopListingIndexTest {
+
+    @Test
+    void addServiceUpdatesAggregatesWithoutTouchingThePreviousEntry() {
+        BarbershopListingIndex listingIndex = new BarbershopListingIndex();
+        BarbershopListDTO listing = new BarbershopListDTO();
+        listing.setId(1L);
+        listing.setName("Navalha de Ouro");
+        listing.setServices(List.of("Corte", "Barba"));
+        listing.setPrice(new BigDecimal("35.00"));
+        listing.setMinPrice(new BigDecimal("30.00"));
+        listing.setMaxPrice(new BigDecimal("40.00"));
+        listingIndex.ensureLoaded(() -> List.of(BarbershopListingIndex.Entry.of(listing, 2, new BigDecimal("70.00"))));
+
+        BarbershopListingIndex.Entry before = listingIndex.entries().iterator().next();
+        assertThat(before.listing().getPrice()).isEqualByComparingTo("35.00");
+        assertThat(before.listing().getServices()).containsExactly("Corte", "Barba");
+
+        listingIndex.addService(1L, "Pigmentação de Barba", new BigDecimal("80.00"));
+
+        BarbershopListingIndex.Entry after = listingIndex.entries().iterator().next();
+        assertThat(after.serviceCount()).isEqualTo(3);
+        assertThat(after.listing().getPrice()).isEqualByComparingTo("50.00");
+        assertThat(after.listing().getMinPrice()).isEqualByComparingTo("30.00");
+        assertThat(after.listing().getMaxPrice()).isEqualByComparingTo("80.00");
+        assertThat(after.listing().getServices()).containsExactly("Corte", "Barba", "Pigmentação de Barba");
+        assertThat(after.offers("pigmentacao")).isTrue();
+        assertThat(after.offers("sobrancelha")).isFalse();
+        assertThat(before.listing().getServices()).hasSize(2);
+    }
+
+    @Test
+    void serviceAddedDuringTheLoadIsReadFromTheDatabaseAgain() {
+        BarbershopListingIndex listingIndex = new BarbershopListingIndex();
+        BarbershopListDTO listing = new BarbershopListDTO();
+        listing.setId(1L);
+        listing.setServices(List.of("Corte"));
+        AtomicInteger loads = new AtomicInteger();
+
+        listingIndex.ensureLoaded(() -> {
+            if (loads.getAndIncrement() == 0) {
+                // O serviço foi gravado depois desta leitura e publicado antes da troca
+                listingIndex.addService(1L, "Barba", new BigDecimal("30.00"));
+                return List.of(BarbershopListingIndex.Entry.of(listing, 1, new BigDecimal("40.00")));
+            }
+            BarbershopListDTO withBeard = BarbershopListingIndex.copy(listing);
+            withBeard.setServices(List.of("Corte", "Barba"));
+            return List.of(BarbershopListingIndex.Entry.of(withBeard, 2, new BigDecimal("70.00")));
+        });
+
+        assertThat(loads).hasValue(2);
+        assertThat(listingIndex.entries()).singleElement()
+                .satisfies(entry -> assertThat(entry.serviceCount()).isEqualTo(2));
+    }
+}
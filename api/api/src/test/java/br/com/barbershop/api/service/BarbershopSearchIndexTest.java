@@ -0,0 +1,97 @@
+package br.com.barbershop.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BarbershopSearchIndexTest {
+
+    private BarbershopSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new BarbershopSearchIndex();
+        searchIndex.ensureLoaded(() -> List.of(
+                new BarbershopSearchIndex.Document(1L, "Navalha de Ouro", "Av. T-63, 1234, Goiânia", "74230-100",
+                        List.of("Corte", "Barba"), 4.8),
+                new BarbershopSearchIndex.Document(2L, "Goiânia Barber Club", "Rua 9, 567, Setor Oeste", "74150-130",
+                        List.of("Corte"), 4.9),
+                new BarbershopSearchIndex.Document(3L, "Estúdio Barbearia", "Rua das Navalhas, 10", null,
+                        List.of("Sobrancelha"), 4.0)
+        ));
+    }
+
+    @Test
+    void searchIgnoresAccentsAndCase() {
+        assertThat(ids("GOIANIA")).containsExactly(2L, 1L);
+        assertThat(ids("estudio")).containsExactly(3L);
+        assertThat(ids("74230100")).containsExactly(1L);
+    }
+
+    @Test
+    void prefixMatchesRankBelowExactMatchesAndNameAboveAddress() {
+        // "navalha" é termo exato do nome da 1; na 3 só casa por prefixo no endereço
+        assertThat(ids("navalha")).containsExactly(1L, 3L);
+        // "barb": prefixo no nome da 2 e da 3, e só no serviço da 1
+        assertThat(ids("barb")).containsExactly(2L, 3L, 1L);
+        // Todos os termos precisam aparecer
+        assertThat(ids("corte barba")).containsExactly(1L);
+        assertThat(ids("de da")).isEmpty();
+    }
+
+    @Test
+    void putReplacesPreviousTermsOfTheShop() {
+        searchIndex.put(new BarbershopSearchIndex.Document(3L, "Estúdio Barbearia", "Rua das Navalhas, 10", null,
+                List.of("Sobrancelha", "Pigmentação"), 4.0));
+        assertThat(ids("pigmentacao")).containsExactly(3L);
+
+        searchIndex.put(new BarbershopSearchIndex.Document(3L, "Studio Z", "Rua 1", null, List.of(), 4.0));
+        assertThat(ids("estudio")).isEmpty();
+        assertThat(ids("pigmentacao")).isEmpty();
+
+        searchIndex.remove(1L);
+        assertThat(ids("barba")).isEmpty();
+    }
+
+    @Test
+    void reloadPicksUpOtherNodesAndKeepsDocumentsPutDuringTheLoad() {
+        Instant now = Instant.parse("2026-04-14T12:00:00Z");
+        searchIndex = new BarbershopSearchIndex();
+        ReflectionTestUtils.setField(searchIndex, "clock", Clock.fixed(now, ZoneOffset.UTC));
+        List<BarbershopSearchIndex.Document> database = new ArrayList<>(List.of(
+                new BarbershopSearchIndex.Document(1L, "Navalha de Ouro", "Rua 1", null, List.of("Corte"), 4.8)));
+        searchIndex.ensureLoaded(() -> List.copyOf(database));
+
+        // Outro nó apagou a 1; este nó cria a 4 enquanto a recarga lê o banco
+        database.clear();
+        AtomicInteger loads = new AtomicInteger();
+        ReflectionTestUtils.setField(searchIndex, "clock", Clock.fixed(now.plusSeconds(301), ZoneOffset.UTC));
+        searchIndex.ensureLoaded(() -> {
+            List<BarbershopSearchIndex.Document> read = List.copyOf(database);
+            if (loads.getAndIncrement() == 0) {
+                BarbershopSearchIndex.Document created =
+                        new BarbershopSearchIndex.Document(4L, "Barbearia Central", "Rua 2", null, List.of(), 0.0);
+                database.add(created);
+                searchIndex.put(created);
+            }
+            return read;
+        });
+
+        assertThat(loads).hasValue(2);
+        assertThat(ids("navalha")).isEmpty();
+        assertThat(ids("central")).containsExactly(4L);
+    }
+
+    private List<Long> ids(String query) {
+        return searchIndex.search(query).stream().map(BarbershopSearchIndex.Hit::barbershopId).toList();
+    }
+}
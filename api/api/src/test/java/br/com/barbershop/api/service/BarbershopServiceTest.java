@@ -0,0 +1,93 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.dto.AddServiceDTO;
+import br.com.barbershop.api.model.Barbershop;
+import br.com.barbershop.api.repository.BarbershopRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BarbershopServiceTest {
+
+    @Mock
+    private BarbershopRepository barbershopRepository;
+    @Mock
+    private BarbershopGeoIndex geoIndex;
+    @Mock
+    private BarbershopSearchIndex searchIndex;
+    @Mock
+    private BarbershopCatalogCache catalogCache;
+    @Mock
+    private BarbershopListingIndex listingIndex;
+
+    @InjectMocks
+    private BarbershopService barbershopService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void addServicePublishesToIndexesOnlyAfterCommit() {
+        Barbershop barbershop = new Barbershop();
+        barbershop.setId(3L);
+        barbershop.setServices(new ArrayList<>());
+        when(barbershopRepository.findById(3L)).thenReturn(Optional.of(barbershop));
+        when(barbershopRepository.findAllWithServicesByIdIn(List.of(3L))).thenReturn(List.of(barbershop));
+
+        AddServiceDTO dto = new AddServiceDTO();
+        dto.setName("Barba");
+        dto.setDuration(30);
+        dto.setPrice(new BigDecimal("30.00"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        barbershopService.addServiceToBarbershop(3L, dto);
+
+        // Ainda dentro da transação: nada publicado
+        verifyNoInteractions(geoIndex, searchIndex, listingIndex, catalogCache);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(searchIndex).put(any());
+        verify(listingIndex).addService(eq(3L), eq("Barba"), eq(new BigDecimal("30.00")));
+        verify(catalogCache).refreshAsync(any());
+        verify(geoIndex, never()).put(any());
+    }
+
+    @Test
+    void ratingChangeIsPublishedOnlyAfterCommit() {
+        Barbershop barbershop = new Barbershop();
+        barbershop.setId(3L);
+        barbershop.setRating(4.5);
+        barbershop.setReviews(2);
+        when(barbershopRepository.findAllWithServicesByIdIn(List.of(3L))).thenReturn(List.of(barbershop));
+
+        TransactionSynchronizationManager.initSynchronization();
+        barbershopService.ratingChanged(3L);
+        verifyNoInteractions(geoIndex, searchIndex, listingIndex, catalogCache);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(listingIndex).updateRating(3L, 4.5, 2);
+        verify(catalogCache).refreshAsync(any());
+    }
+}
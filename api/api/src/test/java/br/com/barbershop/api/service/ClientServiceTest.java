@@ -12,8 +12,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.Optional;
-
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.verify;
@@ -26,6 +24,8 @@ class ClientServiceTest {
     private ClientRepository clientRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private AccountDirectory accountDirectory;
 
     @InjectMocks
     private ClientService clientService;
@@ -37,7 +37,7 @@ class ClientServiceTest {
         dto.setEmail("cliente@email.com");
         dto.setPassword("senha123");
 
-        when(clientRepository.findByEmail(dto.getEmail())).thenReturn(Optional.empty());
+        when(accountDirectory.isEmailTaken(dto.getEmail())).thenReturn(false);
         when(passwordEncoder.encode(dto.getPassword())).thenReturn("senha-codificada");
         when(clientRepository.save(org.mockito.ArgumentMatchers.any(Client.class))).thenAnswer(invocation -> {
             Client saved = invocation.getArgument(0);
@@ -55,6 +55,8 @@ class ClientServiceTest {
         assertThat(savedClient.getEmail()).isEqualTo("cliente@email.com");
         assertThat(savedClient.getPassword()).isEqualTo("senha-codificada");
 
+        verify(accountDirectory).save("CLIENT", 10L, "cliente@email.com", "senha-codificada");
+
         assertThat(response.getId()).isEqualTo(10L);
         assertThat(response.getName()).isEqualTo("Cliente Teste");
         assertThat(response.getEmail()).isEqualTo("cliente@email.com");
@@ -65,7 +67,8 @@ class ClientServiceTest {
         ClientRegistrationDTO dto = new ClientRegistrationDTO();
         dto.setEmail("cliente@email.com");
 
-        when(clientRepository.findByEmail(dto.getEmail())).thenReturn(Optional.of(new Client()));
+        // Email já usado por um cliente ou por um barbeiro
+        when(accountDirectory.isEmailTaken(dto.getEmail())).thenReturn(true);
 
         assertThatThrownBy(() -> clientService.register(dto))
                 .isInstanceOf(RuntimeException.class)
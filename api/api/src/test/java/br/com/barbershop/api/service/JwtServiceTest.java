@@ -0,0 +1,68 @@
+package br.com.barbershop.api.service;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-11-20T12:00:00Z");
+
+    private final JwtService jwtService = new JwtService();
+    private final UserDetails joao = new User("joao@email.com", "hash", List.of());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtService, "secretKey", "SuaChaveSecretaSuperLongaEComplexaParaAssinarTokensJWT");
+        setClock(NOW);
+    }
+
+    @Test
+    void verifyReturnsTypedClaimsAndReusesTheVerifiedTokenOnTheNextCall() {
+        String token = jwtService.generateToken(joao, "CLIENT", 7L, 3);
+
+        VerifiedToken first = jwtService.verify(token);
+        VerifiedToken second = jwtService.verify(token);
+
+        assertThat(first).isEqualTo(new VerifiedToken("joao@email.com", "CLIENT", 7L, 3, NOW.plus(Duration.ofHours(24))));
+        assertThat(second).isSameAs(first);
+        assertThat(jwtService.extractUsername(token)).isEqualTo("joao@email.com");
+        assertThat(jwtService.isTokenValid(token, joao)).isTrue();
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceItExpires() {
+        String token = jwtService.generateToken(joao, "BARBER");
+        assertThat(jwtService.verify(token).userId()).isNull();
+
+        setClock(NOW.plus(Duration.ofHours(25)));
+
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(jwtService.isTokenValid(token, joao)).isFalse();
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = jwtService.generateToken(joao, "CLIENT", 7L, 0);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtService.verify(tampered)).isInstanceOf(SignatureException.class);
+    }
+
+    private void setClock(Instant instant) {
+        ReflectionTestUtils.setField(jwtService, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.model.OpeningInterval;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpeningHoursTest {
+
+    @Test
+    void parseExpandsDayRangesFromSeedData() {
+        List<OpeningInterval> intervals = OpeningHours.parse("Seg-Sáb: 9h-20h");
+
+        assertThat(intervals).hasSize(6);
+        assertThat(intervals).extracting(OpeningInterval::getDayOfWeek)
+                .containsExactly(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                        DayOfWeek.THURSDAY, DayOfWeek.FRIDAY, DayOfWeek.SATURDAY);
+        assertThat(intervals.get(0).getOpenTime()).isEqualTo(LocalTime.of(9, 0));
+        assertThat(intervals.get(0).getCloseTime()).isEqualTo(LocalTime.of(20, 0));
+    }
+
+    @Test
+    void parseHandlesBreaksClosuresAndMinutes() {
+        List<OpeningInterval> intervals = OpeningHours.parse("Seg-Sex: 09:00-12:00, 13h30-19h; Sáb: 9h-14h; Dom: Fechado");
+
+        assertThat(intervals).hasSize(11);
+        assertThat(intervals).noneMatch(interval -> interval.getDayOfWeek() == DayOfWeek.SUNDAY);
+        assertThat(intervals).contains(new OpeningInterval(DayOfWeek.FRIDAY, LocalTime.of(13, 30), LocalTime.of(19, 0)));
+    }
+
+    @Test
+    void parseSplitsDayGroupsSeparatedByComma() {
+        List<OpeningInterval> intervals = OpeningHours.parse("Seg-Sex: 9h-18h, Sáb: 9h-14h");
+
+        assertThat(intervals).hasSize(6);
+        assertThat(intervals).contains(new OpeningInterval(DayOfWeek.SATURDAY, LocalTime.of(9, 0), LocalTime.of(14, 0)));
+        assertThat(intervals).doesNotContain(new OpeningInterval(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(14, 0)));
+    }
+
+    @Test
+    void parseReturnsEmptyListForUnrecognizedText() {
+        assertThat(OpeningHours.parse("Consulte pelo WhatsApp")).isEmpty();
+        assertThat(OpeningHours.parse(null)).isEmpty();
+    }
+
+    @Test
+    void compileBuildsMinuteBitmapPerWeekday() {
+        OpeningHours hours = OpeningHours.compile(OpeningHours.parse("Seg-Sex: 9h-12h, 13h-18h; Sáb: 10h-24h"));
+
+        // 13/04/2026 é uma segunda-feira
+        assertThat(hours.isOpenAt(LocalDateTime.of(2026, 4, 13, 9, 0))).isTrue();
+        assertThat(hours.isOpenAt(LocalDateTime.of(2026, 4, 13, 12, 15))).isFalse();
+        assertThat(hours.isOpenAt(LocalDateTime.of(2026, 4, 13, 17, 59))).isTrue();
+        assertThat(hours.isOpenAt(LocalDateTime.of(2026, 4, 13, 18, 0))).isFalse();
+        assertThat(hours.isOpenAt(LocalDateTime.of(2026, 4, 18, 23, 45))).isTrue();
+        assertThat(hours.isOpenAt(LocalDateTime.of(2026, 4, 19, 11, 0))).isFalse();
+        assertThat(hours.openMinutes(DayOfWeek.MONDAY).cardinality()).isEqualTo(8 * 60);
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.dto.CreateReviewDTO;
+import br.com.barbershop.api.dto.ReviewDTO;
+import br.com.barbershop.api.model.Appointment;
+import br.com.barbershop.api.model.AppointmentStatus;
+import br.com.barbershop.api.model.Barbershop;
+import br.com.barbershop.api.model.Client;
+import br.com.barbershop.api.model.Review;
+import br.com.barbershop.api.repository.AppointmentRepository;
+import br.com.barbershop.api.repository.BarbershopRepository;
+import br.com.barbershop.api.repository.ClientRepository;
+import br.com.barbershop.api.repository.ReviewRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewServiceTest {
+
+    @Mock
+    private ReviewRepository reviewRepository;
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private BarbershopRepository barbershopRepository;
+    @Mock
+    private ClientRepository clientRepository;
+    @Mock
+    private BarbershopService barbershopService;
+
+    @InjectMocks
+    private ReviewService reviewService;
+
+    @Test
+    void createSavesReviewAndAddsRatingToTheBarbershop() {
+        Appointment appointment = appointment(AppointmentStatus.COMPLETED);
+        when(appointmentRepository.findById(7L)).thenReturn(Optional.of(appointment));
+        when(reviewRepository.existsByAppointmentId(7L)).thenReturn(false);
+        when(reviewRepository.countByClientIdAndCreatedAtAfter(any(), any())).thenReturn(0L);
+        when(reviewRepository.saveAndFlush(any(Review.class))).thenAnswer(invocation -> {
+            Review saved = invocation.getArgument(0);
+            saved.setId(11L);
+            return saved;
+        });
+
+        ReviewDTO review = reviewService.create(7L, "joao@email.com", review(5, "Ótimo corte"));
+
+        assertThat(review.getId()).isEqualTo(11L);
+        assertThat(review.getBarbershopId()).isEqualTo(3L);
+        assertThat(review.getClientName()).isEqualTo("Joao");
+        assertThat(review.getCreatedAt())
+                .isCloseTo(LocalDateTime.now(ZoneId.of("America/Sao_Paulo")), within(1, ChronoUnit.MINUTES));
+        // O limite é contado com a linha do cliente travada
+        InOrder order = inOrder(clientRepository, reviewRepository);
+        order.verify(clientRepository).lockById(1L);
+        order.verify(reviewRepository).countByClientIdAndCreatedAtAfter(any(), any());
+        order.verify(reviewRepository).saveAndFlush(any(Review.class));
+        verify(barbershopRepository).addRating(3L, 5);
+        verify(barbershopService).ratingChanged(3L);
+    }
+
+    @Test
+    void onlyTheClientOfACompletedAppointmentCanReview() {
+        when(appointmentRepository.findById(7L)).thenReturn(Optional.of(appointment(AppointmentStatus.CONFIRMED)));
+
+        assertThatThrownBy(() -> reviewService.create(7L, "outro@email.com", review(4, null)))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> reviewService.create(7L, "joao@email.com", review(4, null)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Apenas agendamentos concluídos podem ser avaliados");
+        assertThatThrownBy(() -> reviewService.create(7L, "joao@email.com", review(6, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(barbershopRepository, never()).addRating(anyLong(), anyLong());
+    }
+
+    @Test
+    void createIsRateLimitedPerClient() {
+        when(appointmentRepository.findById(7L)).thenReturn(Optional.of(appointment(AppointmentStatus.COMPLETED)));
+        when(reviewRepository.existsByAppointmentId(7L)).thenReturn(false);
+        when(reviewRepository.countByClientIdAndCreatedAtAfter(any(), any())).thenReturn(5L);
+        Review oldest = new Review();
+        oldest.setCreatedAt(LocalDateTime.now(ZoneId.of("America/Sao_Paulo")).minusMinutes(50));
+        when(reviewRepository.findFirstByClientIdAndCreatedAtAfterOrderByCreatedAtAsc(any(), any()))
+                .thenReturn(Optional.of(oldest));
+
+        assertThatThrownBy(() -> reviewService.create(7L, "joao@email.com", review(5, null)))
+                .isInstanceOfSatisfying(ReviewRateLimitException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isBetween(500L, 600L));
+        verify(reviewRepository, never()).saveAndFlush(any());
+    }
+
+    private static Appointment appointment(AppointmentStatus status) {
+        Client client = new Client();
+        client.setId(1L);
+        client.setName("Joao");
+        client.setEmail("joao@email.com");
+        Barbershop barbershop = new Barbershop();
+        barbershop.setId(3L);
+
+        Appointment appointment = new Appointment();
+        appointment.setId(7L);
+        appointment.setClient(client);
+        appointment.setBarbershop(barbershop);
+        appointment.setStatus(status);
+        return appointment;
+    }
+
+    private static CreateReviewDTO review(int rating, String comment) {
+        CreateReviewDTO dto = new CreateReviewDTO();
+        dto.setRating(rating);
+        dto.setComment(comment);
+        return dto;
+    }
+}
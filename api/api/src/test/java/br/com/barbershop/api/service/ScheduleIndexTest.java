@@ -0,0 +1,154 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.model.Appointment;
+import br.com.barbershop.api.model.Barber;
+import br.com.barbershop.api.model.Barbershop;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScheduleIndexTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(10);
+
+    private final ScheduleIndex scheduleIndex = new ScheduleIndex();
+
+    @Test
+    void registrationDuringLoadIsAppliedAfterInstall() {
+        // O agendamento é gravado depois da leitura do banco, mas antes do dia ser instalado
+        ScheduleIndex.DaySchedule schedule = scheduleIndex.day(3L, DATE, () -> {
+            scheduleIndex.register(8L, 3L, 2L, DATE.atTime(10, 0), DATE.atTime(10, 30));
+            return List.of();
+        });
+
+        assertThat(schedule.hasConflict(2L, 600, 630, null)).isTrue();
+        assertThat(scheduleIndex.day(3L, DATE, List::of)).isSameAs(schedule);
+    }
+
+    @Test
+    void removalDuringLoadIsAppliedAfterInstall() {
+        Appointment loaded = appointment(8L, DATE.atTime(10, 0), DATE.atTime(10, 30));
+
+        ScheduleIndex.DaySchedule schedule = scheduleIndex.day(3L, DATE, () -> {
+            scheduleIndex.unregister(8L);
+            return List.of(loaded);
+        });
+
+        assertThat(schedule.busyMinutes(2L).isEmpty()).isTrue();
+    }
+
+    @Test
+    void bookingThatCrossesMidnightIsMarkedOnBothDays() {
+        ScheduleIndex.DaySchedule first = scheduleIndex.day(3L, DATE, List::of);
+        ScheduleIndex.DaySchedule second = scheduleIndex.day(3L, DATE.plusDays(1), List::of);
+
+        scheduleIndex.register(8L, 3L, 2L, DATE.atTime(23, 30), DATE.plusDays(1).atTime(0, 45));
+
+        assertThat(first.busyMinutes(2L).cardinality()).isEqualTo(30);
+        assertThat(second.busyMinutes(2L).cardinality()).isEqualTo(45);
+        assertThat(second.hasConflict(2L, 0, 15, null)).isTrue();
+
+        scheduleIndex.unregister(8L);
+        assertThat(first.busyMinutes(2L).isEmpty()).isTrue();
+        assertThat(second.busyMinutes(2L).isEmpty()).isTrue();
+    }
+
+    @Test
+    void preloadPlacesBookingsOnEveryDayTheyCover() {
+        Appointment overnight = appointment(8L, DATE.atTime(23, 0), DATE.plusDays(1).atTime(1, 0));
+        Appointment untilMidnight = appointment(9L, DATE.plusDays(1).atTime(23, 0), DATE.plusDays(2).atStartOfDay());
+
+        scheduleIndex.preload(3L, DATE, DATE.plusDays(2), () -> List.of(overnight, untilMidnight));
+
+        assertThat(scheduleIndex.day(3L, DATE, List::of).busyMinutes(2L).cardinality()).isEqualTo(60);
+        assertThat(scheduleIndex.day(3L, DATE.plusDays(1), List::of).busyMinutes(2L).cardinality()).isEqualTo(120);
+        // Terminar exatamente à meia-noite não ocupa o dia seguinte
+        assertThat(scheduleIndex.day(3L, DATE.plusDays(2), List::of).busyMinutes(2L).isEmpty()).isTrue();
+    }
+
+    @Test
+    void dayInvalidatedDuringLoadIsNotKept() {
+        AtomicInteger loads = new AtomicInteger();
+
+        scheduleIndex.day(3L, DATE, () -> {
+            loads.incrementAndGet();
+            scheduleIndex.invalidate(3L, DATE);
+            return List.of();
+        });
+        scheduleIndex.day(3L, DATE, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void dayIsReloadedFromTheDatabaseAfterReloadSeconds() {
+        Instant loadedAt = Instant.parse("2026-04-10T12:00:00Z");
+        ReflectionTestUtils.setField(scheduleIndex, "clock", Clock.fixed(loadedAt, ZoneOffset.UTC));
+        Appointment cancelledElsewhere = appointment(8L, DATE.atTime(10, 0), DATE.atTime(10, 30));
+        scheduleIndex.day(3L, DATE, () -> List.of(cancelledElsewhere));
+
+        ReflectionTestUtils.setField(scheduleIndex, "clock", Clock.fixed(loadedAt.plusSeconds(59), ZoneOffset.UTC));
+        assertThat(scheduleIndex.day(3L, DATE, List::of).hasConflict(2L, 600, 630, null)).isTrue();
+
+        // Outro nó cancelou o agendamento: a recarga não o traz mais
+        ReflectionTestUtils.setField(scheduleIndex, "clock", Clock.fixed(loadedAt.plusSeconds(60), ZoneOffset.UTC));
+        ScheduleIndex.DaySchedule reloaded = scheduleIndex.day(3L, DATE, List::of);
+
+        assertThat(reloaded.hasConflict(2L, 600, 630, null)).isFalse();
+        scheduleIndex.register(8L, 3L, 2L, DATE.atTime(11, 0), DATE.atTime(11, 30));
+        assertThat(reloaded.busyMinutes(2L).cardinality()).isEqualTo(30);
+    }
+
+    @Test
+    void daysLoadedLongestAgoAreEvictedAboveMaxDays() {
+        ReflectionTestUtils.setField(scheduleIndex, "maxDays", 2);
+        Instant start = Instant.parse("2026-04-10T12:00:00Z");
+        AtomicInteger loads = new AtomicInteger();
+        for (int day = 0; day < 3; day++) {
+            ReflectionTestUtils.setField(scheduleIndex, "clock", Clock.fixed(start.plusSeconds(day), ZoneOffset.UTC));
+            scheduleIndex.day(3L, DATE.plusDays(day), () -> {
+                loads.incrementAndGet();
+                return List.of();
+            });
+        }
+        // A terceira carga descartou o primeiro dia; os dois mais recentes continuam em memória
+        ReflectionTestUtils.setField(scheduleIndex, "clock", Clock.fixed(start.plusSeconds(3), ZoneOffset.UTC));
+        scheduleIndex.day(3L, DATE.plusDays(2), () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        scheduleIndex.day(3L, DATE, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertThat(loads).hasValue(4);
+    }
+
+    private static Appointment appointment(Long id, LocalDateTime start, LocalDateTime end) {
+        Barbershop shop = new Barbershop();
+        shop.setId(3L);
+        Barber barber = new Barber();
+        barber.setId(2L);
+
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setBarbershop(shop);
+        appointment.setBarber(barber);
+        appointment.setStartTime(start);
+        appointment.setEndTime(end);
+        return appointment;
+    }
+}
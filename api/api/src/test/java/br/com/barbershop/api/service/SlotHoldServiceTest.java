@@ -0,0 +1,102 @@
+package br.com.barbershop.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlotHoldServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 4, 15);
+    private static final Instant NOW = Instant.parse("2026-04-14T12:00:00Z");
+
+    private SlotHoldService slotHoldService;
+
+    @BeforeEach
+    void setUp() {
+        slotHoldService = new SlotHoldService();
+        ReflectionTestUtils.setField(slotHoldService, "ttlSeconds", 60L);
+        setNow(NOW);
+    }
+
+    @Test
+    void overlappingHoldForSameBarberIsRejected() {
+        assertThat(slotHoldService.tryHold(3L, 2L, 1L, DATE, 600, 660)).isPresent();
+
+        assertThat(slotHoldService.tryHold(3L, 2L, 7L, DATE, 630, 690)).isEmpty();
+        assertThat(slotHoldService.tryHold(3L, 5L, 7L, DATE, 630, 690)).isPresent();
+        assertThat(slotHoldService.tryHold(3L, 2L, 8L, DATE, 660, 690)).isPresent();
+    }
+
+    @Test
+    void expiredHoldsAreIgnoredAndRemovedByTheTimerWheel() {
+        SlotHoldService.Hold hold = slotHoldService.tryHold(3L, 2L, 1L, DATE, 600, 660).orElseThrow();
+        assertThat(slotHoldService.heldMinutes(3L, DATE, 2L, null).cardinality()).isEqualTo(60);
+
+        setNow(NOW.plusSeconds(61));
+        // Vencido, mas ainda não recolhido: já não bloqueia nada
+        assertThat(slotHoldService.heldMinutes(3L, DATE, 2L, null).isEmpty()).isTrue();
+        assertThat(slotHoldService.find(hold.id())).isEmpty();
+
+        slotHoldService.expireDue(NOW.plusSeconds(61).toEpochMilli());
+        assertThat(slotHoldService.release(hold.id())).isFalse();
+    }
+
+    @Test
+    void timerWheelKeepsHoldsThatAreNotDueYet() {
+        SlotHoldService.Hold hold = slotHoldService.tryHold(3L, 2L, 1L, DATE, 600, 660).orElseThrow();
+
+        slotHoldService.expireDue(NOW.plusSeconds(30).toEpochMilli());
+
+        assertThat(slotHoldService.find(hold.id())).isPresent();
+        assertThat(slotHoldService.isHeldByOthers(3L, DATE, 2L, 630, 645, 7L)).isTrue();
+        assertThat(slotHoldService.isHeldByOthers(3L, DATE, 2L, 630, 645, 1L)).isFalse();
+    }
+
+    @Test
+    void clientCannotHoldMoreThanTheLimitAcrossBarbershops() {
+        ReflectionTestUtils.setField(slotHoldService, "maxHoldsPerClient", 2);
+        SlotHoldService.Hold first = slotHoldService.tryHold(3L, 2L, 1L, DATE, 600, 660).orElseThrow();
+        slotHoldService.tryHold(4L, 5L, 1L, DATE, 600, 660).orElseThrow();
+
+        assertThatThrownBy(() -> slotHoldService.tryHold(6L, 8L, 1L, DATE, 600, 660))
+                .isInstanceOf(HoldLimitExceededException.class);
+        // Um novo hold na mesma barbearia substitui o anterior e não conta a mais
+        assertThat(slotHoldService.tryHold(3L, 2L, 1L, DATE, 700, 760)).isPresent();
+        assertThat(slotHoldService.find(first.id())).isEmpty();
+
+        // Holds vencidos deixam de contar mesmo antes de recolhidos
+        setNow(NOW.plusSeconds(61));
+        assertThat(slotHoldService.tryHold(6L, 8L, 1L, DATE, 600, 660)).isPresent();
+    }
+
+    @Test
+    void newHoldReleasesThePreviousHoldOfTheSameClient() {
+        SlotHoldService.Hold first = slotHoldService.tryHold(3L, 2L, 1L, DATE, 600, 660).orElseThrow();
+        SlotHoldService.Hold second = slotHoldService.tryHold(3L, 2L, 1L, DATE.plusDays(1), 600, 660).orElseThrow();
+
+        assertThat(slotHoldService.find(first.id())).isEmpty();
+        assertThat(slotHoldService.find(second.id())).isPresent();
+        assertThat(slotHoldService.tryHold(3L, 2L, 7L, DATE, 600, 660)).isPresent();
+    }
+
+    @Test
+    void newHoldKeepsTheClientsHoldInAnotherBarbershop() {
+        SlotHoldService.Hold other = slotHoldService.tryHold(4L, 5L, 1L, DATE, 600, 660).orElseThrow();
+        SlotHoldService.Hold held = slotHoldService.tryHold(3L, 2L, 1L, DATE, 600, 660).orElseThrow();
+
+        assertThat(slotHoldService.find(other.id())).isPresent();
+        assertThat(slotHoldService.find(held.id())).isPresent();
+    }
+
+    private void setNow(Instant now) {
+        ReflectionTestUtils.setField(slotHoldService, "clock", Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.barbershop.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void allowsBurstUpToCapacityAndRefillsOverTime() {
+        // 3 seguidas, depois 1 a cada 20 segundos
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 3, 100, now::get);
+
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isEqualTo(20);
+        // Outra chave tem o próprio bucket
+        assertThat(limiter.tryAcquire("10.0.0.2")).isZero();
+
+        advanceSeconds(15);
+        assertThat(limiter.tryAcquire("10.0.0.1")).isEqualTo(5);
+        advanceSeconds(5);
+        assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+    }
+
+    @Test
+    void memoryIsBoundedByEvictingRefilledBucketsAndSharingAnOverflowBucket() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 2, now::get);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("b")).isZero();
+        // Limite de chaves atingido e nenhum bucket recarregado: chaves novas dividem o transbordo
+        assertThat(limiter.tryAcquire("c")).isZero();
+        assertThat(limiter.tryAcquire("d")).isPositive();
+        assertThat(limiter.size()).isEqualTo(2);
+
+        advanceSeconds(60);
+        assertThat(limiter.tryAcquire("e")).isZero();
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    private void advanceSeconds(long seconds) {
+        now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.barbershop.api.service;
+
+import br.com.barbershop.api.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionCacheTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @InjectMocks
+    private TokenVersionCache tokenVersionCache;
+
+    @Test
+    void versionIsLoadedOnceAndReloadedAfterInvalidation() {
+        when(accountRepository.findTokenVersion("CLIENT", 1L)).thenReturn(Optional.of(0), Optional.of(1));
+
+        assertThat(tokenVersionCache.isCurrent("CLIENT", 1L, 0)).isTrue();
+        assertThat(tokenVersionCache.isCurrent("CLIENT", 1L, 0)).isTrue();
+        verify(accountRepository, times(1)).findTokenVersion("CLIENT", 1L);
+
+        // Troca de senha: o token antigo deixa de valer e o novo passa a valer
+        tokenVersionCache.invalidate("CLIENT", 1L);
+        assertThat(tokenVersionCache.isCurrent("CLIENT", 1L, 0)).isFalse();
+        assertThat(tokenVersionCache.isCurrent("CLIENT", 1L, 1)).isTrue();
+        verify(accountRepository, times(2)).findTokenVersion("CLIENT", 1L);
+    }
+
+    @Test
+    void deletedAccountIsNeverCurrent() {
+        when(accountRepository.findTokenVersion("BARBER", 2L)).thenReturn(Optional.empty());
+
+        assertThat(tokenVersionCache.isCurrent("BARBER", 2L, 0)).isFalse();
+    }
+}